@@ -0,0 +1,76 @@
+package daw2a.gestioneventos.carga;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+// Parámetros de la prueba de carga, leídos de argumentos "--clave=valor"
+public class ConfiguracionCarga {
+    // Mezcla por defecto: lecturas de eventos con algo de listado e inscripciones
+    static final String MEZCLA_POR_DEFECTO = "eventoPorId=80,listarEventos=15,crearParticipante=5";
+
+    private final URI url;
+    private final double tasa;
+    private final Duration duracion;
+    private final Duration calentamiento;
+    private final Duration timeout;
+    private final int maxEnVuelo;
+    private final Map<Operacion, Integer> mezcla;
+    private final double umbralP99Ms;
+
+    private ConfiguracionCarga(Map<String, String> valores) {
+        this.url = URI.create(valores.getOrDefault("url", "http://localhost:8080"));
+        this.tasa = Double.parseDouble(valores.getOrDefault("tasa", "200"));
+        this.duracion = Duration.ofSeconds(Long.parseLong(valores.getOrDefault("duracion", "60")));
+        this.calentamiento = Duration.ofSeconds(Long.parseLong(valores.getOrDefault("calentamiento", "10")));
+        this.timeout = Duration.ofMillis(Long.parseLong(valores.getOrDefault("timeout", "5000")));
+        this.maxEnVuelo = Integer.parseInt(valores.getOrDefault("maxEnVuelo", "10000"));
+        this.mezcla = parsearMezcla(valores.getOrDefault("mezcla", MEZCLA_POR_DEFECTO));
+        this.umbralP99Ms = Double.parseDouble(valores.getOrDefault("umbralP99", "0"));
+        if (tasa <= 0) {
+            throw new IllegalArgumentException("La tasa de llegadas debe ser positiva");
+        }
+    }
+
+    public static ConfiguracionCarga desdeArgumentos(String[] args) {
+        Map<String, String> valores = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento no válido: " + arg + " (se espera --clave=valor)");
+            }
+            int igual = arg.indexOf('=');
+            valores.put(arg.substring(2, igual), arg.substring(igual + 1));
+        }
+        return new ConfiguracionCarga(valores);
+    }
+
+    // "eventoPorId=80,listarEventos=15" -> {EVENTO_POR_ID: 80, LISTAR_EVENTOS: 15}
+    static Map<Operacion, Integer> parsearMezcla(String texto) {
+        Map<Operacion, Integer> mezcla = new EnumMap<>(Operacion.class);
+        for (String parte : texto.split(",")) {
+            String[] claveValor = parte.trim().split("=");
+            if (claveValor.length != 2) {
+                throw new IllegalArgumentException("Entrada de mezcla no válida: " + parte);
+            }
+            int peso = Integer.parseInt(claveValor[1].trim());
+            if (peso > 0) {
+                mezcla.put(Operacion.porNombre(claveValor[0].trim()), peso);
+            }
+        }
+        if (mezcla.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no contiene ninguna operación con peso positivo");
+        }
+        return mezcla;
+    }
+
+    public URI getUrl() { return url; }
+    public double getTasa() { return tasa; }
+    public Duration getDuracion() { return duracion; }
+    public Duration getCalentamiento() { return calentamiento; }
+    public Duration getTimeout() { return timeout; }
+    public int getMaxEnVuelo() { return maxEnVuelo; }
+    public Map<Operacion, Integer> getMezcla() { return mezcla; }
+    public double getUmbralP99Ms() { return umbralP99Ms; }
+}
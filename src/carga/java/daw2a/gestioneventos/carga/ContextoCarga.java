@@ -0,0 +1,77 @@
+package daw2a.gestioneventos.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Estado compartido por todas las peticiones de una ejecución
+public class ContextoCarga {
+    private final URI base;
+    private final Duration timeout;
+    private final DatosConocidos datos;
+    private final ObjectMapper mapper;
+    private final AtomicLong contador = new AtomicLong();
+    // Prefijo de 3 caracteres para que nombres y usuarios no choquen entre ejecuciones
+    private final String prefijo;
+
+    public ContextoCarga(URI base, Duration timeout, DatosConocidos datos, ObjectMapper mapper) {
+        this.base = base;
+        this.timeout = timeout;
+        this.datos = datos;
+        this.mapper = mapper;
+        this.prefijo = Long.toString(36 * 36 + System.currentTimeMillis() / 1000 % (36 * 36 * 35), 36);
+    }
+
+    public DatosConocidos datos() {
+        return datos;
+    }
+
+    public Random aleatorio() {
+        return ThreadLocalRandom.current();
+    }
+
+    public String siguienteUnico() {
+        return prefijo + "-" + contador.incrementAndGet();
+    }
+
+    // Usuario de entre 6 y 15 caracteres: "lt" + prefijo + contador en base 36
+    public String siguienteUsuario() {
+        return "lt" + prefijo + String.format("%5s", Long.toString(contador.incrementAndGet(), 36)).replace(' ', '0');
+    }
+
+    public Long leerId(String cuerpo) {
+        try {
+            return mapper.readTree(cuerpo).path("id").asLong();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public HttpRequest.Builder get(String ruta) {
+        return peticion(ruta).header("Accept", "application/json").GET();
+    }
+
+    public HttpRequest.Builder post(String ruta, String json) {
+        return peticion(ruta).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    public HttpRequest.Builder put(String ruta, String json) {
+        return peticion(ruta).header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    public HttpRequest.Builder delete(String ruta) {
+        return peticion(ruta).DELETE();
+    }
+
+    private HttpRequest.Builder peticion(String ruta) {
+        return HttpRequest.newBuilder(base.resolve(ruta)).timeout(timeout);
+    }
+}
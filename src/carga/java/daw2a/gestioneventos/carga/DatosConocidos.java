@@ -0,0 +1,105 @@
+package daw2a.gestioneventos.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+// Ids y nombres existentes en la instancia bajo prueba, descubiertos antes de empezar
+// a través de los propios listados de la API
+public class DatosConocidos {
+    private static final int TAMANO_MUESTRA = 1000;
+
+    private final long[] eventos;
+    private final String[] nombresEventos;
+    private final long[] organizadores;
+    private final long[] participantes;
+    private final ConcurrentLinkedDeque<Long> eventosCreados = new ConcurrentLinkedDeque<>();
+
+    private DatosConocidos(long[] eventos, String[] nombresEventos, long[] organizadores, long[] participantes) {
+        this.eventos = eventos;
+        this.nombresEventos = nombresEventos;
+        this.organizadores = organizadores;
+        this.participantes = participantes;
+    }
+
+    public static DatosConocidos descubrir(HttpClient cliente, URI base, ObjectMapper mapper, Duration timeout)
+            throws IOException, InterruptedException {
+        List<JsonNode> eventos = listar(cliente, base.resolve("/api/v1/eventos?size=" + TAMANO_MUESTRA), mapper, timeout);
+        List<JsonNode> organizadores = listar(cliente, base.resolve("/api/v1/organizadores?size=" + TAMANO_MUESTRA), mapper, timeout);
+        List<JsonNode> participantes = listar(cliente, base.resolve("/api/v1/participantes?size=" + TAMANO_MUESTRA), mapper, timeout);
+        if (eventos.isEmpty() || organizadores.isEmpty()) {
+            throw new IllegalStateException("La instancia no tiene eventos u organizadores; siembra datos antes (perfil 'generador')");
+        }
+        return new DatosConocidos(
+                eventos.stream().mapToLong(n -> n.get("id").asLong()).toArray(),
+                eventos.stream().map(n -> n.get("nombre").asText()).toArray(String[]::new),
+                organizadores.stream().mapToLong(n -> n.get("id").asLong()).toArray(),
+                participantes.stream().mapToLong(n -> n.get("id").asLong()).toArray());
+    }
+
+    private static List<JsonNode> listar(HttpClient cliente, URI uri, ObjectMapper mapper, Duration timeout)
+            throws IOException, InterruptedException {
+        HttpResponse<String> respuesta = cliente.send(
+                HttpRequest.newBuilder(uri).timeout(timeout).header("Accept", "application/json").GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() != 200) {
+            throw new IllegalStateException("GET " + uri + " devolvió " + respuesta.statusCode());
+        }
+        List<JsonNode> elementos = new ArrayList<>();
+        mapper.readTree(respuesta.body()).path("content").forEach(elementos::add);
+        return elementos;
+    }
+
+    public long eventoAleatorio(Random aleatorio) {
+        return eventos[aleatorio.nextInt(eventos.length)];
+    }
+
+    public String nombreEventoAleatorio(Random aleatorio) {
+        return nombresEventos[aleatorio.nextInt(nombresEventos.length)];
+    }
+
+    public long organizadorAleatorio(Random aleatorio) {
+        return organizadores[aleatorio.nextInt(organizadores.length)];
+    }
+
+    // Si no hay participantes sembrados se pide un id inexistente y se contará como error (404)
+    public long participanteAleatorio(Random aleatorio) {
+        return participantes.length == 0 ? Long.MAX_VALUE : participantes[aleatorio.nextInt(participantes.length)];
+    }
+
+    public void anotarEventoCreado(Long id) {
+        if (id != null) {
+            eventosCreados.addLast(id);
+        }
+    }
+
+    public Long ultimoEventoCreado() {
+        return eventosCreados.peekLast();
+    }
+
+    public Long tomarEventoCreado() {
+        return eventosCreados.pollFirst();
+    }
+
+    public int numEventos() {
+        return eventos.length;
+    }
+
+    public int numOrganizadores() {
+        return organizadores.length;
+    }
+
+    public int numParticipantes() {
+        return participantes.length;
+    }
+}
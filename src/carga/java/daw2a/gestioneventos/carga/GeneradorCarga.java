@@ -0,0 +1,201 @@
+package daw2a.gestioneventos.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Generador de carga HTTP contra una instancia local de la API.
+// Modelo abierto: las peticiones salen a la tasa configurada (llegadas de Poisson)
+// independientemente de lo que tarde el servidor en responder; cada una se atiende
+// en su propio hilo virtual.
+//
+// Uso: gradle pruebaCarga --args="--url=http://localhost:8080 --tasa=500 --duracion=60
+//          --mezcla=eventoPorId=80,listarEventos=15,crearParticipante=5 --umbralP99=50"
+// Con --umbralP99 (ms) termina con código 1 si el p99 global lo supera.
+//
+// Toda la carga sale de una misma IP: la instancia debe arrancar con el límite de tasa
+// desactivado (gradle bootRun --args="--gestioneventos.limite-tasa.habilitado=false"), o las
+// respuestas serán sobre todo 429. Si llega alguna, el informe lo avisa.
+public class GeneradorCarga {
+    private static final long MICROS_POR_MILI = 1000;
+    static final String SIN_LIMITE_TASA = "--gestioneventos.limite-tasa.habilitado=false";
+
+    private final ConfiguracionCarga config;
+
+    public GeneradorCarga(ConfiguracionCarga config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int codigo = new GeneradorCarga(ConfiguracionCarga.desdeArgumentos(args)).ejecutar(System.out);
+        System.exit(codigo);
+    }
+
+    public int ejecutar(PrintStream salida) throws IOException, InterruptedException {
+        // Un hilo virtual por petición; el cliente HTTP conserva su propio ejecutor interno
+        ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(config.getTimeout())
+                .build();
+
+        ObjectMapper mapper = new ObjectMapper();
+        DatosConocidos datos = DatosConocidos.descubrir(cliente, config.getUrl(), mapper, config.getTimeout());
+        ContextoCarga ctx = new ContextoCarga(config.getUrl(), config.getTimeout(), datos, mapper);
+        salida.printf("Datos descubiertos: %d eventos, %d organizadores, %d participantes%n",
+                datos.numEventos(), datos.numOrganizadores(), datos.numParticipantes());
+
+        Map<Operacion, ResultadosOperacion> resultados = new EnumMap<>(Operacion.class);
+        config.getMezcla().keySet().forEach(op -> resultados.put(op, new ResultadosOperacion()));
+        Operacion[] operaciones = config.getMezcla().keySet().toArray(Operacion[]::new);
+        int[] pesosAcumulados = new int[operaciones.length];
+        int acumulado = 0;
+        for (int i = 0; i < operaciones.length; i++) {
+            acumulado += config.getMezcla().get(operaciones[i]);
+            pesosAcumulados[i] = acumulado;
+        }
+
+        salida.printf("Lanzando %.1f peticiones/s durante %ds (+%ds de calentamiento) contra %s%n",
+                config.getTasa(), config.getDuracion().toSeconds(), config.getCalentamiento().toSeconds(), config.getUrl());
+
+        Semaphore enVuelo = new Semaphore(config.getMaxEnVuelo());
+        long inicio = System.nanoTime();
+        long inicioMedida = inicio + config.getCalentamiento().toNanos();
+        long fin = inicioMedida + config.getDuracion().toNanos();
+        double nanosEntreLlegadas = TimeUnit.SECONDS.toNanos(1) / config.getTasa();
+
+        long programada = inicio;
+        while (true) {
+            // Tiempos entre llegadas exponenciales: proceso de Poisson con la tasa pedida
+            programada += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * nanosEntreLlegadas);
+            if (programada >= fin) {
+                break;
+            }
+            esperarHasta(programada);
+
+            Operacion op = elegir(operaciones, pesosAcumulados, acumulado);
+            boolean medir = programada >= inicioMedida;
+            ResultadosOperacion res = resultados.get(op);
+            if (!enVuelo.tryAcquire()) {
+                if (medir) {
+                    res.descartada();
+                }
+                continue;
+            }
+            long salidaProgramada = programada;
+            hilos.execute(() -> {
+                try {
+                    lanzar(cliente, ctx, op, res, salidaProgramada, medir);
+                } finally {
+                    enVuelo.release();
+                }
+            });
+        }
+
+        hilos.shutdown();
+        hilos.awaitTermination(config.getTimeout().toMillis() * 2, TimeUnit.MILLISECONDS);
+        return informar(salida, resultados);
+    }
+
+    private void lanzar(HttpClient cliente, ContextoCarga ctx, Operacion op, ResultadosOperacion res,
+                        long programada, boolean medir) {
+        HttpRequest.Builder peticion = op.peticion(ctx);
+        if (peticion == null) {
+            if (medir) {
+                res.omitida();
+            }
+            return;
+        }
+        long enviada = System.nanoTime();
+        try {
+            HttpResponse<String> respuesta = cliente.send(peticion.build(), HttpResponse.BodyHandlers.ofString());
+            long recibida = System.nanoTime();
+            op.alResponder(ctx, respuesta.statusCode(), respuesta.body());
+            if (medir) {
+                res.registrar(respuesta.statusCode(), recibida - programada, recibida - enviada);
+            }
+        } catch (IOException e) {
+            if (medir) {
+                res.fallo(System.nanoTime() - programada);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int informar(PrintStream salida, Map<Operacion, ResultadosOperacion> resultados) {
+        Histogram global = new Histogram(3);
+        long correctas = 0;
+        long limitadas = 0;
+        salida.println();
+        salida.printf("%-22s %9s %7s %7s %7s %9s %9s %9s %9s %11s%n",
+                "operacion", "ok", "error", "omit", "desc", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "serv p99 ms");
+        for (Map.Entry<Operacion, ResultadosOperacion> entrada : resultados.entrySet()) {
+            ResultadosOperacion res = entrada.getValue();
+            Histogram lat = res.getLatencia();
+            global.add(lat);
+            correctas += res.getCorrectas();
+            limitadas += res.getLimitadas();
+            salida.printf("%-22s %9d %7d %7d %7d %9.2f %9.2f %9.2f %9.2f %11.2f%n",
+                    entrada.getKey().getNombre(), res.getCorrectas(), res.getErroneas(),
+                    res.getOmitidas(), res.getDescartadas(),
+                    ms(lat.getValueAtPercentile(50)), ms(lat.getValueAtPercentile(99)),
+                    ms(lat.getValueAtPercentile(99.9)), ms(lat.getMaxValue()),
+                    ms(res.getServicio().getValueAtPercentile(99)));
+        }
+        double p99 = ms(global.getValueAtPercentile(99));
+        salida.printf("%-22s %9d %7s %7s %7s %9.2f %9.2f %9.2f %9.2f%n", "TOTAL", correctas, "", "", "",
+                ms(global.getValueAtPercentile(50)), p99,
+                ms(global.getValueAtPercentile(99.9)), ms(global.getMaxValue()));
+        salida.printf("Rendimiento: %.1f respuestas correctas/s%n",
+                correctas / (double) Math.max(1, config.getDuracion().toSeconds()));
+        if (limitadas > 0) {
+            salida.printf("AVISO: %d respuestas 429 del límite de tasa; los percentiles no miden el servicio. "
+                    + "Arranque la instancia con %s%n", limitadas, SIN_LIMITE_TASA);
+        }
+
+        if (config.getUmbralP99Ms() > 0 && p99 > config.getUmbralP99Ms()) {
+            salida.printf("REGRESION: p99 global %.2f ms supera el umbral de %.2f ms%n", p99, config.getUmbralP99Ms());
+            return 1;
+        }
+        return 0;
+    }
+
+    private static Operacion elegir(Operacion[] operaciones, int[] pesosAcumulados, int total) {
+        int r = ThreadLocalRandom.current().nextInt(total);
+        for (int i = 0; i < pesosAcumulados.length; i++) {
+            if (r < pesosAcumulados[i]) {
+                return operaciones[i];
+            }
+        }
+        return operaciones[operaciones.length - 1];
+    }
+
+    private static void esperarHasta(long instanteNanos) {
+        long restante;
+        while ((restante = instanteNanos - System.nanoTime()) > 0) {
+            if (restante > TimeUnit.MILLISECONDS.toNanos(2)) {
+                LockSupport.parkNanos(restante - TimeUnit.MILLISECONDS.toNanos(1));
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static double ms(long micros) {
+        return micros / (double) MICROS_POR_MILI;
+    }
+}
@@ -0,0 +1,135 @@
+package daw2a.gestioneventos.carga;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+// Operaciones que puede lanzar la prueba de carga contra /api/v1/*.
+// El nombre (camelCase) es el que se usa en el parámetro --mezcla.
+public enum Operacion {
+    LISTAR_EVENTOS("listarEventos") {
+        @Override
+        HttpRequest.Builder peticion(ContextoCarga ctx) {
+            return ctx.get("/api/v1/eventos?page=" + ctx.aleatorio().nextInt(5) + "&size=20");
+        }
+    },
+    EVENTO_POR_ID("eventoPorId") {
+        @Override
+        HttpRequest.Builder peticion(ContextoCarga ctx) {
+            return ctx.get("/api/v1/eventos/id/" + ctx.datos().eventoAleatorio(ctx.aleatorio()));
+        }
+    },
+    EVENTO_POR_NOMBRE("eventoPorNombre") {
+        @Override
+        HttpRequest.Builder peticion(ContextoCarga ctx) {
+            String nombre = ctx.datos().nombreEventoAleatorio(ctx.aleatorio());
+            return ctx.get("/api/v1/eventos/nombre/" + URLEncoder.encode(nombre, StandardCharsets.UTF_8).replace("+", "%20"));
+        }
+    },
+    CREAR_EVENTO("crearEvento") {
+        @Override
+        HttpRequest.Builder peticion(ContextoCarga ctx) {
+            LocalDateTime inicio = LocalDateTime.now().plusDays(1 + ctx.aleatorio().nextInt(300)).withNano(0);
+            String json = "{\"nombre\":\"Carga " + ctx.siguienteUnico() + "\","
+                    + "\"descripcion\":\"Evento creado por la prueba de carga\","
+                    + "\"fechaInicio\":\"" + inicio + "\","
+                    + "\"fechaFin\":\"" + inicio.plusHours(4) + "\","
+                    + "\"organizadorId\":" + ctx.datos().organizadorAleatorio(ctx.aleatorio()) + "}";
+            return ctx.post("/api/v1/eventos", json);
+        }
+
+        @Override
+        void alResponder(ContextoCarga ctx, int estado, String cuerpo) {
+            if (estado == 201) {
+                ctx.datos().anotarEventoCreado(ctx.leerId(cuerpo));
+            }
+        }
+    },
+    EDITAR_EVENTO("editarEvento") {
+        @Override
+        HttpRequest.Builder peticion(ContextoCarga ctx) {
+            Long id = ctx.datos().ultimoEventoCreado();
+            if (id == null) {
+                return null;
+            }
+            String json = "{\"descripcion\":\"Editado por la prueba de carga " + ctx.siguienteUnico() + "\","
+                    + "\"organizadorId\":" + ctx.datos().organizadorAleatorio(ctx.aleatorio()) + "}";
+            return ctx.put("/api/v1/eventos/" + id, json);
+        }
+    },
+    ELIMINAR_EVENTO("eliminarEvento") {
+        // Sólo borra eventos creados por la propia prueba, nunca los datos sembrados
+        @Override
+        HttpRequest.Builder peticion(ContextoCarga ctx) {
+            Long id = ctx.datos().tomarEventoCreado();
+            return id == null ? null : ctx.delete("/api/v1/eventos/" + id);
+        }
+    },
+    LISTAR_ORGANIZADORES("listarOrganizadores") {
+        @Override
+        HttpRequest.Builder peticion(ContextoCarga ctx) {
+            return ctx.get("/api/v1/organizadores?page=" + ctx.aleatorio().nextInt(5) + "&size=20");
+        }
+    },
+    ORGANIZADOR_POR_ID("organizadorPorId") {
+        @Override
+        HttpRequest.Builder peticion(ContextoCarga ctx) {
+            return ctx.get("/api/v1/organizadores/" + ctx.datos().organizadorAleatorio(ctx.aleatorio()));
+        }
+    },
+    CREAR_ORGANIZADOR("crearOrganizador") {
+        @Override
+        HttpRequest.Builder peticion(ContextoCarga ctx) {
+            return ctx.post("/api/v1/organizadores", "{\"nombre\":\"Carga " + ctx.siguienteUnico() + "\"}");
+        }
+    },
+    LISTAR_PARTICIPANTES("listarParticipantes") {
+        @Override
+        HttpRequest.Builder peticion(ContextoCarga ctx) {
+            return ctx.get("/api/v1/participantes?page=" + ctx.aleatorio().nextInt(5) + "&size=20");
+        }
+    },
+    PARTICIPANTE_POR_ID("participantePorId") {
+        @Override
+        HttpRequest.Builder peticion(ContextoCarga ctx) {
+            return ctx.get("/api/v1/participantes/" + ctx.datos().participanteAleatorio(ctx.aleatorio()));
+        }
+    },
+    CREAR_PARTICIPANTE("crearParticipante") {
+        @Override
+        HttpRequest.Builder peticion(ContextoCarga ctx) {
+            String usuario = ctx.siguienteUsuario();
+            String json = "{\"nombre\":\"Participante " + usuario + "\","
+                    + "\"usuario\":\"" + usuario + "\","
+                    + "\"contrasenia\":\"password\","
+                    + "\"eventoId\":" + ctx.datos().eventoAleatorio(ctx.aleatorio()) + "}";
+            return ctx.post("/api/v1/participantes", json);
+        }
+    };
+
+    private final String nombre;
+
+    Operacion(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    // Devuelve null si la operación no se puede lanzar todavía (p. ej. no hay eventos propios que borrar)
+    abstract HttpRequest.Builder peticion(ContextoCarga ctx);
+
+    void alResponder(ContextoCarga ctx, int estado, String cuerpo) {
+    }
+
+    public static Operacion porNombre(String nombre) {
+        return Arrays.stream(values())
+                .filter(op -> op.nombre.equalsIgnoreCase(nombre))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Operación desconocida: " + nombre
+                        + ". Disponibles: " + Arrays.toString(Arrays.stream(values()).map(Operacion::getNombre).toArray())));
+    }
+}
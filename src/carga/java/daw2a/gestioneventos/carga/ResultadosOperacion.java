@@ -0,0 +1,58 @@
+package daw2a.gestioneventos.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Métricas de una operación. Se registran en microsegundos con 3 cifras significativas.
+// "latencia" se mide desde el instante en que la petición DEBÍA salir (modelo abierto),
+// así que incluye la espera si el cliente o el servidor se retrasan: evita la omisión
+// coordinada. "servicio" es sólo el tiempo de ida y vuelta de la petición.
+public class ResultadosOperacion {
+    private final Histogram latencia = new ConcurrentHistogram(3);
+    private final Histogram servicio = new ConcurrentHistogram(3);
+    private final LongAdder correctas = new LongAdder();
+    private final LongAdder erroneas = new LongAdder();
+    private final LongAdder omitidas = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+    private final LongAdder limitadas = new LongAdder();
+
+    public void registrar(int estado, long latenciaNanos, long servicioNanos) {
+        latencia.recordValue(Math.max(1, latenciaNanos / 1000));
+        servicio.recordValue(Math.max(1, servicioNanos / 1000));
+        if (estado >= 200 && estado < 300) {
+            correctas.increment();
+        } else {
+            erroneas.increment();
+        }
+        // 429 del límite de tasa del servidor: también es un error, pero se avisa aparte
+        if (estado == 429) {
+            limitadas.increment();
+        }
+    }
+
+    // Error de red o timeout: cuenta como error y su latencia también se registra
+    public void fallo(long latenciaNanos) {
+        latencia.recordValue(Math.max(1, latenciaNanos / 1000));
+        erroneas.increment();
+    }
+
+    // La operación no era aplicable en ese momento (p. ej. borrar sin eventos propios)
+    public void omitida() {
+        omitidas.increment();
+    }
+
+    // Se superó el máximo de peticiones en vuelo: el cliente es el cuello de botella
+    public void descartada() {
+        descartadas.increment();
+    }
+
+    public Histogram getLatencia() { return latencia; }
+    public Histogram getServicio() { return servicio; }
+    public long getCorrectas() { return correctas.sum(); }
+    public long getErroneas() { return erroneas.sum(); }
+    public long getOmitidas() { return omitidas.sum(); }
+    public long getDescartadas() { return descartadas.sum(); }
+    public long getLimitadas() { return limitadas.sum(); }
+}
@@ -0,0 +1,21 @@
+package daw2a.gestioneventos;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Lanza el generador de datos sin servidor web y termina al acabar.
+// Tiene sentido contra una base de datos persistente, p. ej.:
+//   gradle generarDatos --args="--spring.datasource.url=jdbc:h2:file:./build/datos/eventos
+//       --spring.jpa.hibernate.ddl-auto=update --gestioneventos.generador.participantes=5000000"
+public class GeneradorDatosCli {
+
+    public static void main(String[] args) {
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(GestionEventosApplication.class)
+                .profiles("generador")
+                .web(WebApplicationType.NONE)
+                .run(args);
+        System.exit(SpringApplication.exit(contexto));
+    }
+}
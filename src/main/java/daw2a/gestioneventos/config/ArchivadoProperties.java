@@ -0,0 +1,28 @@
+package daw2a.gestioneventos.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Paso de los eventos terminados (y sus participantes) a las tablas de archivo (ArchivadoEventos).
+// La planificación se fija con gestioneventos.archivado.cron (por defecto, a las 3 de la mañana)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gestioneventos.archivado")
+public class ArchivadoProperties {
+    private boolean habilitado = true;
+
+    // Se archivan los eventos cuya fechaFin es anterior a ahora menos esto
+    private Duration antiguedad = Duration.ofDays(30);
+
+    // Eventos movidos por transacción, con todos sus participantes
+    private int tamanoLote = 100;
+
+    // Tope de lotes por ejecución; lo que quede se archiva en la siguiente
+    private int maxLotesPorEjecucion = 100;
+
+    // Pausa entre lotes para ceder la base de datos a las peticiones
+    private Duration pausa = Duration.ofMillis(20);
+}
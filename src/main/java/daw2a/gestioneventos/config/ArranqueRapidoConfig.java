@@ -0,0 +1,26 @@
+package daw2a.gestioneventos.config;
+
+import daw2a.gestioneventos.web.EventoControlador;
+import daw2a.gestioneventos.web.OrganizadorControlador;
+import daw2a.gestioneventos.web.ParticipanteControlador;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// Perfil "arranque-rapido": todo se inicializa de forma diferida salvo lo que
+// atiende la primera petición. Los controladores arrastran consigo a los
+// servicios, repositorios y al EntityManagerFactory, así que la primera
+// petición no paga su creación; el resto de beans se crea cuando se usa.
+@Configuration(proxyBeanMethods = false)
+@Profile("arranque-rapido")
+public class ArranqueRapidoConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter beansCriticosArranque() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                EventoControlador.class,
+                OrganizadorControlador.class,
+                ParticipanteControlador.class);
+    }
+}
@@ -0,0 +1,26 @@
+package daw2a.gestioneventos.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Feed de cambios por SSE (FeedCambios y CambiosControlador)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gestioneventos.cambios")
+public class CambiosProperties {
+    // Cambios que guarda el anillo: lo que puede retrasarse un suscriptor antes de ser
+    // desconectado, y hasta dónde se puede reanudar con Last-Event-ID
+    private int capacidad = 8192;
+
+    // Cambios que se envían seguidos a un suscriptor antes de volver a mirar el anillo
+    private int loteEnvio = 256;
+
+    // Comentario de latido cuando no hay cambios, para que proxies y clientes no corten
+    private Duration latido = Duration.ofSeconds(15);
+
+    // Duración máxima de una conexión; el cliente reconecta y sigue desde Last-Event-ID
+    private Duration duracionMaxima = Duration.ofMinutes(30);
+}
@@ -0,0 +1,86 @@
+package daw2a.gestioneventos.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import daw2a.gestioneventos.web.Compartimento;
+import daw2a.gestioneventos.web.CompartimentosFiltro;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Compartimentos de lecturas y escrituras sobre /api/* (ver CompartimentosProperties). El filtro va
+// justo detrás del límite de tasa: lo que se rechaza por tasa no llega a ocupar un permiso
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "gestioneventos.compartimentos.habilitado", havingValue = "true", matchIfMissing = true)
+public class CompartimentosConfig {
+
+    @Bean
+    public FilterRegistrationBean<CompartimentosFiltro> compartimentosFiltro(CompartimentosProperties propiedades,
+                                                                              ObjectMapper objectMapper,
+                                                                              MeterRegistry registro) {
+        Map<String, Compartimento> compartimentos = new LinkedHashMap<>();
+        propiedades.getGrupos().forEach((nombre, grupo) -> compartimentos.put(nombre, new Compartimento(nombre, grupo, registro)));
+        FilterRegistrationBean<CompartimentosFiltro> registroFiltro =
+                new FilterRegistrationBean<>(new CompartimentosFiltro(compartimentos, objectMapper));
+        registroFiltro.addUrlPatterns("/api/*");
+        registroFiltro.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registroFiltro;
+    }
+
+    // Tope propio de las exportaciones de asistentes: el permiso dura toda la descarga
+    @Bean
+    public Compartimento exportacionesCompartimento(CompartimentosProperties propiedades, MeterRegistry registro) {
+        return new Compartimento(CompartimentosProperties.EXPORTACIONES, propiedades.getExportaciones(), registro);
+    }
+
+    // Un pool por grupo sobre la base de spring.datasource.*. Con réplica de lectura
+    // (RutaDataSourceConfig) o fragmentos (FragmentosConfig) el DataSource es el suyo
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnExpression("${gestioneventos.compartimentos.pools-separados:true}"
+            + " and '${gestioneventos.datasource.replica.url:}' == ''"
+            + " and !${gestioneventos.fragmentos.habilitado:false}")
+    static class Pools {
+
+        @Bean
+        public HikariDataSource lecturasDataSource(DataSourceProperties principal, CompartimentosProperties propiedades) {
+            return pool(principal, CompartimentosProperties.LECTURAS, propiedades);
+        }
+
+        @Bean
+        public HikariDataSource escriturasDataSource(DataSourceProperties principal, CompartimentosProperties propiedades) {
+            return pool(principal, CompartimentosProperties.ESCRITURAS, propiedades);
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(@Qualifier("lecturasDataSource") DataSource lecturas,
+                                     @Qualifier("escriturasDataSource") DataSource escrituras) {
+            return new DataSourcePorCompartimento(Map.of(
+                    CompartimentosProperties.LECTURAS, lecturas,
+                    CompartimentosProperties.ESCRITURAS, escrituras));
+        }
+
+        private static HikariDataSource pool(DataSourceProperties principal, String nombre,
+                                             CompartimentosProperties propiedades) {
+            HikariDataSource pool = principal.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            pool.setPoolName(nombre);
+            CompartimentosProperties.Grupo grupo = propiedades.getGrupos().get(nombre);
+            if (grupo != null) {
+                pool.setMaximumPoolSize(grupo.getConexiones());
+                pool.setConnectionTimeout(grupo.getEsperaConexion().toMillis());
+            }
+            return pool;
+        }
+    }
+}
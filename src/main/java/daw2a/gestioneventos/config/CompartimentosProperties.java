@@ -0,0 +1,54 @@
+package daw2a.gestioneventos.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Compartimentos estancos para lecturas y escrituras (CompartimentosFiltro): cada grupo tiene sus
+// permisos, su cola y, con la base única de spring.datasource.*, su propio pool de conexiones, así
+// que una avalancha de altas no deja sin hilos ni conexiones a quien sólo consulta.
+// Grupos: "lecturas" (GET y HEAD de /api/**) y "escrituras" (el resto de métodos)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gestioneventos.compartimentos")
+public class CompartimentosProperties {
+    public static final String LECTURAS = "lecturas";
+    public static final String ESCRITURAS = "escrituras";
+    public static final String EXPORTACIONES = "exportaciones";
+
+    private boolean habilitado = true;
+
+    // Un pool Hikari por grupo; se ignora con réplica de lectura o fragmentos, que tienen los suyos
+    private boolean poolsSeparados = true;
+
+    private Map<String, Grupo> grupos = new LinkedHashMap<>(Map.of(
+            LECTURAS, new Grupo(64, 256, Duration.ofMillis(500), 12, Duration.ofSeconds(2)),
+            ESCRITURAS, new Grupo(16, 64, Duration.ofSeconds(1), 6, Duration.ofSeconds(5))));
+
+    // Descargas de asistentes (EventoControlador) a la vez. Cada una tiene una conexión del pool de
+    // lecturas durante toda la descarga, más allá del permiso de lecturas, que se suelta al
+    // empezar a responder; conexiones no se usa: no tienen pool propio
+    private Grupo exportaciones = new Grupo(4, 8, Duration.ofSeconds(1), 0, Duration.ZERO);
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Grupo {
+        // Peticiones del grupo atendidas a la vez
+        private int permisos = 16;
+        // Peticiones esperando permiso, como mucho; las demás se rechazan al momento (503)
+        private int cola = 64;
+        // Lo que espera una petición en cola antes de rechazarse (503)
+        private Duration espera = Duration.ofSeconds(1);
+        // Tamaño del pool de conexiones del grupo y espera máxima por una conexión
+        private int conexiones = 6;
+        private Duration esperaConexion = Duration.ofSeconds(5);
+    }
+}
@@ -1,15 +1,27 @@
 package daw2a.gestioneventos.config;
 
+import daw2a.gestioneventos.dominio.Evento;
 import daw2a.gestioneventos.dominio.Organizador;
+import daw2a.gestioneventos.dominio.Participante;
 import daw2a.gestioneventos.repo.EventoRepo;
 import daw2a.gestioneventos.repo.OrganizadorRepo;
 import daw2a.gestioneventos.repo.ParticipanteRepo;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 
+
+// Datos de ejemplo mínimos. Para volúmenes grandes se usa el perfil "generador" (GeneradorDatos)
+// y en el arranque rápido no se siembra nada (gestioneventos.datos-ejemplo.habilitado=false)
 @Component
+@Profile("!generador")
+@ConditionalOnProperty(name = "gestioneventos.datos-ejemplo.habilitado", havingValue = "true", matchIfMissing = true)
 public class DataInitializer  {
     @Autowired
     private OrganizadorRepo organizadorRepo;
@@ -17,43 +29,50 @@ public class DataInitializer  {
     private EventoRepo eventoRepo;
     @Autowired
     private ParticipanteRepo participanteRepo;
-    
+
     @PostConstruct
     public void init() throws Exception {
+        List<Organizador> organizadores = new ArrayList<>();
         if(organizadorRepo.count() == 0){
-            Organizador org1 = new Organizador();
-            org1.setNombre("Organizador 1");
-            organizadorRepo.save(org1);
-            Organizador org2 = new Organizador();
-            org2.setNombre("Organizador 2");
-            organizadorRepo.save(org2);
-            Organizador org3 = new Organizador();
-            org3.setNombre("Organizador 3");
-            organizadorRepo.save(org3);
+            for(int i=1; i<=3; i++){
+                Organizador organizador = new Organizador();
+                organizador.setNombre("Organizador " + i);
+                organizadores.add(organizador);
+            }
+            // saveAll agrupa los INSERT en lotes (hibernate.jdbc.batch_size)
+            organizadores = organizadorRepo.saveAll(organizadores);
+        } else {
+            organizadores = organizadorRepo.findAll(PageRequest.of(0, 3)).getContent();
         }
 
+        List<Evento> eventos = new ArrayList<>();
         if(eventoRepo.count() == 0){
-            // Crear eventos de ejemplo
+            // Crear eventos de ejemplo, repartidos entre los organizadores
             for(int i=1; i<=5; i++){
-                daw2a.gestioneventos.dominio.Evento evento = new daw2a.gestioneventos.dominio.Evento();
+                Evento evento = new Evento();
                 evento.setNombre("Evento " + i);
                 evento.setDescripcion("Descripcion del Evento " + i);
-                evento.setOrganizador(organizadorRepo.findById((long)((i % 3) + 1)).orElse(null));
-                eventoRepo.save(evento);
+                evento.setOrganizador(organizadores.get(i % organizadores.size()));
+                eventos.add(evento);
             }
+            eventos = eventoRepo.saveAll(eventos);
+        } else {
+            eventos = eventoRepo.findAll(PageRequest.of(0, 5)).getContent();
         }
 
         if(participanteRepo.count() == 0){
             // Crear participantes de ejemplo
+            List<Participante> participantes = new ArrayList<>();
             for(int i=1; i<=5; i++){
-                daw2a.gestioneventos.dominio.Participante participante = new daw2a.gestioneventos.dominio.Participante();
+                Participante participante = new Participante();
                 participante.setNombre("Participante " + i);
                 participante.setUsuario("usuario" + i); // Mínimo 6 caracteres
                 participante.setContrasenia("password" + i);
-                // Asignar a un evento (round-robin entre los 5 eventos)
-                participante.setEvento(eventoRepo.findById((long)((i % 5) + 1)).orElse(null));
-                participanteRepo.save(participante);
+                // Asignar a un evento (round-robin entre los eventos)
+                participante.setEvento(eventos.get(i % eventos.size()));
+                participantes.add(participante);
             }
+            participanteRepo.saveAll(participantes);
         }
 
 
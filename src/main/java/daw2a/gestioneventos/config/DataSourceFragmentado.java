@@ -0,0 +1,46 @@
+package daw2a.gestioneventos.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import daw2a.gestioneventos.repo.Fragmentos;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Un pool por fragmento; cada conexión sale del fragmento elegido en el hilo (Fragmentos.en)
+// o, si no se ha elegido ninguno, del 0
+public class DataSourceFragmentado extends AbstractRoutingDataSource implements AutoCloseable {
+    private final List<HikariDataSource> fragmentos;
+
+    public DataSourceFragmentado(List<HikariDataSource> fragmentos) {
+        this.fragmentos = List.copyOf(fragmentos);
+        Map<Object, Object> destinos = new HashMap<>();
+        for (int i = 0; i < fragmentos.size(); i++) {
+            destinos.put(i, fragmentos.get(i));
+        }
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(fragmentos.getFirst());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public DataSource fragmento(int numero) {
+        return fragmentos.get(numero);
+    }
+
+    public int numero() {
+        return fragmentos.size();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Fragmentos.actual();
+    }
+
+    @Override
+    public void close() {
+        fragmentos.forEach(HikariDataSource::close);
+    }
+}
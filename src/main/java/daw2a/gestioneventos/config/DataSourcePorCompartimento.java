@@ -0,0 +1,25 @@
+package daw2a.gestioneventos.config;
+
+import daw2a.gestioneventos.web.CompartimentosFiltro;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// Un pool por compartimento; cada conexión sale del de la petición en curso
+// (CompartimentosFiltro.actual()). Fuera de una petición (ingesta, purga, arranque) o con un
+// compartimento sin pool, del de escrituras
+public class DataSourcePorCompartimento extends AbstractRoutingDataSource {
+
+    public DataSourcePorCompartimento(Map<String, DataSource> pools) {
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(CompartimentosProperties.ESCRITURAS));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CompartimentosFiltro.actual();
+    }
+}
@@ -0,0 +1,29 @@
+package daw2a.gestioneventos.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Diario binario de cambios (DiarioCambios). Desactivado por defecto: cada instancia
+// necesita su propio directorio, que no puede compartir con otro proceso
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gestioneventos.diario")
+public class DiarioProperties {
+    private boolean habilitado = false;
+
+    private Path directorio = Path.of("datos", "diario");
+
+    // Tamaño de cada segmento mapeado en memoria; al llenarse se abre el siguiente
+    private DataSize tamanoSegmento = DataSize.ofMegabytes(64);
+
+    // Cada cuánto se fuerzan a disco los registros escritos (un fsync para todos ellos)
+    private Duration intervaloSync = Duration.ofMillis(10);
+
+    // Segmentos ya cerrados que se quedan mapeados para leerlos; los menos usados se sueltan
+    private int segmentosMapeados = 8;
+}
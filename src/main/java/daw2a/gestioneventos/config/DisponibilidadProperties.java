@@ -0,0 +1,21 @@
+package daw2a.gestioneventos.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Filtro de Bloom de usuarios registrados (DisponibilidadUsuarios)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gestioneventos.disponibilidad")
+public class DisponibilidadProperties {
+    // Usuarios de la primera etapa; las siguientes doblan la capacidad de la anterior
+    private int capacidadInicial = 100_000;
+
+    // Probabilidad máxima de que el filtro diga "puede estar" de un usuario libre
+    private double probabilidadFalsoPositivo = 0.01;
+
+    // Sólo si ninguna otra instancia da de alta participantes en la misma base: entonces el filtro
+    // conoce a todos los usuarios y las altas se saltan la comprobación en la base cuando lo descarta
+    private boolean instanciaUnica = false;
+}
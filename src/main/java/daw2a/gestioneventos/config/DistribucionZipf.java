@@ -0,0 +1,32 @@
+package daw2a.gestioneventos.config;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Distribución Zipf sobre los rangos 0..n-1: el rango 0 es el más probable.
+// Se precalcula la función de distribución acumulada y cada muestra es una
+// búsqueda binaria, así que es segura para usar desde varios hilos.
+public class DistribucionZipf {
+    private final double[] acumulada;
+
+    public DistribucionZipf(int n, double exponente) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("La distribución necesita al menos un elemento");
+        }
+        acumulada = new double[n];
+        double suma = 0;
+        for (int i = 0; i < n; i++) {
+            suma += 1.0 / Math.pow(i + 1, exponente);
+            acumulada[i] = suma;
+        }
+        for (int i = 0; i < n; i++) {
+            acumulada[i] /= suma;
+        }
+    }
+
+    public int muestra(RandomGenerator aleatorio) {
+        int pos = Arrays.binarySearch(acumulada, aleatorio.nextDouble());
+        int rango = pos >= 0 ? pos : -pos - 1;
+        return Math.min(rango, acumulada.length - 1);
+    }
+}
@@ -0,0 +1,29 @@
+package daw2a.gestioneventos.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Codificaciones binarias negociadas por la cabecera Accept, para los consumidores
+// internos que no necesitan JSON legible:
+//   Accept: application/cbor          -> CBOR
+//   Accept: application/x-jackson-smile -> Smile
+// JSON sigue siendo la respuesta por defecto. Los conversores se construyen con el
+// Jackson2ObjectMapperBuilder de Spring Boot para que compartan su configuración.
+@Configuration(proxyBeanMethods = false)
+public class FormatosBinariosConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter conversorCbor(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter conversorSmile(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
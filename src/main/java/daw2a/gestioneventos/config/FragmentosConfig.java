@@ -0,0 +1,116 @@
+package daw2a.gestioneventos.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import daw2a.gestioneventos.repo.Fragmentos;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Varias bases, una por fragmento (ver Fragmentos). Sólo se activa con:
+//
+//   gestioneventos.fragmentos.habilitado=true
+//   gestioneventos.fragmentos.urls[0]=jdbc:...   (el 0 es también el catálogo de organizadores)
+//   gestioneventos.fragmentos.urls[1]=jdbc:...
+//
+// El DataSource de la aplicación es un LazyConnectionDataSourceProxy sobre DataSourceFragmentado,
+// así que el fragmento se decide en la primera sentencia de cada transacción.
+//
+// Hibernate crea el esquema en el fragmento 0 y aquí se copia a los demás (SCRIPT NODATA de H2,
+// para probar en local con varias bases en memoria; en producción lo harían las migraciones).
+// Las secuencias de cada fragmento empiezan en Fragmentos.primerId, y Hibernate pide cada id a la
+// secuencia del fragmento de la transacción en lugar de reservar bloques en memoria, que serían
+// del fragmento en el que se reservaron. La caché de consultas se desactiva: sus claves no
+// distinguen fragmentos (la de entidades sí vale, los ids son únicos entre fragmentos).
+//
+// Los datos de ejemplo (DataInitializer) no saben de fragmentos: desactivarlos con
+// gestioneventos.datos-ejemplo.habilitado=false.
+//
+// No se combina con la réplica de lectura (RutaDataSourceConfig): los dos definen el DataSource
+// de la aplicación. Con ambas propiedades el arranque falla aquí con un mensaje claro (y
+// RutaDataSourceConfig se retira para que no falle antes por el nombre de bean repetido).
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "gestioneventos.fragmentos.habilitado", havingValue = "true")
+public class FragmentosConfig {
+    static final String URL_REPLICA = "gestioneventos.datasource.replica.url";
+
+    public FragmentosConfig(Environment entorno) {
+        if (StringUtils.hasText(entorno.getProperty(URL_REPLICA))) {
+            throw new IllegalStateException("gestioneventos.fragmentos.habilitado=true y " + URL_REPLICA
+                    + " son incompatibles: los fragmentos no tienen réplicas de lectura. Quite una de las dos");
+        }
+    }
+
+    @Bean
+    public DataSourceFragmentado fragmentosDataSource(FragmentosProperties propiedades, DataSourceProperties principal) {
+        List<HikariDataSource> fragmentos = new ArrayList<>();
+        for (int i = 0; i < propiedades.getUrls().size(); i++) {
+            HikariDataSource fragmento = new HikariDataSource();
+            fragmento.setPoolName("fragmento-" + i);
+            fragmento.setJdbcUrl(propiedades.getUrls().get(i));
+            fragmento.setUsername(propiedades.getUsername() != null ? propiedades.getUsername() : principal.determineUsername());
+            fragmento.setPassword(propiedades.getPassword() != null ? propiedades.getPassword() : principal.determinePassword());
+            fragmentos.add(fragmento);
+        }
+        return new DataSourceFragmentado(fragmentos);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceFragmentado fragmentos) {
+        return new LazyConnectionDataSourceProxy(fragmentos);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer fragmentosHibernate() {
+        return propiedades -> {
+            propiedades.put("hibernate.cache.use_query_cache", false);
+            propiedades.put("hibernate.id.optimizer.pooled.preferred", "none");
+        };
+    }
+
+    // En cuanto Hibernate ha creado el esquema en el fragmento 0, antes de que nadie use los repositorios
+    @Bean
+    public static BeanPostProcessor copiaEsquemaFragmentos(ObjectProvider<DataSourceFragmentado> fragmentos) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nombre) {
+                if (bean instanceof AbstractEntityManagerFactoryBean) {
+                    copiarEsquema(fragmentos.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    static void copiarEsquema(DataSourceFragmentado fragmentos) {
+        List<String> esquema = new JdbcTemplate(fragmentos.fragmento(0)).queryForList("SCRIPT NODATA", String.class);
+        for (int i = 0; i < fragmentos.numero(); i++) {
+            JdbcTemplate fragmento = new JdbcTemplate(fragmentos.fragmento(i));
+            if (i > 0) {
+                fragmento.execute("DROP ALL OBJECTS");
+                esquema.forEach(fragmento::execute);
+            }
+            long inicio = Fragmentos.primerId(i) + 1;
+            fragmento.queryForList("select sequence_name from information_schema.sequences "
+                            + "where sequence_schema = schema()", String.class)
+                    .forEach(s -> fragmento.execute("ALTER SEQUENCE \"" + s + "\" RESTART WITH " + inicio));
+        }
+        log.info("Esquema copiado a {} fragmentos", fragmentos.numero());
+    }
+}
@@ -0,0 +1,28 @@
+package daw2a.gestioneventos.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Reparto de eventos y participantes en varias bases (ver Fragmentos y FragmentosConfig).
+// Desactivado por defecto: una sola base, la de spring.datasource.*
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gestioneventos.fragmentos")
+public class FragmentosProperties {
+    private boolean habilitado = false;
+
+    // Una URL JDBC por fragmento, en orden: la posición es el número de fragmento. El 0 es
+    // además el catálogo de organizadores, que se replican en todos los demás
+    private List<String> urls = new ArrayList<>();
+
+    // Credenciales de los fragmentos; si faltan, las de spring.datasource.*
+    private String username;
+    private String password;
+
+    // Puntos de cada fragmento en el anillo de hash consistente: más puntos, reparto más parejo
+    private int nodosVirtuales = 64;
+}
@@ -0,0 +1,194 @@
+package daw2a.gestioneventos.config;
+
+import daw2a.gestioneventos.dominio.TipoEvento;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Generador de datos sintéticos a gran escala. Se activa con el perfil "generador",
+// ya sea al arrancar la aplicación o desde GeneradorDatosCli.
+// Los lotes de filas se generan en paralelo y un único hilo los inserta con
+// INSERT en lote (JDBC batch), una transacción por lote.
+@Slf4j
+@Component
+@Profile("generador")
+public class GeneradorDatos implements ApplicationRunner {
+    private static final String INSERT_ORGANIZADOR =
+            "insert into organizador (id, nombre) values (?, ?)";
+    private static final String INSERT_EVENTO =
+            "insert into evento (id, nombre, descripcion, organizador_id, tipo, fecha_inicio, fecha_fin) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PARTICIPANTE =
+            "insert into participante (id, nombre, usuario, contrasenia, evento_id) values (?, ?, ?, ?, ?)";
+
+    // Holgura al reiniciar las secuencias: mayor que el allocationSize (50) de Hibernate
+    // para que sus siguientes bloques de ids no pisen los generados aquí
+    private static final long MARGEN_SECUENCIA = 100;
+    private static final long MINUTOS_UN_ANIO = 365L * 24 * 60;
+    private static final TipoEvento[] TIPOS = TipoEvento.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GeneradorDatosProperties props;
+
+    public GeneradorDatos(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          GeneradorDatosProperties props) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.props = props;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        generar();
+    }
+
+    public void generar() throws InterruptedException {
+        LocalDateTime ahora = LocalDateTime.now();
+
+        int numOrganizadores = props.getOrganizadores();
+        long baseOrganizador = reservarIds("organizador_seq", numOrganizadores);
+        insertarEnParalelo("organizadores", INSERT_ORGANIZADOR, numOrganizadores, 1,
+                (desde, hasta, aleatorio, filas) -> {
+                    for (long i = desde; i < hasta; i++) {
+                        long id = baseOrganizador + 1 + i;
+                        filas.add(new Object[]{id, "Organizador " + id});
+                    }
+                });
+
+        int numEventos = props.getEventos();
+        long baseEvento = reservarIds("evento_seq", numEventos);
+        // Pocos organizadores concentran muchos eventos
+        DistribucionZipf organizadores = numOrganizadores > 0
+                ? new DistribucionZipf(numOrganizadores, props.getSesgo())
+                : null;
+        insertarEnParalelo("eventos", INSERT_EVENTO, numEventos, 2,
+                (desde, hasta, aleatorio, filas) -> {
+                    for (long i = desde; i < hasta; i++) {
+                        long id = baseEvento + 1 + i;
+                        LocalDateTime inicio = ahora.plusMinutes(aleatorio.nextLong(-MINUTOS_UN_ANIO, MINUTOS_UN_ANIO));
+                        filas.add(new Object[]{
+                                id,
+                                "Evento " + id,
+                                "Descripcion del Evento " + id,
+                                organizadores != null ? baseOrganizador + 1 + organizadores.muestra(aleatorio) : null,
+                                TIPOS[aleatorio.nextInt(TIPOS.length)].name(),
+                                inicio,
+                                inicio.plusHours(1 + aleatorio.nextInt(72))
+                        });
+                    }
+                });
+
+        long numParticipantes = props.getParticipantes();
+        if (numEventos == 0) {
+            log.warn("No se generan participantes: hacen falta eventos a los que inscribirlos");
+            return;
+        }
+        long baseParticipante = reservarIds("participante_seq", numParticipantes);
+        // Pocos eventos enormes y una larga cola de eventos pequeños
+        DistribucionZipf eventos = new DistribucionZipf(numEventos, props.getSesgo());
+        insertarEnParalelo("participantes", INSERT_PARTICIPANTE, numParticipantes, 3,
+                (desde, hasta, aleatorio, filas) -> {
+                    for (long i = desde; i < hasta; i++) {
+                        long id = baseParticipante + 1 + i;
+                        filas.add(new Object[]{
+                                id,
+                                "Participante " + id,
+                                // Participante.usuario pide entre 6 y 15 caracteres: "u" y al menos 7
+                                // cifras da entre 8 y 15 hasta 10^14 ids
+                                String.format("u%07d", id),
+                                "password" + id,
+                                baseEvento + 1 + eventos.muestra(aleatorio)
+                        });
+                    }
+                });
+    }
+
+    // Reserva el rango (base, base + cantidad] en la secuencia y la reinicia por encima,
+    // de modo que las inserciones que haga Hibernate mientras tanto no colisionen
+    private long reservarIds(String secuencia, long cantidad) {
+        Long base = jdbcTemplate.queryForObject("select next value for " + secuencia, Long.class);
+        jdbcTemplate.execute("alter sequence " + secuencia + " restart with " + (base + cantidad + MARGEN_SECUENCIA));
+        return base;
+    }
+
+    private void insertarEnParalelo(String entidad, String sql, long total, long fase,
+                                    ProductorFilas productor) throws InterruptedException {
+        if (total <= 0) {
+            return;
+        }
+        int tamanoLote = Math.max(1, props.getTamanoLote());
+        int numProductores = Math.max(1, props.getProductores());
+        long lotes = (total + tamanoLote - 1) / tamanoLote;
+        long inicio = System.nanoTime();
+
+        // Cola acotada: si el hilo escritor no da abasto, los productores esperan
+        BlockingQueue<List<Object[]>> cola = new ArrayBlockingQueue<>(numProductores * 2);
+        ExecutorService productores = Executors.newFixedThreadPool(numProductores);
+        List<Future<?>> tareas = new ArrayList<>();
+        try {
+            for (long lote = 0; lote < lotes; lote++) {
+                long desde = lote * tamanoLote;
+                long hasta = Math.min(total, desde + tamanoLote);
+                // Semilla por lote: el resultado no depende del orden de ejecución de los hilos
+                long semilla = props.getSemilla() * 31 * 31 + fase * 31 + lote;
+                tareas.add(productores.submit(() -> {
+                    List<Object[]> filas = new ArrayList<>((int) (hasta - desde));
+                    productor.producir(desde, hasta, new SplittableRandom(semilla), filas);
+                    cola.put(filas);
+                    return null;
+                }));
+            }
+
+            long escritos = 0;
+            while (escritos < lotes) {
+                List<Object[]> filas = cola.poll(1, TimeUnit.SECONDS);
+                if (filas == null) {
+                    comprobarFallos(tareas);
+                    continue;
+                }
+                transactionTemplate.executeWithoutResult(estado -> jdbcTemplate.batchUpdate(sql, filas));
+                escritos++;
+            }
+        } finally {
+            productores.shutdownNow();
+        }
+
+        long ms = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        log.info("Generados {} {} en {} ms ({} filas/s)", total, entidad, ms, total * 1000 / ms);
+    }
+
+    private void comprobarFallos(List<Future<?>> tareas) throws InterruptedException {
+        for (Future<?> tarea : tareas) {
+            if (tarea.isDone()) {
+                try {
+                    tarea.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Fallo generando datos", e.getCause());
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ProductorFilas {
+        void producir(long desde, long hasta, SplittableRandom aleatorio, List<Object[]> filas);
+    }
+}
@@ -0,0 +1,27 @@
+package daw2a.gestioneventos.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Volúmenes y parámetros del generador de datos sintéticos (perfil "generador")
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gestioneventos.generador")
+public class GeneradorDatosProperties {
+    private int organizadores = 1_000;
+    private int eventos = 10_000;
+    private long participantes = 1_000_000;
+
+    // Exponente de la distribución Zipf: cuanto mayor, más concentrados quedan
+    // los participantes en unos pocos eventos enormes (0 = reparto uniforme)
+    private double sesgo = 1.1;
+
+    // Filas por INSERT en lote (y por transacción)
+    private int tamanoLote = 1_000;
+
+    // Hilos que generan lotes en paralelo mientras otro hilo los inserta
+    private int productores = Runtime.getRuntime().availableProcessors();
+
+    private long semilla = 42L;
+}
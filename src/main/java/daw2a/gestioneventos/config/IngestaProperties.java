@@ -0,0 +1,29 @@
+package daw2a.gestioneventos.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Alta asíncrona de participantes (IngestaParticipantes): POST con "Prefer: respond-async"
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gestioneventos.ingesta")
+public class IngestaProperties {
+    // Altas pendientes en memoria; con la cola llena se responde 429
+    private int capacidad = 10_000;
+
+    // Altas que se escriben por transacción
+    private int tamanoLote = 200;
+
+    // Espera máxima por la primera alta de un lote antes de volver a mirar la cola
+    private Duration espera = Duration.ofMillis(50);
+
+    // Valor de Retry-After cuando la cola está llena
+    private Duration reintentarTras = Duration.ofSeconds(1);
+
+    // Tiempo durante el que se puede consultar el resultado de un ticket
+    private Duration retencionTickets = Duration.ofMinutes(30);
+    private long maxTickets = 100_000;
+}
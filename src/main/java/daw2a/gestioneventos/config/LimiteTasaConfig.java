@@ -0,0 +1,35 @@
+package daw2a.gestioneventos.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import daw2a.gestioneventos.web.LimitadorTasa;
+import daw2a.gestioneventos.web.LimiteTasaFiltro;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Límite de tasa sobre /api/* (ver LimiteTasaProperties). Va el primero de la cadena de
+// filtros para que una petición rechazada no llegue a tocar nada más
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "gestioneventos.limite-tasa.habilitado", havingValue = "true", matchIfMissing = true)
+public class LimiteTasaConfig {
+
+    @Bean
+    public LimitadorTasa limitadorTasa(LimiteTasaProperties propiedades) {
+        return new LimitadorTasa(propiedades.getMaxClientes());
+    }
+
+    @Bean
+    public FilterRegistrationBean<LimiteTasaFiltro> limiteTasaFiltro(LimitadorTasa limitador,
+                                                                      LimiteTasaProperties propiedades,
+                                                                      ObjectMapper objectMapper,
+                                                                      MeterRegistry registro) {
+        FilterRegistrationBean<LimiteTasaFiltro> registroFiltro =
+                new FilterRegistrationBean<>(new LimiteTasaFiltro(limitador, propiedades, objectMapper, registro));
+        registroFiltro.addUrlPatterns("/api/*");
+        registroFiltro.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registroFiltro;
+    }
+}
@@ -0,0 +1,49 @@
+package daw2a.gestioneventos.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Límite de peticiones por cliente delante de los controladores (LimiteTasaFiltro).
+// El cliente se identifica por la cabecera cabeceraCliente sólo si su valor es una de las
+// clavesApi; si no viene o no es conocida, por la IP. Así inventar una clave en cada petición no
+// da un cubo nuevo.
+// Cada grupo es un cubo de fichas: porSegundo fichas repuestas por segundo y hasta rafaga
+// acumuladas. Grupos: "lecturas" (GET de /api/**) y "altas" (POST /api/v1/participantes)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gestioneventos.limite-tasa")
+public class LimiteTasaProperties {
+    public static final String LECTURAS = "lecturas";
+    public static final String ALTAS = "altas";
+
+    private boolean habilitado = true;
+
+    private String cabeceraCliente = "X-Api-Key";
+
+    // Claves de cliente reconocidas (vacío: todos se limitan por IP)
+    private Set<String> clavesApi = new HashSet<>();
+
+    // Tope de clientes con cubo a la vez; por encima se expulsan los menos usados
+    private long maxClientes = 100_000;
+
+    private Map<String, Grupo> grupos = new LinkedHashMap<>(Map.of(
+            LECTURAS, new Grupo(50, 100),
+            ALTAS, new Grupo(10, 20)));
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Grupo {
+        private double porSegundo;
+        private int rafaga;
+    }
+}
@@ -0,0 +1,26 @@
+package daw2a.gestioneventos.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Purga física de las filas con borrado lógico (PurgadoEliminados).
+// La planificación se fija con gestioneventos.purga.cron; por defecto "0 */5 1-6 * * *", cada
+// 5 minutos dentro de la franja de poco tráfico de la madrugada
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gestioneventos.purga")
+public class PurgaProperties {
+    private boolean habilitada = true;
+
+    // Filas borradas por transacción: transacciones cortas que no bloquean a nadie
+    private int tamanoLote = 500;
+
+    // Tope de lotes por ejecución; lo que quede se purga en la siguiente
+    private int maxLotesPorEjecucion = 200;
+
+    // Pausa entre lotes para ceder la base de datos a las peticiones
+    private Duration pausa = Duration.ofMillis(20);
+}
@@ -0,0 +1,21 @@
+package daw2a.gestioneventos.config;
+
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+import javax.cache.spi.CachingProvider;
+
+// Fábrica de regiones de la caché de segundo nivel (hibernate.cache.region.factory_class).
+// El proveedor JCache guarda un CacheManager por (URI, ClassLoader) para toda la JVM, así que
+// dos SessionFactory compartirían regiones aunque apunten a bases de datos distintas (pasa en
+// los tests, que levantan varios contextos de Spring). Un ClassLoader hijo propio, que sólo
+// delega en el de la aplicación, le da a cada SessionFactory su propio CacheManager.
+// La configuración de las regiones se sigue leyendo de application.conf.
+public class RegionFactoryPorContexto extends JCacheRegionFactory {
+    private final ClassLoader cargador = new ClassLoader(RegionFactoryPorContexto.class.getClassLoader()) {
+    };
+
+    @Override
+    protected ClassLoader getClassLoader(CachingProvider cachingProvider) {
+        return cargador;
+    }
+}
@@ -0,0 +1,64 @@
+package daw2a.gestioneventos.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Reparto de lecturas a una réplica. Sólo se activa si se configura su URL:
+//
+//   gestioneventos.datasource.replica.url=jdbc:...
+//   gestioneventos.datasource.replica.username / password   (opcionales)
+//   gestioneventos.datasource.replica.hikari.*               (pool de la réplica)
+//
+// El DataSource de la aplicación es un LazyConnectionDataSourceProxy: no pide la conexión física
+// hasta la primera sentencia y, si para entonces la transacción es de sólo lectura
+// (@Transactional(readOnly = true) en los servicios y en SimpleJpaRepository), la saca del pool
+// de la réplica; el resto va a la principal (spring.datasource.*).
+//
+// Con fragmentos (FragmentosConfig) no se activa: allí el arranque falla explicando que son
+// incompatibles, en vez de con el choque de los dos beans dataSource.
+@Configuration
+@ConditionalOnExpression("'${gestioneventos.datasource.replica.url:}' != ''"
+        + " and !${gestioneventos.fragmentos.habilitado:false}")
+public class RutaDataSourceConfig {
+    private static final String PREFIJO_REPLICA = "gestioneventos.datasource.replica";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource principalDataSource(DataSourceProperties propiedades) {
+        HikariDataSource principal = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        principal.setPoolName("principal");
+        return principal;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(Environment entorno) {
+        Binder binder = Binder.get(entorno);
+        DataSourceProperties propiedades = binder.bind(PREFIJO_REPLICA, DataSourceProperties.class).get();
+        HikariDataSource replica = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        binder.bind(PREFIJO_REPLICA + ".hikari", Bindable.ofInstance(replica));
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("principalDataSource") DataSource principal,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        LazyConnectionDataSourceProxy ruta = new LazyConnectionDataSourceProxy(principal);
+        ruta.setReadOnlyDataSource(replica);
+        return ruta;
+    }
+}
@@ -4,6 +4,11 @@ package daw2a.gestioneventos.dominio;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -13,6 +18,18 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "evento")
+// Borrado lógico: las consultas de Hibernate no ven las filas marcadas y PurgadoEliminados
+// las borra físicamente más tarde, por trozos
+@SQLRestriction("eliminado = false")
+@SQLDelete(sql = "update evento set eliminado = true where id = ?")
+// Recorrido por clave de los eventos de un organizador (/organizadores/{id}/eventos) y
+// búsqueda de los terminados para ArchivadoEventos y de los marcados para PurgadoEliminados
+@Table(indexes = {
+        @Index(name = "idx_evento_organizador_id", columnList = "organizador_id, id"),
+        @Index(name = "idx_evento_fecha_fin", columnList = "fecha_fin"),
+        @Index(name = "idx_evento_eliminado", columnList = "eliminado, id")
+})
 public class Evento {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
@@ -39,6 +56,11 @@ public class Evento {
     @Column(nullable = true)
     private LocalDateTime fechaFin;
 
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    @Builder.Default
+    private boolean eliminado = false;
+
     @OneToMany(mappedBy = "evento", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @Column(nullable = true)
     @JsonManagedReference
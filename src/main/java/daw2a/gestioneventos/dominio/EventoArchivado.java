@@ -0,0 +1,52 @@
+package daw2a.gestioneventos.dominio;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Evento ya terminado que ArchivadoEventos ha sacado de la tabla evento: mismas columnas y
+// mismo id, más el momento en que se archivó. Sólo se lee (las búsquedas por id caen aquí si
+// el evento no está en evento, y los listados con ?incluirArchivados=true)
+@Setter @Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "evento_archivado", indexes = @Index(name = "idx_evento_archivado_nombre", columnList = "nombre"))
+public class EventoArchivado {
+    @Id
+    private Long id;
+    @Column(nullable = false)
+    private String nombre;
+    @Column(nullable = false)
+    private String descripcion;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "organizador_id")
+    private Organizador organizador;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private TipoEvento tipo;
+
+    private LocalDateTime fechaInicio;
+
+    private LocalDateTime fechaFin;
+
+    @Column(nullable = false)
+    private LocalDateTime archivado;
+
+    // Copia sin gestionar, para reutilizar EventoMapper y mezclarlo con los eventos vivos
+    public Evento aEvento() {
+        return Evento.builder()
+                .id(id)
+                .nombre(nombre)
+                .descripcion(descripcion)
+                .organizador(organizador)
+                .tipo(tipo)
+                .fechaInicio(fechaInicio)
+                .fechaFin(fechaFin)
+                .build();
+    }
+}
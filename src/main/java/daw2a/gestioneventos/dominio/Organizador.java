@@ -2,6 +2,8 @@ package daw2a.gestioneventos.dominio;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
@@ -9,6 +11,7 @@ import java.util.List;
 @NoArgsConstructor @AllArgsConstructor
 @Builder
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "organizador")
 public class Organizador {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
@@ -5,12 +5,23 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
 
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Entity
+@SQLRestriction("eliminado = false")
+@SQLDelete(sql = "update participante set eliminado = true where id = ?")
+// Recorrido por clave de los participantes de un evento (/eventos/{id}/participantes) y
+// búsqueda de los marcados para PurgadoEliminados
+@Table(indexes = {
+        @Index(name = "idx_participante_evento_id", columnList = "evento_id, id"),
+        @Index(name = "idx_participante_eliminado", columnList = "eliminado, id")
+})
 public class Participante {
 
     @Id
@@ -29,6 +40,12 @@ public class Participante {
     @JsonIgnore
     private String contrasenia;
 
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    @JsonIgnore
+    @Builder.Default
+    private boolean eliminado = false;
+
     @ManyToOne
     @JoinColumn(nullable = false,name= "evento_id")
     @JsonBackReference
@@ -0,0 +1,44 @@
+package daw2a.gestioneventos.dominio;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Participante de un evento archivado (ver EventoArchivado). El usuario sigue ocupado: las
+// comprobaciones de ParticipanteRepo también miran esta tabla
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "participante_archivado", indexes = {
+        @Index(name = "idx_participante_archivado_evento_id", columnList = "evento_id, id"),
+        @Index(name = "idx_participante_archivado_usuario", columnList = "usuario")
+})
+public class ParticipanteArchivado {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String nombre;
+
+    @Column(nullable = false)
+    private String usuario;
+
+    @Column(nullable = false)
+    private String contrasenia;
+
+    @ManyToOne
+    @JoinColumn(nullable = false, name = "evento_id")
+    private EventoArchivado evento;
+
+    // Copia sin gestionar, para reutilizar ParticipanteMapper
+    public Participante aParticipante() {
+        return Participante.builder()
+                .id(id)
+                .nombre(nombre)
+                .usuario(usuario)
+                .contrasenia(contrasenia)
+                .evento(evento.aEvento())
+                .build();
+    }
+}
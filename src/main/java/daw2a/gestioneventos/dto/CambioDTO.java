@@ -0,0 +1,57 @@
+package daw2a.gestioneventos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Notificación de cambio que publican los servicios; la reciben FeedCambios (SSE en
+// /api/v1/eventos/cambios) y DiarioCambios. entidad es "evento", "participante" u
+// "organizador"; eventoId es el evento afectado (null para organizadores). datos es el estado
+// de la entidad tras el cambio (su ResponseDTO), para que quien reproduce el diario o sigue el
+// feed sepa a qué ha cambiado sin volver a la base; null al eliminar o archivar
+@Getter
+@AllArgsConstructor
+public class CambioDTO {
+    public static final String EVENTO = "evento";
+    public static final String PARTICIPANTE = "participante";
+    public static final String ORGANIZADOR = "organizador";
+
+    private final String entidad;
+    private final TipoCambio tipo;
+    private final Long id;
+    private final Long eventoId;
+    private final Object datos;
+
+    public static CambioDTO evento(TipoCambio tipo, Long id) {
+        return new CambioDTO(EVENTO, tipo, id, id, null);
+    }
+
+    public static CambioDTO evento(TipoCambio tipo, EventoResponseDTO datos) {
+        return new CambioDTO(EVENTO, tipo, datos.getId(), datos.getId(), datos);
+    }
+
+    public static CambioDTO participante(TipoCambio tipo, Long id, Long eventoId) {
+        return new CambioDTO(PARTICIPANTE, tipo, id, eventoId, null);
+    }
+
+    public static CambioDTO participante(TipoCambio tipo, ParticipanteResponseDTO datos) {
+        return new CambioDTO(PARTICIPANTE, tipo, datos.getId(), datos.getEventoId(), datos);
+    }
+
+    public static CambioDTO organizador(TipoCambio tipo, Long id) {
+        return new CambioDTO(ORGANIZADOR, tipo, id, null, null);
+    }
+
+    public static CambioDTO organizador(TipoCambio tipo, OrganizadorResponseDTO datos) {
+        return new CambioDTO(ORGANIZADOR, tipo, datos.getId(), null, datos);
+    }
+
+    // Clase de datos según la entidad, para leerlos de vuelta del diario
+    public static Class<?> claseDatos(String entidad) {
+        return switch (entidad) {
+            case EVENTO -> EventoResponseDTO.class;
+            case PARTICIPANTE -> ParticipanteResponseDTO.class;
+            case ORGANIZADOR -> OrganizadorResponseDTO.class;
+            default -> Object.class;
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package daw2a.gestioneventos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Respuesta de /api/v1/participantes/disponible
+@Getter
+@AllArgsConstructor
+public class DisponibilidadDTO {
+    private final String usuario;
+    private final boolean disponible;
+}
@@ -0,0 +1,12 @@
+package daw2a.gestioneventos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Filas afectadas por el borrado de un evento
+@Getter
+@AllArgsConstructor
+public class EliminacionEventoDTO {
+    private final Long eventoId;
+    private final int participantesEliminados;
+}
@@ -0,0 +1,7 @@
+package daw2a.gestioneventos.dto;
+
+public enum EstadoIngesta {
+    PENDIENTE,
+    COMPLETADO,
+    RECHAZADO
+}
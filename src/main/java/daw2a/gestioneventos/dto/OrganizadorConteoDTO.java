@@ -0,0 +1,13 @@
+package daw2a.gestioneventos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Organizador con el número de eventos en lugar de sus ids (?soloConteo=true)
+@Getter
+@AllArgsConstructor
+public class OrganizadorConteoDTO {
+    private final Long id;
+    private final String nombre;
+    private final long numEventos;
+}
@@ -0,0 +1,29 @@
+package daw2a.gestioneventos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+// Sobre de paginación plano: sólo el contenido y cuatro números. Sustituye a la
+// serialización de Page, que repite en cada respuesta los objetos pageable y sort.
+@Getter
+@AllArgsConstructor
+public class PaginaDTO<T> {
+    private final List<T> content;
+    private final int number;
+    private final int size;
+    private final long totalElements;
+    private final int totalPages;
+
+    public static <T> PaginaDTO<T> de(Page<T> pagina) {
+        return new PaginaDTO<>(
+                pagina.getContent(),
+                pagina.getNumber(),
+                pagina.getSize(),
+                pagina.getTotalElements(),
+                pagina.getTotalPages()
+        );
+    }
+}
@@ -0,0 +1,20 @@
+package daw2a.gestioneventos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Resultado de cada alta de un lote: el participante creado o el motivo del rechazo
+@Getter
+@AllArgsConstructor
+public class ResultadoAltaDTO {
+    private final ParticipanteResponseDTO participante;
+    private final String error;
+
+    public static ResultadoAltaDTO creado(ParticipanteResponseDTO participante) {
+        return new ResultadoAltaDTO(participante, null);
+    }
+
+    public static ResultadoAltaDTO rechazado(String error) {
+        return new ResultadoAltaDTO(null, error);
+    }
+}
@@ -0,0 +1,20 @@
+package daw2a.gestioneventos.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Resultado de /api/v1/autocompletar: el nombre del evento o el usuario, con su id
+// (y, para usuarios, el evento en el que está inscrito)
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SugerenciaDTO {
+    private final Long id;
+    private final String texto;
+    private final Long eventoId;
+
+    public SugerenciaDTO(Long id, String texto) {
+        this(id, texto, null);
+    }
+}
@@ -0,0 +1,20 @@
+package daw2a.gestioneventos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+// Estado de un alta asíncrona: participanteId al completarse, error si se rechazó
+@Getter
+@AllArgsConstructor
+public class TicketIngestaDTO {
+    private final UUID ticket;
+    private final EstadoIngesta estado;
+    private final Long participanteId;
+    private final String error;
+
+    public static TicketIngestaDTO pendiente(UUID ticket) {
+        return new TicketIngestaDTO(ticket, EstadoIngesta.PENDIENTE, null, null);
+    }
+}
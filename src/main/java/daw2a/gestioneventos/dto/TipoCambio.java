@@ -0,0 +1,9 @@
+package daw2a.gestioneventos.dto;
+
+public enum TipoCambio {
+    CREADO,
+    ACTUALIZADO,
+    ELIMINADO,
+    // Evento terminado pasado a las tablas de archivo (ArchivadoEventos), con sus participantes
+    ARCHIVADO
+}
@@ -0,0 +1,23 @@
+package daw2a.gestioneventos.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Página por clave (keyset): en lugar de un número de página, "siguiente" es el último id
+// devuelto y se pasa como ?despues= para pedir la página siguiente; es null en la última.
+// Cada página cuesta lo mismo, vaya por donde vaya, porque no se salta filas con OFFSET.
+// totalElements sólo viene en la primera página. Como mucho MAXIMO elementos por página.
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VentanaDTO<T> {
+    public static final int MAXIMO = 500;
+
+    private final List<T> content;
+    private final int size;
+    private final Long siguiente;
+    private final Long totalElements;
+}
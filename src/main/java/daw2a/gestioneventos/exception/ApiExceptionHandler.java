@@ -2,6 +2,8 @@ package daw2a.gestioneventos.exception;
 
 import daw2a.gestioneventos.dto.ApiError;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -9,36 +11,42 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.time.LocalDateTime;
 
+// Todas las excepciones de negocio derivan de ExcepcionDominio, que ya sabe su estado HTTP:
+// un único método las convierte en ApiError, sin pasar por el /error de Spring. Las violaciones
+// de restricciones que no se hayan traducido a una de ellas (un duplicado que entra a la vez
+// desde otra instancia) son un 409, no un 500.
+//
+// ApiError se crea en cada respuesta a propósito: la fecha y la ruta son de la petición y el
+// mensaje, de la excepción (lleva el id o el nombre), y el estado y su texto ya son constantes
+// de HttpStatus. No hay nada por tipo de excepción que merezca una caché: lo caro de estas
+// excepciones era la pila, que ExcepcionDominio ya no captura.
 @RestControllerAdvice
 public class ApiExceptionHandler {
 
-    @ExceptionHandler(EventoNoEncontradoException.class)
-    public ResponseEntity<ApiError> handleEventoNoEncontrado(
-            EventoNoEncontradoException ex,
+    @ExceptionHandler(ExcepcionDominio.class)
+    public ResponseEntity<ApiError> handleExcepcionDominio(
+            ExcepcionDominio ex,
             HttpServletRequest request) {
 
-        ApiError error = new ApiError();
-        error.setTimestamp(LocalDateTime.now());
-        error.setStatus(HttpStatus.NOT_FOUND.value());
-        error.setError(HttpStatus.NOT_FOUND.getReasonPhrase());
-        error.setMessage(ex.getMessage());
-        error.setPath(request.getRequestURI());
-
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        HttpHeaders cabeceras = new HttpHeaders();
+        ex.cabeceras(cabeceras);
+        return ResponseEntity.status(ex.getEstado()).headers(cabeceras)
+                .body(error(ex.getEstado(), ex.getMessage(), request));
     }
 
-    @ExceptionHandler(EventoDuplicadoException.class)
-    public ResponseEntity<ApiError> handleEventoDuplicado(
-            EventoDuplicadoException ex,
-            HttpServletRequest request) {
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiError> handleRestriccion(DataIntegrityViolationException ex, HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(error(HttpStatus.CONFLICT, "Los datos chocan con otros ya registrados", request));
+    }
 
+    private static ApiError error(HttpStatus estado, String mensaje, HttpServletRequest request) {
         ApiError error = new ApiError();
         error.setTimestamp(LocalDateTime.now());
-        error.setStatus(HttpStatus.CONFLICT.value());
-        error.setError(HttpStatus.CONFLICT.getReasonPhrase());
-        error.setMessage(ex.getMessage());
+        error.setStatus(estado.value());
+        error.setError(estado.getReasonPhrase());
+        error.setMessage(mensaje);
         error.setPath(request.getRequestURI());
-
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        return error;
     }
 }
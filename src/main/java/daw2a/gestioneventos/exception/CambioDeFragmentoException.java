@@ -0,0 +1,10 @@
+package daw2a.gestioneventos.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class CambioDeFragmentoException extends ExcepcionDominio {
+    public CambioDeFragmentoException(Long eventoId, Long organizadorId) {
+        super(HttpStatus.CONFLICT, "El evento " + eventoId + " no puede pasar al organizador " + organizadorId
+                + ", que está en otro fragmento");
+    }
+}
@@ -0,0 +1,15 @@
+package daw2a.gestioneventos.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.Collection;
+
+public class CampoNoValidoException extends ExcepcionDominio {
+    public CampoNoValidoException(String campo, Collection<String> disponibles) {
+        super(HttpStatus.BAD_REQUEST, "Campo no válido: " + campo + ". Campos disponibles: " + String.join(",", disponibles));
+    }
+
+    public CampoNoValidoException(Collection<String> disponibles) {
+        super(HttpStatus.BAD_REQUEST, "Debe indicarse al menos un campo. Campos disponibles: " + String.join(",", disponibles));
+    }
+}
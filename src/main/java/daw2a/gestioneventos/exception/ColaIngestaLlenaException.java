@@ -0,0 +1,22 @@
+package daw2a.gestioneventos.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+@Getter
+public class ColaIngestaLlenaException extends ExcepcionDominio {
+    private final Duration reintentarTras;
+
+    public ColaIngestaLlenaException(Duration reintentarTras) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "La cola de altas está llena; reintente en " + reintentarTras.toSeconds() + " s");
+        this.reintentarTras = reintentarTras;
+    }
+
+    @Override
+    public void cabeceras(HttpHeaders cabeceras) {
+        cabeceras.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, reintentarTras.toSeconds())));
+    }
+}
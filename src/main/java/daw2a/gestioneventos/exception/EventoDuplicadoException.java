@@ -1,7 +1,9 @@
 package daw2a.gestioneventos.exception;
 
-public class EventoDuplicadoException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class EventoDuplicadoException extends ExcepcionDominio {
     public EventoDuplicadoException(String nombre) {
-        super("Ya existe un evento con nombre=" + nombre);
+        super(HttpStatus.CONFLICT, "Ya existe un evento con nombre=" + nombre);
     }
 }
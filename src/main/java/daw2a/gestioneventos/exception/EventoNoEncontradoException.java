@@ -1,15 +1,17 @@
 package daw2a.gestioneventos.exception;
 
-public class EventoNoEncontradoException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class EventoNoEncontradoException extends ExcepcionDominio {
     public EventoNoEncontradoException(Long id) {
-        super("Evento no encontrado con id=" + id);
+        super(HttpStatus.NOT_FOUND, "Evento no encontrado con id=" + id);
     }
 
     public EventoNoEncontradoException(String nombre) {
-        super("Evento no encontrado con nombre=" + nombre);
+        super(HttpStatus.NOT_FOUND, "Evento no encontrado con nombre=" + nombre);
     }
 
     public EventoNoEncontradoException() {
-        super("No hay eventos disponibles");
+        super(HttpStatus.NOT_FOUND, "No hay eventos disponibles");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package daw2a.gestioneventos.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+// Base de las excepciones de negocio que llegan al cliente como ApiError (ver ApiExceptionHandler).
+// Son errores esperados (un 404 al sondear nombres, un 409 por duplicado), no fallos del
+// programa: no capturan la pila, que es lo más caro de crear una excepción, ni admiten
+// suprimidas. Así además se pueden compartir entre hilos sin problema (VueloUnico).
+@Getter
+public abstract class ExcepcionDominio extends RuntimeException {
+    private final HttpStatus estado;
+
+    protected ExcepcionDominio(HttpStatus estado, String mensaje) {
+        super(mensaje, null, false, false);
+        this.estado = estado;
+    }
+
+    // Cabeceras propias de la respuesta, p. ej. Retry-After
+    public void cabeceras(HttpHeaders cabeceras) {
+    }
+}
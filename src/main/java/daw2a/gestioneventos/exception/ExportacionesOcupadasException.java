@@ -0,0 +1,15 @@
+package daw2a.gestioneventos.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+public class ExportacionesOcupadasException extends ExcepcionDominio {
+    public ExportacionesOcupadasException() {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Hay demasiadas exportaciones en curso; reintente más tarde");
+    }
+
+    @Override
+    public void cabeceras(HttpHeaders cabeceras) {
+        cabeceras.set(HttpHeaders.RETRY_AFTER, "1");
+    }
+}
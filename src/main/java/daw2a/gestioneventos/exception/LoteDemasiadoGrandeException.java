@@ -0,0 +1,9 @@
+package daw2a.gestioneventos.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class LoteDemasiadoGrandeException extends ExcepcionDominio {
+    public LoteDemasiadoGrandeException(int pedidos, int maximo) {
+        super(HttpStatus.BAD_REQUEST, "Se pidieron " + pedidos + " ids; el máximo por lote es " + maximo);
+    }
+}
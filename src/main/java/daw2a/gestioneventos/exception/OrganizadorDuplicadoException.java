@@ -1,7 +1,9 @@
 package daw2a.gestioneventos.exception;
 
-public class OrganizadorDuplicadoException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class OrganizadorDuplicadoException extends ExcepcionDominio {
     public OrganizadorDuplicadoException(String nombre) {
-        super("Ya existe un organizador con el nombre: " + nombre);
+        super(HttpStatus.CONFLICT, "Ya existe un organizador con el nombre: " + nombre);
     }
 }
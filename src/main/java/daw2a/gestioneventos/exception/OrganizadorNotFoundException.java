@@ -1,7 +1,9 @@
 package daw2a.gestioneventos.exception;
 
-public class OrganizadorNotFoundException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class OrganizadorNotFoundException extends ExcepcionDominio {
     public OrganizadorNotFoundException(Long id) {
-        super("No se encontró el organizador con id=" + id);
+        super(HttpStatus.NOT_FOUND, "No se encontró el organizador con id=" + id);
     }
 }
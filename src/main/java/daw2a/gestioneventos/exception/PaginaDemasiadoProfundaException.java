@@ -0,0 +1,10 @@
+package daw2a.gestioneventos.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PaginaDemasiadoProfundaException extends ExcepcionDominio {
+    public PaginaDemasiadoProfundaException(long filas, int maximo) {
+        super(HttpStatus.BAD_REQUEST, "La página llega hasta la fila " + filas + "; al mezclar varios orígenes el máximo es "
+                + maximo + ". Para recorridos largos use la paginación por clave");
+    }
+}
@@ -1,7 +1,9 @@
 package daw2a.gestioneventos.exception;
 
-public class ParticipanteDuplicadoException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class ParticipanteDuplicadoException extends ExcepcionDominio {
     public ParticipanteDuplicadoException(String usuario) {
-        super("Ya existe un participante con el usuario: " + usuario);
+        super(HttpStatus.CONFLICT, "Ya existe un participante con el usuario: " + usuario);
     }
-}
\ No newline at end of file
+}
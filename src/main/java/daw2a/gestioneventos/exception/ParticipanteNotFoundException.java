@@ -1,11 +1,13 @@
 package daw2a.gestioneventos.exception;
 
-public class ParticipanteNotFoundException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class ParticipanteNotFoundException extends ExcepcionDominio {
     public ParticipanteNotFoundException(Long id) {
-        super("Participante no encontrado con id: " + id);
+        super(HttpStatus.NOT_FOUND, "Participante no encontrado con id: " + id);
     }
 
     public ParticipanteNotFoundException(String usuario) {
-        super("Participante no encontrado con usuario: " + usuario);
+        super(HttpStatus.NOT_FOUND, "Participante no encontrado con usuario: " + usuario);
     }
 }
@@ -0,0 +1,11 @@
+package daw2a.gestioneventos.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+
+public class TicketNoEncontradoException extends ExcepcionDominio {
+    public TicketNoEncontradoException(UUID ticket) {
+        super(HttpStatus.NOT_FOUND, "No existe el ticket de alta " + ticket + " o ya ha caducado");
+    }
+}
@@ -1,7 +1,9 @@
 package daw2a.gestioneventos.exception;
 
-public class UsuarioYaExisteException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class UsuarioYaExisteException extends ExcepcionDominio {
     public UsuarioYaExisteException(String usuario) {
-        super("El usuario '" + usuario + "' ya está registrado");
+        super(HttpStatus.CONFLICT, "El usuario '" + usuario + "' ya está registrado");
     }
-}
\ No newline at end of file
+}
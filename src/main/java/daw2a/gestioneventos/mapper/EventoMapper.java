@@ -3,10 +3,21 @@ package daw2a.gestioneventos.mapper;
 import daw2a.gestioneventos.dominio.Evento;
 import daw2a.gestioneventos.dto.EventoRequestDTO;
 import daw2a.gestioneventos.dto.EventoResponseDTO;
+import daw2a.gestioneventos.repo.CampoProyectado;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 public class EventoMapper {
+    // Campos que se pueden pedir con ?fields=, con los mismos nombres y formato que EventoResponseDTO
+    public static final Map<String, CampoProyectado<Evento>> CAMPOS = CampoProyectado.catalogo(
+            CampoProyectado.de("id", r -> r.get("id")),
+            CampoProyectado.de("nombre", r -> r.get("nombre")),
+            CampoProyectado.de("fechaInicio", r -> r.get("fechaInicio"), Object::toString),
+            CampoProyectado.de("fechaFin", r -> r.get("fechaFin"), Object::toString),
+            CampoProyectado.de("organizadorId", r -> r.get("organizador").get("id"))
+    );
+
     // Mapper de DTO de solicitud a entidad Sí se Usa
     public static Evento toEntity(EventoRequestDTO dto) {
 
@@ -4,12 +4,22 @@ import daw2a.gestioneventos.dominio.Evento;
 import daw2a.gestioneventos.dominio.Organizador;
 import daw2a.gestioneventos.dto.OrganizadorRequestDTO;
 import daw2a.gestioneventos.dto.OrganizadorResponseDTO;
+import daw2a.gestioneventos.repo.CampoProyectado;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class OrganizadorMapper {
+    // Campos que se pueden pedir con ?fields=. "eventosIds" sólo selecciona el id del organizador;
+    // OrganizadorServicio lo sustituye después por la lista de ids en una única consulta
+    public static final String EVENTOS_IDS = "eventosIds";
+    public static final Map<String, CampoProyectado<Organizador>> CAMPOS = CampoProyectado.catalogo(
+            CampoProyectado.de("id", r -> r.get("id")),
+            CampoProyectado.de("nombre", r -> r.get("nombre")),
+            CampoProyectado.de(EVENTOS_IDS, r -> r.get("id"))
+    );
 
     public static Organizador toEntity(OrganizadorRequestDTO dto) {
         Organizador organizador = new Organizador();
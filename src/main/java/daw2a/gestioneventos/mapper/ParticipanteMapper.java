@@ -3,8 +3,19 @@ package daw2a.gestioneventos.mapper;
 import daw2a.gestioneventos.dominio.Participante;
 import daw2a.gestioneventos.dto.ParticipanteRequestDTO;
 import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import daw2a.gestioneventos.repo.CampoProyectado;
+
+import java.util.Map;
 
 public class ParticipanteMapper {
+    // Campos que se pueden pedir con ?fields=; la contraseña nunca se expone
+    public static final Map<String, CampoProyectado<Participante>> CAMPOS = CampoProyectado.catalogo(
+            CampoProyectado.de("id", r -> r.get("id")),
+            CampoProyectado.de("nombre", r -> r.get("nombre")),
+            CampoProyectado.de("usuario", r -> r.get("usuario")),
+            CampoProyectado.de("eventoId", r -> r.get("evento").get("id")),
+            CampoProyectado.de("eventoNombre", r -> r.get("evento").get("nombre"))
+    );
 
     public static Participante toEntity(ParticipanteRequestDTO dto) {
         Participante participante = new Participante();
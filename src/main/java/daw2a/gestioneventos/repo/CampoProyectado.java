@@ -0,0 +1,63 @@
+package daw2a.gestioneventos.repo;
+
+import daw2a.gestioneventos.exception.CampoNoValidoException;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Campo de un DTO de respuesta que se puede pedir con ?fields=: nombre en el JSON,
+// expresión Criteria que lo lee de la entidad y conversión del valor leído al del DTO
+public record CampoProyectado<E>(String nombre,
+                                 Function<Root<E>, Expression<?>> expresion,
+                                 Function<Object, Object> conversion) {
+
+    public static <E> CampoProyectado<E> de(String nombre, Function<Root<E>, Expression<?>> expresion) {
+        return new CampoProyectado<>(nombre, expresion, Function.identity());
+    }
+
+    public static <E> CampoProyectado<E> de(String nombre, Function<Root<E>, Expression<?>> expresion,
+                                            Function<Object, Object> conversion) {
+        return new CampoProyectado<>(nombre, expresion, conversion);
+    }
+
+    @SafeVarargs
+    public static <E> Map<String, CampoProyectado<E>> catalogo(CampoProyectado<E>... campos) {
+        Map<String, CampoProyectado<E>> catalogo = new LinkedHashMap<>();
+        for (CampoProyectado<E> campo : campos) {
+            catalogo.put(campo.nombre(), campo);
+        }
+        return Collections.unmodifiableMap(catalogo);
+    }
+
+    // Los campos ya seleccionados leídos de un DTO de respuesta ya construido (p. ej. de una fila
+    // archivada, que no se proyecta con Criteria); los nombres son los de sus propiedades
+    public static <E> Map<String, Object> leer(List<CampoProyectado<E>> campos, Object dto) {
+        Map<String, Object> valores = new LinkedHashMap<>();
+        for (CampoProyectado<E> campo : campos) {
+            valores.put(campo.nombre(), Fragmentos.propiedad(dto, campo.nombre()));
+        }
+        return valores;
+    }
+
+    // Resuelve los nombres pedidos contra el catálogo, en el orden pedido y sin repetidos
+    public static <E> List<CampoProyectado<E>> seleccionar(Map<String, CampoProyectado<E>> catalogo,
+                                                           Collection<String> pedidos) {
+        List<String> nombres = pedidos.stream().map(String::trim).filter(n -> !n.isEmpty()).distinct().toList();
+        if (nombres.isEmpty()) {
+            throw new CampoNoValidoException(catalogo.keySet());
+        }
+        return nombres.stream().map(nombre -> {
+            CampoProyectado<E> campo = catalogo.get(nombre);
+            if (campo == null) {
+                throw new CampoNoValidoException(nombre, catalogo.keySet());
+            }
+            return campo;
+        }).toList();
+    }
+}
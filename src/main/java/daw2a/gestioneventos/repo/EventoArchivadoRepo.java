@@ -0,0 +1,10 @@
+package daw2a.gestioneventos.repo;
+
+import daw2a.gestioneventos.dominio.EventoArchivado;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface EventoArchivadoRepo extends JpaRepository<EventoArchivado, Long> {
+    List<EventoArchivado> findByNombreContainingIgnoreCase(String nombre);
+}
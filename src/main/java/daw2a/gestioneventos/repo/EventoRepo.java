@@ -1,18 +1,49 @@
 package daw2a.gestioneventos.repo;
 
 import daw2a.gestioneventos.dominio.Evento;
+import daw2a.gestioneventos.dto.SugerenciaDTO;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface EventoRepo extends JpaRepository<Evento,Long> {
+    // Caché de consultas: la región se invalida sola con cualquier cambio en la tabla evento
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "consultas-nombre")
+    })
     public Evento findByNombre(String nombre);
     public Optional<Evento> findEventoByDescripcion(String descripcion);
     public List<Evento> findByNombreContainingIgnoreCase(String nombre);
-    public boolean existsByNombre(String nombre);
+    // Consulta nativa: también cuenta los eventos borrados pendientes de purga,
+    // que siguen ocupando el nombre (columna única)
+    @Query(value = "select count(*) > 0 from evento where nombre = :nombre", nativeQuery = true)
+    public boolean existsByNombre(@Param("nombre") String nombre);
 
-   }
+    // Borrado lógico: el evento deja de verse al momento y PurgadoEliminados lo borra después
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Evento e set e.eliminado = true where e.id = :id")
+    public int marcarEliminado(@Param("id") Long id);
+
+    // Eventos del organizador con id mayor que despues, en orden de id (índice organizador_id, id)
+    public List<Evento> findByOrganizadorIdAndIdGreaterThanOrderByIdAsc(Long organizadorId, Long despues, Limit limite);
+    public long countByOrganizadorId(Long organizadorId);
+
+    // Nombres de todos los eventos para el índice de autocompletado (Autocompletado)
+    @Query("select new daw2a.gestioneventos.dto.SugerenciaDTO(e.id, e.nombre) from Evento e")
+    public List<SugerenciaDTO> sugerencias();
+
+    @Query("select new daw2a.gestioneventos.dto.SugerenciaDTO(e.id, e.nombre) from Evento e where e.id = :id")
+    public Optional<SugerenciaDTO> sugerenciaPorId(@Param("id") Long id);
+}
@@ -0,0 +1,266 @@
+package daw2a.gestioneventos.repo;
+
+import daw2a.gestioneventos.config.FragmentosProperties;
+import daw2a.gestioneventos.exception.PaginaDemasiadoProfundaException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Reparto de eventos y participantes en varias bases (fragmentos), por organizador.
+//
+// - Un evento se crea en el fragmento de su organizador, elegido con un anillo de hash
+//   consistente (añadir un fragmento sólo mueve ~1/N de los organizadores). Sus participantes
+//   van con él.
+// - Los ids de evento y participante llevan el fragmento en los bits altos (las secuencias de
+//   cada fragmento empiezan en primerId(fragmento)), así que una búsqueda por id sabe a qué
+//   base ir sin consultar nada: deId(id).
+// - Los organizadores se crean en el fragmento 0 y se replican en los demás (la FK de evento).
+// - Lo que no se puede dirigir (listados, búsquedas por nombre) se pregunta a todos los
+//   fragmentos en paralelo y se mezcla (reunir, reunirPagina, porIds).
+//
+// El fragmento se elige con en(fragmento, tarea): DataSourceFragmentado lee el de este hilo al
+// pedir la conexión. Como la conexión física se pide en la primera sentencia
+// (LazyConnectionDataSourceProxy), basta con elegirlo al empezar el método transaccional; toda
+// la transacción va a esa base. Con un solo fragmento (lo normal) todo se ejecuta en línea y en
+// la transacción de quien llama, como si esta clase no existiera.
+@Component
+public class Fragmentos {
+    // Los 16 bits altos de los ids de evento y participante son el fragmento
+    public static final int BITS_ID = 48;
+    // Filas que puede tener que cargar cada origen para una página mezclada (offset + size)
+    public static final int MAXIMO_FILAS_MEZCLA = 10_000;
+
+    private static final ThreadLocal<Integer> ACTUAL = new ThreadLocal<>();
+
+    private final int numero;
+    private final NavigableMap<Long, Integer> anillo = new TreeMap<>();
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+
+    public Fragmentos(FragmentosProperties propiedades) {
+        this.numero = propiedades.isHabilitado() ? Math.max(1, propiedades.getUrls().size()) : 1;
+        for (int fragmento = 0; fragmento < numero; fragmento++) {
+            for (int punto = 0; punto < propiedades.getNodosVirtuales(); punto++) {
+                anillo.put(mezclar(((long) fragmento << 32) | punto), fragmento);
+            }
+        }
+    }
+
+    @PreDestroy
+    void cerrar() {
+        hilos.shutdownNow();
+    }
+
+    public int numero() {
+        return numero;
+    }
+
+    // Fragmento elegido en este hilo, o null (el 0)
+    public static Integer actual() {
+        return ACTUAL.get();
+    }
+
+    public static int deId(Long id) {
+        return id != null ? (int) (id >>> BITS_ID) : 0;
+    }
+
+    public static long primerId(int fragmento) {
+        return (long) fragmento << BITS_ID;
+    }
+
+    public int deOrganizador(Long organizadorId) {
+        if (numero == 1 || organizadorId == null) {
+            return 0;
+        }
+        Map.Entry<Long, Integer> punto = anillo.ceilingEntry(mezclar(organizadorId));
+        return (punto != null ? punto : anillo.firstEntry()).getValue();
+    }
+
+    public <T> T en(int fragmento, Supplier<T> tarea) {
+        Integer anterior = ACTUAL.get();
+        ACTUAL.set(fragmento);
+        try {
+            return tarea.get();
+        } finally {
+            if (anterior == null) {
+                ACTUAL.remove();
+            } else {
+                ACTUAL.set(anterior);
+            }
+        }
+    }
+
+    public void ejecutarEn(int fragmento, Runnable tarea) {
+        en(fragmento, () -> {
+            tarea.run();
+            return null;
+        });
+    }
+
+    // La tarea en cada fragmento, en paralelo y cada una con su transacción; los resultados
+    // en orden de fragmento (pueden ser null)
+    public <T> List<T> reunir(Supplier<T> tarea) {
+        if (numero == 1) {
+            return Collections.singletonList(tarea.get());
+        }
+        List<Future<T>> futuros = new ArrayList<>(numero);
+        for (int fragmento = 0; fragmento < numero; fragmento++) {
+            int f = fragmento;
+            futuros.add(hilos.submit(() -> en(f, tarea)));
+        }
+        List<T> resultados = new ArrayList<>(numero);
+        for (Future<T> futuro : futuros) {
+            resultados.add(esperar(futuro));
+        }
+        return resultados;
+    }
+
+    // Carga por ids agrupándolos por su fragmento; devuelve lo encontrado en el orden de ids
+    public <T> List<T> porIds(Collection<Long> ids, Function<List<Long>, List<T>> carga, Function<T, Long> id) {
+        if (numero == 1) {
+            return carga.apply(List.copyOf(ids));
+        }
+        Map<Integer, List<Long>> grupos = ids.stream().filter(Objects::nonNull).distinct()
+                .collect(Collectors.groupingBy(Fragmentos::deId));
+        List<Future<List<T>>> futuros = grupos.entrySet().stream()
+                .map(g -> hilos.submit(() -> en(g.getKey(), () -> carga.apply(g.getValue()))))
+                .toList();
+        Map<Long, T> encontrados = new HashMap<>();
+        for (Future<List<T>> futuro : futuros) {
+            esperar(futuro).forEach(e -> encontrados.put(id.apply(e), e));
+        }
+        return ids.stream().distinct().map(encontrados::get).filter(Objects::nonNull).toList();
+    }
+
+    // Página global a partir de las de cada fragmento: cada uno devuelve sus primeras
+    // offset + size filas en el orden pedido (por id si no se pide ninguno), se mezclan con
+    // el mismo orden y se corta la página. Las páginas profundas cuestan offset + size por
+    // fragmento (hasta MAXIMO_FILAS_MEZCLA); para recorridos largos están las ventanas por
+    // clave (VentanaDTO)
+    public <T> Page<T> reunirPagina(Pageable pageable, Function<Pageable, Page<T>> consulta,
+                                    BiFunction<T, String, Object> valor) {
+        if (numero == 1) {
+            return consulta.apply(pageable);
+        }
+        Pageable primeras = primeras(pageable);
+        return mezclar(pageable, reunir(() -> consulta.apply(primeras)), valor);
+    }
+
+    // Lo que cada origen debe devolver para poder cortar pageable de la mezcla: sus primeras
+    // offset + size filas, con el orden pedido o por id. Como cada origen carga todas esas filas,
+    // más allá de MAXIMO_FILAS_MEZCLA se responde 400 en lugar de leer millones de filas
+    public static Pageable primeras(Pageable pageable) {
+        Sort orden = orden(pageable);
+        if (pageable.isUnpaged()) {
+            return Pageable.unpaged(orden);
+        }
+        long filas = pageable.getOffset() + pageable.getPageSize();
+        if (filas > MAXIMO_FILAS_MEZCLA) {
+            throw new PaginaDemasiadoProfundaException(filas, MAXIMO_FILAS_MEZCLA);
+        }
+        return PageRequest.of(0, (int) filas, orden);
+    }
+
+    // Mezcla las páginas primeras(pageable) de varios orígenes (fragmentos, o tablas vivas y de
+    // archivo) y corta la página pedida
+    public static <T> Page<T> mezclar(Pageable pageable, List<Page<T>> paginas, BiFunction<T, String, Object> valor) {
+        long total = paginas.stream().mapToLong(Page::getTotalElements).sum();
+        List<T> filas = paginas.stream()
+                .flatMap(p -> p.getContent().stream())
+                .sorted(comparador(orden(pageable), valor))
+                .skip(pageable.isPaged() ? pageable.getOffset() : 0)
+                .limit(pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE)
+                .toList();
+        return new PageImpl<>(filas, pageable, total);
+    }
+
+    private static Sort orden(Pageable pageable) {
+        return pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+    }
+
+    // Tras confirmar la transacción en curso (o ya, si no hay), la tarea en los fragmentos
+    // 1..N-1. La tarea debe abrir su propia transacción (REQUIRES_NEW): la de quien llama
+    // sigue ligada a su conexión hasta que termina la sincronización
+    public void replicar(Runnable tarea) {
+        if (numero == 1) {
+            return;
+        }
+        Runnable enReplicas = () -> {
+            for (int fragmento = 1; fragmento < numero; fragmento++) {
+                ejecutarEn(fragmento, tarea);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enReplicas.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enReplicas.run();
+            }
+        });
+    }
+
+    // Valor de una propiedad (con ruta, p. ej. "organizador.id") de una entidad o DTO
+    public static Object propiedad(Object objeto, String ruta) {
+        return new BeanWrapperImpl(objeto).getPropertyValue(ruta);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Comparator<T> comparador(Sort orden, BiFunction<T, String, Object> valor) {
+        Comparator<T> resultado = (a, b) -> 0;
+        for (Sort.Order o : orden) {
+            Comparator<T> campo = Comparator.comparing(f -> (Comparable) valor.apply(f, o.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            resultado = resultado.thenComparing(o.isAscending() ? campo : campo.reversed());
+        }
+        return resultado;
+    }
+
+    private static <T> T esperar(Future<T> futuro) {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando a los fragmentos", e);
+        }
+    }
+
+    // Mezcla de 64 bits (splitmix64): ids consecutivos caen lejos en el anillo
+    private static long mezclar(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+}
@@ -0,0 +1,48 @@
+package daw2a.gestioneventos.repo;
+
+import daw2a.gestioneventos.exception.LoteDemasiadoGrandeException;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+// Carga de muchas entidades por id (GET .../lote?ids=) con la API multiLoad de Hibernate:
+// primero mira el contexto de persistencia y la caché de entidades, y lo que falte lo pide
+// con un SELECT ... WHERE id IN (...) por cada trozo de TAMANO_TROZO ids
+@Repository
+public class LoteRepo {
+    public static final int MAXIMO_IDS = 5000;
+    static final int TAMANO_TROZO = 500;
+
+    private final EntityManager entityManager;
+
+    public LoteRepo(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Devuelve las entidades encontradas en el orden de los ids pedidos; los ids repetidos
+    // se cargan una vez y los que no existen se omiten
+    @Transactional(readOnly = true)
+    public <E> List<E> cargar(Class<E> entidad, Collection<Long> ids) {
+        List<Long> distintos = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distintos.size() > MAXIMO_IDS) {
+            throw new LoteDemasiadoGrandeException(distintos.size(), MAXIMO_IDS);
+        }
+        if (distintos.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(entidad)
+                .withBatchSize(TAMANO_TROZO)
+                .enableSessionCheck(true)
+                .enableOrderedReturn(true)
+                .multiLoad(distintos)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -1,7 +1,16 @@
 package daw2a.gestioneventos.repo;
 
 import daw2a.gestioneventos.dominio.Organizador;
+import daw2a.gestioneventos.dto.OrganizadorConteoDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,5 +18,20 @@ import java.util.Optional;
 public interface OrganizadorRepo extends JpaRepository<Organizador,Long> {
     List<Organizador> findByNombreContainingIgnoreCase(String nombre);
     boolean existsByNombre(String nombre);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "consultas-nombre")
+    })
     Optional<Organizador> findByNombre(String nombre);
+
+    // Proyección por constructor: cuenta los eventos sin cargar la colección
+    @Query("select new daw2a.gestioneventos.dto.OrganizadorConteoDTO(o.id, o.nombre, count(e)) "
+            + "from Organizador o left join o.eventos e where o.id = :id group by o.id, o.nombre")
+    Optional<OrganizadorConteoDTO> conteoPorId(@Param("id") Long id);
+
+    // Copia de un organizador en otro fragmento, con el mismo id (ver Fragmentos.replicar)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "insert into organizador (id, nombre) values (:id, :nombre)", nativeQuery = true)
+    void replicar(@Param("id") Long id, @Param("nombre") String nombre);
 }
@@ -0,0 +1,7 @@
+package daw2a.gestioneventos.repo;
+
+import daw2a.gestioneventos.dominio.ParticipanteArchivado;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ParticipanteArchivadoRepo extends JpaRepository<ParticipanteArchivado, Long> {
+}
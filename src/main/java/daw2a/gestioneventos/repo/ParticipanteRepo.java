@@ -1,13 +1,62 @@
 package daw2a.gestioneventos.repo;
 
 import daw2a.gestioneventos.dominio.Participante;
+import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import daw2a.gestioneventos.dto.SugerenciaDTO;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface ParticipanteRepo extends JpaRepository<Participante,Long> {
     List<Participante> findByNombreContainingIgnoreCase(String nombre);
-    boolean existsByUsuario(String usuario);
+    // Nativa: los participantes borrados pendientes de purga y los archivados siguen ocupando el usuario
+    @Query(value = "select (select count(*) from participante where usuario = :usuario) "
+            + "+ (select count(*) from participante_archivado where usuario = :usuario) > 0", nativeQuery = true)
+    boolean existsByUsuario(@Param("usuario") String usuario);
     Optional<Participante> findByUsuario(String usuario);
+
+    // Los usuarios de la lista que ya están ocupados, también por participantes pendientes de purga
+    // o archivados
+    @Query(value = "select usuario from participante where usuario in (:usuarios) "
+            + "union select usuario from participante_archivado where usuario in (:usuarios)", nativeQuery = true)
+    Set<String> usuariosRegistrados(@Param("usuarios") Collection<String> usuarios);
+
+    // Todos los usuarios ocupados, para cargar el filtro de DisponibilidadUsuarios
+    @Query(value = "select usuario from participante union all select usuario from participante_archivado",
+            nativeQuery = true)
+    List<String> usuarios();
+
+    // Un único UPDATE marca todos los participantes del evento como borrados
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Participante p set p.eliminado = true where p.evento.id = :eventoId")
+    int marcarEliminadosPorEvento(@Param("eventoId") Long eventoId);
+
+    // Proyección por constructor sobre el índice (evento_id, id): no carga entidades ni toca
+    // Evento.participantes. patron es un LIKE ya en minúsculas y escapado con \, o null
+    @Query("select new daw2a.gestioneventos.dto.ParticipanteResponseDTO(p.id, p.nombre, p.usuario, e.id, e.nombre) "
+            + "from Participante p join p.evento e "
+            + "where e.id = :eventoId and p.id > :despues "
+            + "and (:patron is null or lower(p.nombre) like :patron escape '\\') "
+            + "order by p.id")
+    List<ParticipanteResponseDTO> ventanaPorEvento(@Param("eventoId") Long eventoId, @Param("despues") Long despues,
+                                                   @Param("patron") String patron, Limit limite);
+
+    @Query("select count(p) from Participante p "
+            + "where p.evento.id = :eventoId and (:patron is null or lower(p.nombre) like :patron escape '\\')")
+    long contarPorEvento(@Param("eventoId") Long eventoId, @Param("patron") String patron);
+
+    // Usuarios de todos los participantes para el índice de autocompletado (Autocompletado)
+    @Query("select new daw2a.gestioneventos.dto.SugerenciaDTO(p.id, p.usuario, p.evento.id) from Participante p")
+    List<SugerenciaDTO> sugerencias();
+
+    @Query("select new daw2a.gestioneventos.dto.SugerenciaDTO(p.id, p.usuario, p.evento.id) from Participante p "
+            + "where p.id = :id")
+    Optional<SugerenciaDTO> sugerenciaPorId(@Param("id") Long id);
 }
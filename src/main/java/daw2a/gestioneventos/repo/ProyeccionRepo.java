@@ -0,0 +1,99 @@
+package daw2a.gestioneventos.repo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// Consultas con proyección parcial (?fields=): el SELECT sólo lleva las columnas de los
+// campos pedidos y cada fila se devuelve como un mapa campo -> valor, en el orden pedido
+@Repository
+public class ProyeccionRepo {
+    private final EntityManager entityManager;
+
+    public ProyeccionRepo(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public <E> Page<Map<String, Object>> listar(Class<E> entidad, List<CampoProyectado<E>> campos, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> consulta = cb.createTupleQuery();
+        Root<E> raiz = consulta.from(entidad);
+        consulta.multiselect(seleccion(raiz, campos));
+        if (pageable.getSort().isSorted()) {
+            consulta.orderBy(QueryUtils.toOrders(pageable.getSort(), raiz, cb));
+        }
+
+        TypedQuery<Tuple> query = entityManager.createQuery(consulta);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> filas = query.getResultList().stream().map(t -> fila(t, campos)).toList();
+        // Sólo se lanza el COUNT si la página no basta para deducir el total
+        return PageableExecutionUtils.getPage(filas, pageable, () -> contar(entidad));
+    }
+
+    // Una fila cuyo atributo (id, nombre...) es igual al valor dado
+    public <E> Optional<Map<String, Object>> buscarPor(Class<E> entidad, List<CampoProyectado<E>> campos,
+                                                       String atributo, Object valor) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> consulta = cb.createTupleQuery();
+        Root<E> raiz = consulta.from(entidad);
+        consulta.multiselect(seleccion(raiz, campos)).where(cb.equal(raiz.get(atributo), valor));
+        return entityManager.createQuery(consulta).setMaxResults(1).getResultStream()
+                .findFirst()
+                .map(t -> fila(t, campos));
+    }
+
+    // Ids de los eventos de cada organizador en una sola consulta, sin cargar las entidades
+    public Map<Long, List<Long>> idsEventosPorOrganizador(Collection<Long> organizadoresIds) {
+        if (organizadoresIds.isEmpty()) {
+            return Map.of();
+        }
+        return entityManager.createQuery(
+                        "select e.organizador.id, e.id from Evento e where e.organizador.id in :ids order by e.id",
+                        Object[].class)
+                .setParameter("ids", organizadoresIds)
+                .getResultStream()
+                .collect(Collectors.groupingBy(f -> (Long) f[0],
+                        Collectors.mapping(f -> (Long) f[1], Collectors.toList())));
+    }
+
+    private <E> long contar(Class<E> entidad) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> consulta = cb.createQuery(Long.class);
+        consulta.select(cb.count(consulta.from(entidad)));
+        return entityManager.createQuery(consulta).getSingleResult();
+    }
+
+    private static <E> List<Selection<?>> seleccion(Root<E> raiz, List<CampoProyectado<E>> campos) {
+        return campos.stream()
+                .<Selection<?>>map(c -> c.expresion().apply(raiz).alias(c.nombre()))
+                .toList();
+    }
+
+    private static <E> Map<String, Object> fila(Tuple tupla, List<CampoProyectado<E>> campos) {
+        Map<String, Object> fila = new LinkedHashMap<>();
+        for (CampoProyectado<E> campo : campos) {
+            Object valor = tupla.get(campo.nombre());
+            fila.put(campo.nombre(), valor != null ? campo.conversion().apply(valor) : null);
+        }
+        return fila;
+    }
+}
@@ -0,0 +1,152 @@
+package daw2a.gestioneventos.servicio;
+
+import daw2a.gestioneventos.config.ArchivadoProperties;
+import daw2a.gestioneventos.dominio.Evento;
+import daw2a.gestioneventos.dto.CambioDTO;
+import daw2a.gestioneventos.dto.TipoCambio;
+import daw2a.gestioneventos.repo.Fragmentos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Pasa los eventos terminados hace más de antiguedad, con sus participantes, a evento_archivado
+// y participante_archivado, para que evento y participante (y sus índices) sólo tengan lo vivo.
+// Cada lote es una transacción propia: bloquea hasta tamanoLote eventos, copia ellos y sus
+// participantes y los borra de las tablas vivas. Los participantes con borrado lógico no se
+// copian, pero se borran (la FK impediría borrar el evento); los eventos con borrado lógico se
+// quedan para la purga. Sólo se borran los participantes copiados: si a pesar del bloqueo entra
+// uno nuevo entre la copia y el borrado (bases donde la FK no espera al bloqueo), la FK hace
+// fallar el lote, que se deshace entero y se repite en la siguiente ejecución.
+// SQL nativo como en PurgadoEliminados, así que la caché de segundo nivel de cada evento
+// archivado y la de consultas se vacían a mano.
+//
+// Cada evento archivado se publica como CambioDTO ARCHIVADO tras el commit de su lote.
+//
+// Métricas: gestioneventos.archivado.filas (contador de filas archivadas, con la etiqueta
+// "tabla") y gestioneventos.archivado.lote (duración de cada lote).
+//
+// Con varios fragmentos se archiva cada uno por turno, en su propia base.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gestioneventos.archivado.habilitado", havingValue = "true", matchIfMissing = true)
+public class ArchivadoEventos {
+    private static final String TERMINADOS =
+            "select id from evento where eliminado = false and fecha_fin < :limite "
+                    + "order by id fetch first :tamano rows only for update";
+    private static final String COPIAR_EVENTOS =
+            "insert into evento_archivado (id, nombre, descripcion, organizador_id, tipo, fecha_inicio, fecha_fin, "
+                    + "archivado) select id, nombre, descripcion, organizador_id, tipo, fecha_inicio, fecha_fin, "
+                    + ":ahora from evento where id in (:ids)";
+    private static final String COPIAR_PARTICIPANTES =
+            "insert into participante_archivado (id, nombre, usuario, contrasenia, evento_id) "
+                    + "select id, nombre, usuario, contrasenia, evento_id from participante "
+                    + "where evento_id in (:ids) and eliminado = false";
+    private static final String BORRAR_PARTICIPANTES =
+            "delete from participante where evento_id in (:ids) and (eliminado = true "
+                    + "or id in (select id from participante_archivado where evento_id in (:ids)))";
+    private static final String BORRAR_EVENTOS = "delete from evento where id in (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchivadoProperties propiedades;
+    private final Fragmentos fragmentos;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher publicador;
+    private final Counter eventos;
+    private final Counter participantes;
+    private final Timer duracionLote;
+
+    public ArchivadoEventos(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            ArchivadoProperties propiedades, Fragmentos fragmentos,
+                            EntityManagerFactory entityManagerFactory, ApplicationEventPublisher publicador,
+                            MeterRegistry registro) {
+        this.jdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.propiedades = propiedades;
+        this.fragmentos = fragmentos;
+        this.entityManagerFactory = entityManagerFactory;
+        this.publicador = publicador;
+        this.eventos = filas("evento", registro);
+        this.participantes = filas("participante", registro);
+        this.duracionLote = Timer.builder("gestioneventos.archivado.lote")
+                .description("Duración de cada lote de archivado")
+                .register(registro);
+    }
+
+    @Scheduled(cron = "${gestioneventos.archivado.cron:0 0 3 * * *}")
+    public void archivar() throws InterruptedException {
+        LocalDateTime limite = LocalDateTime.now().minus(propiedades.getAntiguedad());
+        long archivados = 0;
+        for (int fragmento = 0; fragmento < fragmentos.numero(); fragmento++) {
+            archivados += archivarFragmento(fragmento, limite);
+        }
+        if (archivados > 0) {
+            // p. ej. findByNombre, que podría devolver el id de un evento ya archivado
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+            log.info("Archivados {} eventos terminados", archivados);
+        }
+    }
+
+    private long archivarFragmento(int fragmento, LocalDateTime limite) throws InterruptedException {
+        int tamanoLote = propiedades.getTamanoLote();
+        int lotes = propiedades.getMaxLotesPorEjecucion();
+        long archivados = 0;
+        int movidos = tamanoLote;
+        // Un lote incompleto indica que no quedan más eventos terminados
+        while (movidos == tamanoLote && lotes > 0) {
+            Lote lote = fragmentos.en(fragmento, () -> archivarLote(limite));
+            lote.ids().forEach(id -> entityManagerFactory.getCache().evict(Evento.class, id));
+            eventos.increment(lote.ids().size());
+            participantes.increment(lote.participantes());
+            movidos = lote.ids().size();
+            archivados += movidos;
+            lotes--;
+            if (movidos == tamanoLote && !propiedades.getPausa().isZero()) {
+                Thread.sleep(propiedades.getPausa());
+            }
+        }
+        return archivados;
+    }
+
+    // Un lote en su propia transacción
+    private Lote archivarLote(LocalDateTime limite) {
+        return duracionLote.record(() -> transactionTemplate.execute(estado -> {
+            List<Long> ids = jdbc.queryForList(TERMINADOS,
+                    Map.of("limite", limite, "tamano", propiedades.getTamanoLote()), Long.class);
+            if (ids.isEmpty()) {
+                return new Lote(ids, 0);
+            }
+            Map<String, Object> parametros = Map.of("ids", ids, "ahora", LocalDateTime.now());
+            jdbc.update(COPIAR_EVENTOS, parametros);
+            int copiados = jdbc.update(COPIAR_PARTICIPANTES, parametros);
+            jdbc.update(BORRAR_PARTICIPANTES, parametros);
+            jdbc.update(BORRAR_EVENTOS, parametros);
+            ids.forEach(id -> publicador.publishEvent(CambioDTO.evento(TipoCambio.ARCHIVADO, id)));
+            return new Lote(ids, copiados);
+        }));
+    }
+
+    private static Counter filas(String tabla, MeterRegistry registro) {
+        return Counter.builder("gestioneventos.archivado.filas")
+                .description("Filas pasadas a las tablas de archivo")
+                .tag("tabla", tabla)
+                .register(registro);
+    }
+
+    private record Lote(List<Long> ids, int participantes) {
+    }
+}
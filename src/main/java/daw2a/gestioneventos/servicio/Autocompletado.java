@@ -0,0 +1,177 @@
+package daw2a.gestioneventos.servicio;
+
+import daw2a.gestioneventos.dto.CambioDTO;
+import daw2a.gestioneventos.dto.EventoResponseDTO;
+import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import daw2a.gestioneventos.dto.SugerenciaDTO;
+import daw2a.gestioneventos.dto.TipoCambio;
+import daw2a.gestioneventos.exception.CampoNoValidoException;
+import daw2a.gestioneventos.repo.EventoRepo;
+import daw2a.gestioneventos.repo.Fragmentos;
+import daw2a.gestioneventos.repo.ParticipanteRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+// Autocompletado por prefijo de nombres de evento y usuarios de participante, sin tocar la base
+// en cada pulsación. Cada campo es un mapa ordenado concurrente (ConcurrentSkipListMap) cuya clave
+// es el texto normalizado (minúsculas, sin tildes) seguido del id: los que empiezan por un prefijo
+// son un rango contiguo y se leen los primeros tope en O(log n + tope).
+//
+// Se carga entero al arrancar y después se mantiene con los cambios confirmados (CambioDTO): altas
+// y modificaciones toman el nombre o el usuario de los datos del cambio, sin volver a la base (un
+// lote de la ingesta no cuesta una consulta por alta); sólo un cambio sin datos relee la fila.
+// Al borrar o archivar un evento se quitan él y sus participantes, que se localizan por un mapa
+// evento -> ids sin recorrer todo el índice.
+@Slf4j
+@Component
+public class Autocompletado {
+    public static final String EVENTO = "evento";
+    public static final String USUARIO = "usuario";
+    public static final int MAXIMO = 50;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private final EventoRepo eventoRepo;
+    private final ParticipanteRepo participanteRepo;
+    private final Fragmentos fragmentos;
+    private final Indice eventos = new Indice();
+    private final Indice usuarios = new Indice();
+
+    public Autocompletado(EventoRepo eventoRepo, ParticipanteRepo participanteRepo, Fragmentos fragmentos) {
+        this.eventoRepo = eventoRepo;
+        this.participanteRepo = participanteRepo;
+        this.fragmentos = fragmentos;
+    }
+
+    // Tras los datos de ejemplo (DataInitializer), que se cargan antes de estar lista la aplicación
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        fragmentos.reunir(eventoRepo::sugerencias).forEach(l -> l.forEach(eventos::poner));
+        fragmentos.reunir(participanteRepo::sugerencias).forEach(l -> l.forEach(usuarios::poner));
+        log.info("Índice de autocompletado: {} eventos, {} usuarios", eventos.tamano(), usuarios.tamano());
+    }
+
+    // Los tope primeros (en orden alfabético) cuyo texto empieza por prefijo
+    public List<SugerenciaDTO> buscar(String campo, String prefijo, int tope) {
+        Indice indice = switch (campo) {
+            case EVENTO -> eventos;
+            case USUARIO -> usuarios;
+            default -> throw new CampoNoValidoException(campo, List.of(EVENTO, USUARIO));
+        };
+        return indice.buscar(normalizar(prefijo), Math.clamp(tope, 1, MAXIMO));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alConfirmar(CambioDTO cambio) {
+        Long id = cambio.getId();
+        switch (cambio.getEntidad()) {
+            case CambioDTO.EVENTO -> {
+                // Los archivados tampoco se sugieren: sólo se busca entre los vivos
+                if (cambio.getTipo() == TipoCambio.ELIMINADO || cambio.getTipo() == TipoCambio.ARCHIVADO) {
+                    eventos.quitar(id);
+                    usuarios.quitarDeEvento(id);
+                } else if (cambio.getDatos() instanceof EventoResponseDTO evento) {
+                    eventos.poner(new SugerenciaDTO(id, evento.getNombre()));
+                } else {
+                    actualizar(eventos, id, fragmentos.en(Fragmentos.deId(id), () -> eventoRepo.sugerenciaPorId(id)));
+                }
+            }
+            case CambioDTO.PARTICIPANTE -> {
+                if (cambio.getTipo() == TipoCambio.ELIMINADO) {
+                    usuarios.quitar(id);
+                } else if (cambio.getDatos() instanceof ParticipanteResponseDTO participante) {
+                    usuarios.poner(new SugerenciaDTO(id, participante.getUsuario(), participante.getEventoId()));
+                } else {
+                    actualizar(usuarios, id, fragmentos.en(Fragmentos.deId(id), () -> participanteRepo.sugerenciaPorId(id)));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static void actualizar(Indice indice, Long id, Optional<SugerenciaDTO> sugerencia) {
+        sugerencia.ifPresentOrElse(indice::poner, () -> indice.quitar(id));
+    }
+
+    static String normalizar(String texto) {
+        return MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Indice {
+        private final ConcurrentSkipListMap<String, SugerenciaDTO> porClave = new ConcurrentSkipListMap<>();
+        // Clave actual de cada id, para quitar la anterior al renombrar
+        private final Map<Long, String> clavePorId = new ConcurrentHashMap<>();
+        // Ids de cada evento, para quitarlos juntos al borrar o archivar el evento
+        private final Map<Long, Set<Long>> idsPorEvento = new ConcurrentHashMap<>();
+
+        void poner(SugerenciaDTO sugerencia) {
+            // El \0 separa el texto del id: "ana\0..." va antes que "anabel\0..."
+            String clave = normalizar(sugerencia.getTexto()) + '\0' + sugerencia.getId();
+            String anterior = clavePorId.put(sugerencia.getId(), clave);
+            SugerenciaDTO sustituida = porClave.put(clave, sugerencia);
+            if (anterior != null && !anterior.equals(clave)) {
+                sustituida = porClave.remove(anterior);
+            }
+            if (sustituida != null && !Objects.equals(sustituida.getEventoId(), sugerencia.getEventoId())) {
+                desvincular(sustituida);
+            }
+            if (sugerencia.getEventoId() != null) {
+                idsPorEvento.computeIfAbsent(sugerencia.getEventoId(), e -> ConcurrentHashMap.newKeySet())
+                        .add(sugerencia.getId());
+            }
+        }
+
+        void quitar(Long id) {
+            String clave = clavePorId.remove(id);
+            if (clave != null) {
+                SugerenciaDTO quitada = porClave.remove(clave);
+                if (quitada != null) {
+                    desvincular(quitada);
+                }
+            }
+        }
+
+        // Proporcional a los participantes del evento, no al tamaño del índice
+        void quitarDeEvento(Long eventoId) {
+            Set<Long> ids = idsPorEvento.remove(eventoId);
+            if (ids != null) {
+                ids.forEach(this::quitar);
+            }
+        }
+
+        private void desvincular(SugerenciaDTO sugerencia) {
+            if (sugerencia.getEventoId() != null) {
+                idsPorEvento.computeIfPresent(sugerencia.getEventoId(), (e, ids) -> {
+                    ids.remove(sugerencia.getId());
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+
+        List<SugerenciaDTO> buscar(String prefijo, int tope) {
+            ConcurrentNavigableMap<String, SugerenciaDTO> rango =
+                    porClave.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false);
+            return rango.values().stream().limit(tope).toList();
+        }
+
+        int tamano() {
+            return porClave.size();
+        }
+    }
+}
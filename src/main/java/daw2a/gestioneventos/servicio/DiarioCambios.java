@@ -0,0 +1,381 @@
+package daw2a.gestioneventos.servicio;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import daw2a.gestioneventos.config.DiarioProperties;
+import daw2a.gestioneventos.dto.CambioDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Diario de sólo anexado con todos los cambios confirmados (los CambioDTO que publican los
+// servicios), para auditoría, sincronización incremental y reconstrucciones a un instante dado.
+// Cada registro lleva el estado de la entidad tras el cambio (CambioDTO.datos), así que el diario
+// basta para reconstruir sin consultar la base; al leerlo, datos vuelve con su ResponseDTO.
+//
+// Se anota tras el commit, como FeedCambios: nunca aparece un cambio que luego se deshizo, pero si
+// el proceso cae entre el commit y el anotado ese cambio no llega al diario. La garantía es "como
+// mucho una vez"; quien necesite todos los cambios debe cuadrar con la base tras una caída.
+//
+// El diario se reparte en segmentos de tamanoSegmento bytes mapeados en memoria, llamados por
+// la secuencia de su primer registro (00000000000000000001.diario). Cada registro es:
+//   int longitud del payload | int CRC32C | long secuencia | long instante (µs) | payload CBOR
+// Una longitud 0 marca el final de lo escrito. La longitud se escribe la última, así que un
+// registro a medio escribir no llega a verse; al arrancar se descarta la cola cuyo CRC no cuadra.
+//
+// Anotar sólo copia bytes en el segmento mapeado. Un hilo aparte fuerza a disco cada
+// intervaloSync todo lo escrito desde la última vez (commit en grupo: un fsync para muchos
+// registros); quien necesite durabilidad puede esperarla con esperarSincronizado.
+//
+// Java no deja liberar un mapeo a voluntad (se libera cuando el recolector recoge el buffer), así
+// que no se mapea de nuevo en cada leer: el segmento en curso se lee por el mismo mapeo en que se
+// escribe, y de los ya cerrados se guardan los segmentosMapeados usados más recientemente. Los
+// demás se sueltan y el recolector los desmapea, así que un nodo con meses de diario no acumula
+// un mapeo por segmento; leer un segmento soltado lo vuelve a mapear.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gestioneventos.diario.habilitado", havingValue = "true")
+public class DiarioCambios {
+    static final String EXTENSION = ".diario";
+    static final int CABECERA = 24;
+
+    private final Path directorio;
+    private final int tamanoSegmento;
+    private final Duration intervaloSync;
+    private final ObjectMapper cbor = CBORMapper.builder().addModule(new ParameterNamesModule()).build();
+    private final CRC32C crc = new CRC32C();
+    private final ReentrantLock candado = new ReentrantLock();
+    private final Condition sincronizadoCond = candado.newCondition();
+    // Segmentos cerrados mapeados para leer, del menos al más usado
+    private final Map<Path, MappedByteBuffer> mapeados;
+
+    private Path enCurso;
+    private MappedByteBuffer segmento;
+    private volatile long ultimo;
+    private volatile long sincronizado;
+    private volatile boolean activo;
+    private Thread sincronizador;
+
+    public DiarioCambios(DiarioProperties propiedades) {
+        this.directorio = propiedades.getDirectorio();
+        this.tamanoSegmento = Math.toIntExact(propiedades.getTamanoSegmento().toBytes());
+        this.intervaloSync = propiedades.getIntervaloSync();
+        int maximoMapeados = propiedades.getSegmentosMapeados();
+        this.mapeados = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, MappedByteBuffer> masAntiguo) {
+                return size() > maximoMapeados;
+            }
+        });
+        try {
+            Files.createDirectories(directorio);
+            recuperar();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se puede abrir el diario en " + directorio, e);
+        }
+        this.sincronizado = ultimo;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        activo = true;
+        sincronizador = Thread.ofPlatform().name("diario-sync").daemon().start(this::sincronizarPeriodicamente);
+    }
+
+    @PreDestroy
+    public void cerrar() throws InterruptedException {
+        activo = false;
+        if (sincronizador != null) {
+            sincronizador.interrupt();
+            sincronizador.join();
+        }
+        sincronizar();
+        mapeados.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alConfirmar(CambioDTO cambio) {
+        anotar(cambio);
+    }
+
+    // Añade el cambio al diario y devuelve su secuencia
+    public long anotar(CambioDTO cambio) {
+        byte[] payload;
+        try {
+            payload = cbor.writeValueAsBytes(cambio);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (CABECERA + payload.length + Integer.BYTES > tamanoSegmento) {
+            throw new IllegalArgumentException("Registro de " + payload.length + " bytes mayor que un segmento");
+        }
+        candado.lock();
+        try {
+            long secuencia = ultimo + 1;
+            // Siempre queda sitio para la longitud 0 que marca el final
+            if (segmento.remaining() < CABECERA + payload.length + Integer.BYTES) {
+                rotar(secuencia);
+            }
+            long instante = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+            int posicion = segmento.position();
+            segmento.putInt(posicion + 4, checksum(secuencia, instante, payload))
+                    .putLong(posicion + 8, secuencia)
+                    .putLong(posicion + 16, instante)
+                    .put(posicion + CABECERA, payload)
+                    .putInt(posicion, payload.length);
+            segmento.position(posicion + CABECERA + payload.length);
+            ultimo = secuencia;
+            return secuencia;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    public long ultimo() {
+        return ultimo;
+    }
+
+    public long sincronizado() {
+        return sincronizado;
+    }
+
+    // Espera a que la secuencia esté en disco; false si vence el plazo antes
+    public boolean esperarSincronizado(long secuencia, Duration plazo) throws InterruptedException {
+        long nanos = plazo.toNanos();
+        candado.lock();
+        try {
+            while (sincronizado < secuencia) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = sincronizadoCond.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    // Recorre en orden los registros con secuencia >= desde escritos hasta ahora; devuelve cuántos
+    public long leer(long desde, Consumer<Registro> destino) {
+        long hasta;
+        Path escrito;
+        MappedByteBuffer enEscritura;
+        candado.lock();
+        try {
+            hasta = ultimo;
+            escrito = enCurso;
+            enEscritura = segmento;
+        } finally {
+            candado.unlock();
+        }
+        long leidos = 0;
+        List<Path> segmentos = segmentos();
+        for (int i = 0; i < segmentos.size(); i++) {
+            // Segmentos que terminan antes de desde
+            if (i + 1 < segmentos.size() && primeraSecuencia(segmentos.get(i + 1)) <= desde) {
+                continue;
+            }
+            // El del segmento en curso es el mismo en que se escribe: sólo se leen posiciones absolutas
+            ByteBuffer datos = segmentos.get(i).equals(escrito) ? enEscritura
+                    : mapeados.computeIfAbsent(segmentos.get(i), DiarioCambios::mapearLectura);
+            int posicion = 0;
+            while (posicion + CABECERA <= datos.limit()) {
+                int longitud = datos.getInt(posicion);
+                long secuencia = datos.getLong(posicion + 8);
+                if (longitud == 0 || secuencia > hasta) {
+                    break;
+                }
+                if (secuencia >= desde) {
+                    byte[] payload = new byte[longitud];
+                    datos.get(posicion + CABECERA, payload);
+                    destino.accept(new Registro(secuencia, Instant.EPOCH.plus(datos.getLong(posicion + 16), ChronoUnit.MICROS),
+                            leerCambio(payload)));
+                    leidos++;
+                }
+                posicion += CABECERA + longitud;
+            }
+        }
+        return leidos;
+    }
+
+    private void sincronizarPeriodicamente() {
+        while (activo) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(intervaloSync.toNanos());
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                sincronizar();
+            } catch (RuntimeException e) {
+                log.error("No se pudo sincronizar el diario de cambios", e);
+            }
+        }
+    }
+
+    // Un único force() cubre todo lo escrito desde la sincronización anterior
+    private void sincronizar() {
+        MappedByteBuffer actual;
+        long hasta;
+        candado.lock();
+        try {
+            if (ultimo == sincronizado) {
+                return;
+            }
+            actual = segmento;
+            hasta = ultimo;
+        } finally {
+            candado.unlock();
+        }
+        actual.force();
+        marcarSincronizado(hasta);
+    }
+
+    private void marcarSincronizado(long hasta) {
+        candado.lock();
+        try {
+            if (hasta > sincronizado) {
+                sincronizado = hasta;
+                sincronizadoCond.signalAll();
+            }
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    // Con el candado cogido: cierra el segmento lleno (ya en disco) y abre uno nuevo
+    private void rotar(long primera) {
+        segmento.force();
+        marcarSincronizado(ultimo);
+        enCurso = directorio.resolve(nombre(primera));
+        segmento = mapearEscritura(enCurso);
+    }
+
+    // Abre el último segmento y se coloca tras su último registro válido
+    private void recuperar() throws IOException {
+        List<Path> segmentos = segmentos();
+        if (segmentos.isEmpty()) {
+            enCurso = directorio.resolve(nombre(1));
+            segmento = mapearEscritura(enCurso);
+            return;
+        }
+        Path ultimoSegmento = segmentos.getLast();
+        enCurso = ultimoSegmento;
+        segmento = mapearEscritura(ultimoSegmento);
+        ultimo = primeraSecuencia(ultimoSegmento) - 1;
+        int posicion = 0;
+        while (posicion + CABECERA + Integer.BYTES <= tamanoSegmento) {
+            int longitud = segmento.getInt(posicion);
+            if (longitud == 0) {
+                break;
+            }
+            long secuencia = segmento.getLong(posicion + 8);
+            boolean valido = longitud > 0 && posicion + CABECERA + longitud + Integer.BYTES <= tamanoSegmento
+                    && secuencia == ultimo + 1;
+            if (valido) {
+                byte[] payload = new byte[longitud];
+                segmento.get(posicion + CABECERA, payload);
+                valido = segmento.getInt(posicion + 4) == checksum(secuencia, segmento.getLong(posicion + 16), payload);
+            }
+            if (!valido) {
+                log.warn("Diario {}: registro dañado en la posición {}; se descarta el resto", ultimoSegmento, posicion);
+                for (int i = posicion; i < tamanoSegmento; i++) {
+                    segmento.put(i, (byte) 0);
+                }
+                segmento.force();
+                break;
+            }
+            ultimo = secuencia;
+            posicion += CABECERA + longitud;
+        }
+        segmento.position(posicion);
+    }
+
+    private int checksum(long secuencia, long instante, byte[] payload) {
+        crc.reset();
+        crc.update(ByteBuffer.allocate(16).putLong(secuencia).putLong(instante).flip());
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private CambioDTO leerCambio(byte[] payload) {
+        try {
+            CambioDTO cambio = cbor.readValue(payload, CambioDTO.class);
+            if (cambio.getDatos() == null) {
+                return cambio;
+            }
+            return new CambioDTO(cambio.getEntidad(), cambio.getTipo(), cambio.getId(), cambio.getEventoId(),
+                    cbor.convertValue(cambio.getDatos(), CambioDTO.claseDatos(cambio.getEntidad())));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MappedByteBuffer mapearEscritura(Path fichero) {
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanoSegmento);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se puede mapear el segmento " + fichero, e);
+        }
+    }
+
+    private static MappedByteBuffer mapearLectura(Path fichero) {
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            return canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se puede leer el segmento " + fichero, e);
+        }
+    }
+
+    int mapeados() {
+        return mapeados.size();
+    }
+
+    private List<Path> segmentos() {
+        try (Stream<Path> ficheros = Files.list(directorio)) {
+            return ficheros.filter(f -> f.getFileName().toString().endsWith(EXTENSION)).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String nombre(long primera) {
+        return String.format("%020d%s", primera, EXTENSION);
+    }
+
+    private static long primeraSecuencia(Path segmento) {
+        String nombre = segmento.getFileName().toString();
+        return Long.parseLong(nombre.substring(0, nombre.length() - EXTENSION.length()));
+    }
+
+    public record Registro(long secuencia, Instant instante, CambioDTO cambio) {
+    }
+}
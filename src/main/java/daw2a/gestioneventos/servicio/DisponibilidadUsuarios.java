@@ -0,0 +1,104 @@
+package daw2a.gestioneventos.servicio;
+
+import daw2a.gestioneventos.config.DisponibilidadProperties;
+import daw2a.gestioneventos.repo.Fragmentos;
+import daw2a.gestioneventos.repo.ParticipanteRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Delante de ParticipanteRepo.existsByUsuario: un FiltroBloom con todos los usuarios registrados
+// responde "libre" sin ir a la base para la mayoría de usuarios nuevos. Si dice "puede estar" se
+// pregunta a la base (en todos los fragmentos), que es la que manda.
+//
+// Se carga al arrancar y cada alta añade su usuario (registrar). Es local a cada instancia: un
+// usuario dado de alta en otra no está en el filtro hasta reiniciar. Por eso hay dos usos:
+// - disponible (GET de disponibilidad) es una pista y siempre usa el filtro: si se equivoca, el
+//   alta posterior responde 409.
+// - puedeExistir (altas) sólo se salta la base cuando el filtro tiene a todos los usuarios: una
+//   sola instancia (gestioneventos.disponibilidad.instancia-unica), ya cargado y sin fragmentos,
+//   porque con fragmentos la restricción única de participante.usuario sólo vale dentro de
+//   cada base y la comprobación en todas es la única que evita el duplicado.
+// Los usuarios de participantes borrados se quedan (siguen ocupados hasta la purga, y después
+// sólo cuestan un falso positivo).
+//
+// Métricas: gestioneventos.disponibilidad.falsos-positivos.estimados (probabilidad según el
+// llenado del filtro), gestioneventos.disponibilidad.consultas por resultado (filtro-libre,
+// bd-libre = falso positivo, bd-ocupado) y gestioneventos.disponibilidad.falsos-positivos
+// (fracción observada de los usuarios libres que el filtro no descartó).
+@Slf4j
+@Component
+public class DisponibilidadUsuarios {
+    private final ParticipanteRepo participanteRepo;
+    private final Fragmentos fragmentos;
+    private final FiltroBloom filtro;
+    private final Counter filtroLibre;
+    private final Counter bdLibre;
+    private final Counter bdOcupado;
+    private final boolean autoritativo;
+    // Hasta cargar el filtro todas las consultas van a la base
+    private volatile boolean listo;
+
+    public DisponibilidadUsuarios(ParticipanteRepo participanteRepo, Fragmentos fragmentos,
+                                  DisponibilidadProperties propiedades, MeterRegistry registro) {
+        this.participanteRepo = participanteRepo;
+        this.fragmentos = fragmentos;
+        this.autoritativo = propiedades.isInstanciaUnica() && fragmentos.numero() == 1;
+        this.filtro = new FiltroBloom(propiedades.getCapacidadInicial(), propiedades.getProbabilidadFalsoPositivo());
+        Gauge.builder("gestioneventos.disponibilidad.falsos-positivos.estimados", filtro, FiltroBloom::probabilidadFalsoPositivo)
+                .description("Probabilidad de falso positivo del filtro de usuarios con los que tiene")
+                .register(registro);
+        Gauge.builder("gestioneventos.disponibilidad.falsos-positivos", this, DisponibilidadUsuarios::falsosPositivos)
+                .description("Fracción de usuarios libres que el filtro no descartó y hubo que consultar")
+                .register(registro);
+        this.filtroLibre = consultas("filtro-libre", registro);
+        this.bdLibre = consultas("bd-libre", registro);
+        this.bdOcupado = consultas("bd-ocupado", registro);
+    }
+
+    // Tras los datos de ejemplo (DataInitializer), como Autocompletado
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        fragmentos.reunir(participanteRepo::usuarios).forEach(l -> l.forEach(filtro::anadir));
+        listo = true;
+        log.info("Filtro de usuarios: {} usuarios, {} etapas, {} KiB", filtro.elementos(), filtro.etapas(),
+                filtro.bits() / 8 / 1024);
+    }
+
+    // false sólo si el usuario seguro que no está registrado en ninguna instancia ni fragmento;
+    // true obliga a comprobarlo en la base
+    public boolean puedeExistir(String usuario) {
+        return !autoritativo || !listo || filtro.puedeContener(usuario);
+    }
+
+    public boolean disponible(String usuario) {
+        if (listo && !filtro.puedeContener(usuario)) {
+            filtroLibre.increment();
+            return true;
+        }
+        boolean ocupado = fragmentos.reunir(() -> participanteRepo.existsByUsuario(usuario)).contains(true);
+        (ocupado ? bdOcupado : bdLibre).increment();
+        return !ocupado;
+    }
+
+    // Antes de confirmar el alta: si la transacción se deshace el usuario sólo queda como falso positivo
+    public void registrar(String usuario) {
+        filtro.anadir(usuario);
+    }
+
+    double falsosPositivos() {
+        double libres = filtroLibre.count() + bdLibre.count();
+        return libres == 0 ? 0 : bdLibre.count() / libres;
+    }
+
+    private static Counter consultas(String resultado, MeterRegistry registro) {
+        return Counter.builder("gestioneventos.disponibilidad.consultas")
+                .description("Consultas de disponibilidad de usuario por cómo se resolvieron")
+                .tag("resultado", resultado)
+                .register(registro);
+    }
+}
@@ -1,70 +1,239 @@
 package daw2a.gestioneventos.servicio;
 
 import daw2a.gestioneventos.dominio.Evento;
+import daw2a.gestioneventos.dominio.EventoArchivado;
 import daw2a.gestioneventos.dominio.Organizador;
+import daw2a.gestioneventos.dto.CambioDTO;
+import daw2a.gestioneventos.dto.EliminacionEventoDTO;
 import daw2a.gestioneventos.dto.EventoRequestDTO;
 import daw2a.gestioneventos.dto.EventoResponseDTO;
+import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import daw2a.gestioneventos.dto.TipoCambio;
+import daw2a.gestioneventos.dto.VentanaDTO;
+import daw2a.gestioneventos.exception.CambioDeFragmentoException;
 import daw2a.gestioneventos.exception.EventoDuplicadoException;
 import daw2a.gestioneventos.exception.EventoNoEncontradoException;
 import daw2a.gestioneventos.exception.OrganizadorNotFoundException;
 import daw2a.gestioneventos.mapper.EventoMapper;
+import daw2a.gestioneventos.repo.CampoProyectado;
+import daw2a.gestioneventos.repo.EventoArchivadoRepo;
 import daw2a.gestioneventos.repo.EventoRepo;
+import daw2a.gestioneventos.repo.Fragmentos;
+import daw2a.gestioneventos.repo.LoteRepo;
 import daw2a.gestioneventos.repo.OrganizadorRepo;
+import daw2a.gestioneventos.repo.ParticipanteRepo;
+import daw2a.gestioneventos.repo.ProyeccionRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Service
+@Transactional(readOnly = true)
 public class EventoServicio {
+    // Cuánto se recuerda que un evento no existe (ver VueloUnico)
+    static final Duration NO_ENCONTRADO_TTL = Duration.ofSeconds(2);
+
     private final EventoRepo eventoRepo;
     private final OrganizadorRepo organizadorRepo;
-    public EventoServicio(EventoRepo eventoRepo, OrganizadorRepo organizadorRepo) {
+    private final ProyeccionRepo proyeccionRepo;
+    private final LoteRepo loteRepo;
+    private final ParticipanteRepo participanteRepo;
+    private final ApplicationEventPublisher publicador;
+    private final Fragmentos fragmentos;
+    private final EventoArchivadoRepo eventoArchivadoRepo;
+    private final VueloUnico<Long, EventoResponseDTO> vuelosPorId =
+            new VueloUnico<>(NO_ENCONTRADO_TTL, EventoNoEncontradoException.class);
+    private final VueloUnico<String, EventoResponseDTO> vuelosPorNombre =
+            new VueloUnico<>(NO_ENCONTRADO_TTL, EventoNoEncontradoException.class);
+    public EventoServicio(EventoRepo eventoRepo, OrganizadorRepo organizadorRepo, ProyeccionRepo proyeccionRepo,
+                          LoteRepo loteRepo, ParticipanteRepo participanteRepo, ApplicationEventPublisher publicador,
+                          Fragmentos fragmentos, EventoArchivadoRepo eventoArchivadoRepo) {
         this.eventoRepo = eventoRepo;
         this.organizadorRepo = organizadorRepo;
+        this.proyeccionRepo = proyeccionRepo;
+        this.loteRepo = loteRepo;
+        this.participanteRepo = participanteRepo;
+        this.publicador = publicador;
+        this.fragmentos = fragmentos;
+        this.eventoArchivadoRepo = eventoArchivadoRepo;
     }
 
     public Page<EventoResponseDTO> listarEventos(Pageable pageable){
-        Page<EventoResponseDTO> eventos = eventoRepo.findAll(pageable)
+        Page<EventoResponseDTO> eventos = fragmentos.reunirPagina(pageable, eventoRepo::findAll, Fragmentos::propiedad)
                 .map(EventoMapper::toDTO);
         return eventos;
     }
 
+    // Con incluirArchivados, la página sale de mezclar la de los vivos y la de los archivados
+    public Page<EventoResponseDTO> listarEventos(Pageable pageable, boolean incluirArchivados){
+        if (!incluirArchivados) {
+            return listarEventos(pageable);
+        }
+        Pageable primeras = Fragmentos.primeras(pageable);
+        Page<Evento> vivos = fragmentos.reunirPagina(primeras, eventoRepo::findAll, Fragmentos::propiedad);
+        Page<Evento> archivados = fragmentos.reunirPagina(primeras, eventoArchivadoRepo::findAll, Fragmentos::propiedad)
+                .map(EventoArchivado::aEvento);
+        return Fragmentos.mezclar(pageable, List.of(vivos, archivados), Fragmentos::propiedad)
+                .map(EventoMapper::toDTO);
+    }
+
+    // Versión con ?fields=: sólo se seleccionan las columnas de los campos pedidos
+    public Page<Map<String, Object>> listarEventos(Pageable pageable, List<String> campos){
+        return fragmentos.reunirPagina(pageable,
+                p -> proyeccionRepo.listar(Evento.class, CampoProyectado.seleccionar(EventoMapper.CAMPOS, campos), p),
+                Map::get);
+    }
+
+    // Con archivados no se proyecta: se leen los campos de la página completa
+    public Page<Map<String, Object>> listarEventos(Pageable pageable, List<String> campos, boolean incluirArchivados){
+        if (!incluirArchivados) {
+            return listarEventos(pageable, campos);
+        }
+        List<CampoProyectado<Evento>> seleccion = CampoProyectado.seleccionar(EventoMapper.CAMPOS, campos);
+        return listarEventos(pageable, true).map(e -> CampoProyectado.leer(seleccion, e));
+    }
+
+    // Eventos cuyo nombre contiene el texto, de todos los fragmentos, por id
+    public List<EventoResponseDTO> buscarEventos(String texto){
+        return buscarEventos(texto, false);
+    }
+
+    public List<EventoResponseDTO> buscarEventos(String texto, boolean incluirArchivados){
+        Stream<Evento> vivos = fragmentos.reunir(() -> eventoRepo.findByNombreContainingIgnoreCase(texto)).stream()
+                .flatMap(List::stream);
+        Stream<Evento> archivados = incluirArchivados
+                ? fragmentos.reunir(() -> eventoArchivadoRepo.findByNombreContainingIgnoreCase(texto)).stream()
+                        .flatMap(List::stream)
+                        .map(EventoArchivado::aEvento)
+                : Stream.empty();
+        return Stream.concat(vivos, archivados)
+                .sorted(Comparator.comparing(Evento::getId))
+                .map(EventoMapper::toDTO)
+                .toList();
+    }
+
+    // Las búsquedas simultáneas del mismo evento comparten una única carga (VueloUnico). Sin
+    // transacción propia: quien espera a otra carga no debe tener ocupada una conexión; la
+    // carga usa la del repositorio y devuelve ya el DTO, que se puede compartir entre hilos
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public EventoResponseDTO obtenEventoPorId(Long id){
-        Evento evento = eventoRepo.findById(id)
-                         .orElseThrow(() -> new EventoNoEncontradoException(id));
-        return EventoMapper.toDTO(evento);
+        return vuelosPorId.obtener(id, () -> {
+            // Si ya no está entre los vivos, puede estar archivado
+            return fragmentos.en(Fragmentos.deId(id), () -> eventoRepo.findById(id)
+                    .map(EventoMapper::toDTO)
+                    .or(() -> archivado(id))
+                    .orElseThrow(() -> new EventoNoEncontradoException(id)));
+        });
     }
-    public EventoResponseDTO obtenEventoPorNombre(String nombre){
-        Evento evento = eventoRepo.findByNombre(nombre);
-        if (evento  == null) {
-            throw new EventoNoEncontradoException(nombre);
+    // Varios eventos por id en una sola petición; los que no existen no aparecen
+    public List<EventoResponseDTO> obtenEventosPorIds(List<Long> ids){
+        return fragmentos.porIds(ids, this::cargarConArchivados, Evento::getId).stream()
+                .map(EventoMapper::toDTO)
+                .toList();
+    }
+
+    // Los vivos y, sólo para los ids que falten, los archivados; en el orden de ids
+    private List<Evento> cargarConArchivados(List<Long> ids) {
+        Map<Long, Evento> porId = new HashMap<>();
+        loteRepo.cargar(Evento.class, ids).forEach(e -> porId.put(e.getId(), e));
+        List<Long> faltan = ids.stream().distinct().filter(id -> !porId.containsKey(id)).toList();
+        if (!faltan.isEmpty()) {
+            loteRepo.cargar(EventoArchivado.class, faltan).forEach(e -> porId.put(e.getId(), e.aEvento()));
         }
-        return EventoMapper.toDTO(evento);
+        return ids.stream().distinct().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    private Optional<EventoResponseDTO> archivado(Long id) {
+        return eventoArchivadoRepo.findById(id).map(EventoArchivado::aEvento).map(EventoMapper::toDTO);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EventoResponseDTO obtenEventoPorNombre(String nombre){
+        return vuelosPorNombre.obtener(nombre, () -> {
+            // El nombre no dice el fragmento: se pregunta a todos
+            Evento evento = fragmentos.reunir(() -> eventoRepo.findByNombre(nombre)).stream()
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(null);
+            if (evento  == null) {
+                throw new EventoNoEncontradoException(nombre);
+            }
+            return EventoMapper.toDTO(evento);
+        });
+    }
+
+    public Map<String, Object> obtenEventoPorId(Long id, List<String> campos){
+        List<CampoProyectado<Evento>> seleccion = CampoProyectado.seleccionar(EventoMapper.CAMPOS, campos);
+        return fragmentos.en(Fragmentos.deId(id), () -> proyeccionRepo.buscarPor(Evento.class, seleccion, "id", id)
+                        .or(() -> archivado(id).map(e -> CampoProyectado.leer(seleccion, e))))
+                .orElseThrow(() -> new EventoNoEncontradoException(id));
+    }
+
+    public Map<String, Object> obtenEventoPorNombre(String nombre, List<String> campos){
+        return fragmentos.reunir(() -> proyeccionRepo.buscarPor(Evento.class,
+                        CampoProyectado.seleccionar(EventoMapper.CAMPOS, campos), "nombre", nombre)).stream()
+                .flatMap(Optional::stream)
+                .findFirst()
+                .orElseThrow(() -> new EventoNoEncontradoException(nombre));
     }
 
+    // El evento va al fragmento de su organizador
+    @Transactional
     public EventoResponseDTO crearEvento(EventoRequestDTO dto){
-        // Validar si el evento ya existe por nombre
-        if(eventoRepo.existsByNombre(dto.getNombre())){
+        // Validar si el evento ya existe por nombre (en cualquier fragmento)
+        if(fragmentos.reunir(() -> eventoRepo.existsByNombre(dto.getNombre())).contains(true)){
             throw new EventoDuplicadoException(dto.getNombre());
         }
-        //Validiar si el organizador existe
-        Organizador organizador = organizadorRepo.findById(dto.getOrganizadorId())
-                .orElseThrow(() -> new OrganizadorNotFoundException(dto.getOrganizadorId()));
-        // Mapear DTO a entidad
-        Evento evento = EventoMapper.toEntity(dto);
-        evento.setOrganizador(organizador); 
+        return fragmentos.en(fragmentos.deOrganizador(dto.getOrganizadorId()), () -> {
+            //Validiar si el organizador existe
+            Organizador organizador = organizadorRepo.findById(dto.getOrganizadorId())
+                    .orElseThrow(() -> new OrganizadorNotFoundException(dto.getOrganizadorId()));
+            // Mapear DTO a entidad
+            Evento evento = EventoMapper.toEntity(dto);
+            evento.setOrganizador(organizador);
 
-        // Guardar y devolver el evento
-        Evento guardado = eventoRepo.save(evento);
-        return EventoMapper.toDTO(guardado);
+            // Guardar y devolver el evento
+            Evento guardado = eventoRepo.save(evento);
+            olvidarNoEncontradoTrasCommit(guardado.getId(), guardado.getNombre());
+            EventoResponseDTO creado = EventoMapper.toDTO(guardado);
+            publicador.publishEvent(CambioDTO.evento(TipoCambio.CREADO, creado));
+            return creado;
+        });
     }
 
+    // El evento se queda en el fragmento de su id. Tras añadir un fragmento el anillo puede
+    // llevar a su organizador a otro sin que se muevan los datos, así que el organizador sólo
+    // cuenta si se cambia: no puede pasar a uno de otro fragmento
+    @Transactional
     public EventoResponseDTO actualizarEvento(Long id, EventoRequestDTO dto) {
+        int fragmento = Fragmentos.deId(id);
+        return fragmentos.en(fragmento, () -> actualizar(id, fragmento, dto));
+    }
+
+    private EventoResponseDTO actualizar(Long id, int fragmento, EventoRequestDTO dto) {
         // Buscar el evento existente
         Evento existente = eventoRepo.findById(id).orElseThrow(()-> new EventoNoEncontradoException(id));
+        Long organizadorActual = existente.getOrganizador() != null ? existente.getOrganizador().getId() : null;
+        if (!Objects.equals(organizadorActual, dto.getOrganizadorId())
+                && fragmentos.deOrganizador(dto.getOrganizadorId()) != fragmento) {
+            throw new CambioDeFragmentoException(id, dto.getOrganizadorId());
+        }
 
         // Validar si el organizador existe
         Organizador organizador = organizadorRepo.findById(dto.getOrganizadorId())
@@ -76,7 +245,29 @@ public class EventoServicio {
 
         // Actualizar participantes
         Evento actualizado = eventoRepo.save(existente);
-        return EventoMapper.toDTO(actualizado);
+        olvidarNoEncontradoTrasCommit(id, actualizado.getNombre());
+        EventoResponseDTO respuesta = EventoMapper.toDTO(actualizado);
+        publicador.publishEvent(CambioDTO.evento(TipoCambio.ACTUALIZADO, respuesta));
+        return respuesta;
+    }
+
+    // Un evento recién creado o renombrado deja de ser "no encontrado" al confirmarse; antes
+    // del commit los demás todavía no lo ven, así que tampoco se olvida antes
+    private void olvidarNoEncontradoTrasCommit(Long id, String nombre) {
+        Runnable olvidar = () -> {
+            vuelosPorId.invalidar(id);
+            vuelosPorNombre.invalidar(nombre);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            olvidar.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                olvidar.run();
+            }
+        });
     }
 
     private void actualizaCamposBasicos(EventoRequestDTO evento, Evento eventoActualizado) {
@@ -87,11 +278,48 @@ public class EventoServicio {
     }
 
 
-    public void eliminarEvento(Long id) {
-        Evento evento = eventoRepo.findById(id)
-                .orElseThrow(() -> new EventoNoEncontradoException(id));
-        eventoRepo.delete(evento);
+    // Borrado lógico con dos UPDATE por conjuntos (participantes y evento): la llamada no depende
+    // del número de participantes. Las filas dejan de verse (@SQLRestriction) y PurgadoEliminados
+    // las borra físicamente en segundo plano. Las consultas masivas vacían el contexto de
+    // persistencia y Hibernate invalida las regiones de caché de Evento y Participante.
+    @Transactional
+    public EliminacionEventoDTO eliminarEvento(Long id) {
+        return fragmentos.en(Fragmentos.deId(id), () -> eliminar(id));
+    }
+
+    private EliminacionEventoDTO eliminar(Long id) {
+        int participantes = participanteRepo.marcarEliminadosPorEvento(id);
+        if (eventoRepo.marcarEliminado(id) == 0) {
+            // Deshace la marca de participantes (no debería haber ninguno)
+            throw new EventoNoEncontradoException(id);
+        }
+        publicador.publishEvent(CambioDTO.evento(TipoCambio.ELIMINADO, id));
+        return new EliminacionEventoDTO(id, participantes);
     }
-}
 
+    // Participantes del evento por clave, con filtro opcional por el principio del nombre (sin
+    // distinguir mayúsculas); sin despues, desde el principio y con el total
+    public VentanaDTO<ParticipanteResponseDTO> listarParticipantes(Long id, Long despues, String prefijo, int tamano){
+        return fragmentos.en(Fragmentos.deId(id), () -> ventanaParticipantes(id, despues, prefijo, tamano));
+    }
 
+    private VentanaDTO<ParticipanteResponseDTO> ventanaParticipantes(Long id, Long despues, String prefijo, int tamano){
+        if (!eventoRepo.existsById(id)) {
+            throw new EventoNoEncontradoException(id);
+        }
+        int limite = Math.clamp(tamano, 1, VentanaDTO.MAXIMO);
+        String patron = prefijo == null || prefijo.isBlank() ? null : patronPrefijo(prefijo);
+        List<ParticipanteResponseDTO> participantes = participanteRepo.ventanaPorEvento(id,
+                despues != null ? despues : Long.MIN_VALUE, patron, Limit.of(limite));
+        Long siguiente = participantes.size() == limite ? participantes.getLast().getId() : null;
+        Long total = despues == null ? participanteRepo.contarPorEvento(id, patron) : null;
+        return new VentanaDTO<>(participantes, limite, siguiente, total);
+    }
+
+    private static String patronPrefijo(String prefijo) {
+        return prefijo.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+}
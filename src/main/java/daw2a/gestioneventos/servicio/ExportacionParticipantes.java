@@ -0,0 +1,127 @@
+package daw2a.gestioneventos.servicio;
+
+import daw2a.gestioneventos.exception.CampoNoValidoException;
+import daw2a.gestioneventos.exception.EventoNoEncontradoException;
+import daw2a.gestioneventos.repo.Fragmentos;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Lista de asistentes de un evento en CSV o XLSX (GET /api/v1/eventos/{id}/participantes/export)
+// con memoria acotada por grande que sea el evento: un cursor JDBC de sólo avance, que trae
+// FILAS_POR_LECTURA filas por viaje, y cada fila se escribe al momento en la salida. Sin
+// entidades, DTO, Page ni listas intermedias. Los asistentes de un evento archivado (ver
+// ArchivadoEventos) salen de participante_archivado.
+//
+// El controlador llama a comprobar antes de empezar a responder (un 404 ya no se puede enviar
+// con la descarga empezada) y escribir se ejecuta después, en el hilo de la respuesta asíncrona
+// (EventoControlador fija allí el compartimento de lecturas para que el cursor salga de su pool).
+@Component
+public class ExportacionParticipantes {
+    static final int FILAS_POR_LECTURA = 1000;
+
+    private static final String EVENTO = "select count(*) from evento where id = ? and eliminado = false";
+    private static final String EVENTO_ARCHIVADO = "select count(*) from evento_archivado where id = ?";
+    private static final String ASISTENTES = "select id, nombre, usuario from participante "
+            + "where evento_id = ? and eliminado = false order by id";
+    private static final String ASISTENTES_ARCHIVADOS = "select id, nombre, usuario from participante_archivado "
+            + "where evento_id = ? order by id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate lectura;
+    private final Fragmentos fragmentos;
+
+    public ExportacionParticipantes(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                    Fragmentos fragmentos) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Algunos drivers (PostgreSQL) sólo respetan el fetchSize dentro de una transacción
+        this.lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+        this.fragmentos = fragmentos;
+    }
+
+    // Lanza EventoNoEncontradoException si el evento no existe, ni vivo ni archivado
+    public void comprobar(Long eventoId) {
+        boolean existe = fragmentos.en(Fragmentos.deId(eventoId),
+                () -> existe(EVENTO, eventoId) || existe(EVENTO_ARCHIVADO, eventoId));
+        if (!existe) {
+            throw new EventoNoEncontradoException(eventoId);
+        }
+    }
+
+    // Si la lectura falla a mitad la excepción sale sin terminar la hoja: la respuesta se corta y
+    // el cliente ve una descarga rota, no un fichero válido con parte de los asistentes
+    public void escribir(Long eventoId, Formato formato, OutputStream salida) throws IOException {
+        HojaExportacion hoja = formato.abrir(salida);
+        try {
+            hoja.fila("id", "nombre", "usuario");
+            fragmentos.ejecutarEn(Fragmentos.deId(eventoId), () -> lectura.executeWithoutResult(estado -> {
+                String consulta = existe(EVENTO, eventoId) ? ASISTENTES : ASISTENTES_ARCHIVADOS;
+                jdbcTemplate.query(conexion -> {
+                    PreparedStatement sentencia = conexion.prepareStatement(consulta,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    sentencia.setFetchSize(FILAS_POR_LECTURA);
+                    sentencia.setLong(1, eventoId);
+                    return sentencia;
+                }, (RowCallbackHandler) fila -> {
+                    try {
+                        hoja.fila(fila.getLong(1), fila.getString(2), fila.getString(3));
+                    } catch (IOException e) {
+                        // p. ej. el cliente ha cortado la descarga: se deja de leer
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        hoja.terminar();
+    }
+
+    private boolean existe(String consulta, Long id) {
+        Long filas = jdbcTemplate.queryForObject(consulta, Long.class, id);
+        return filas != null && filas > 0;
+    }
+
+    public enum Formato {
+        CSV(MediaType.parseMediaType("text/csv;charset=UTF-8")),
+        XLSX(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+
+        private final MediaType tipo;
+
+        Formato(MediaType tipo) {
+            this.tipo = tipo;
+        }
+
+        public MediaType tipo() {
+            return tipo;
+        }
+
+        public String extension() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        HojaExportacion abrir(OutputStream salida) throws IOException {
+            return this == CSV ? new HojaCsv(salida) : new HojaXlsx(salida, "Participantes");
+        }
+
+        public static Formato de(String nombre) {
+            return Arrays.stream(values())
+                    .filter(f -> f.extension().equalsIgnoreCase(nombre))
+                    .findFirst()
+                    .orElseThrow(() -> new CampoNoValidoException(nombre,
+                            Arrays.stream(values()).map(Formato::extension).toList()));
+        }
+    }
+}
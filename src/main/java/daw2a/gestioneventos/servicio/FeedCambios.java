@@ -0,0 +1,109 @@
+package daw2a.gestioneventos.servicio;
+
+import daw2a.gestioneventos.config.CambiosProperties;
+import daw2a.gestioneventos.dto.CambioDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Anillo compartido con los últimos cambios confirmados, numerados con una secuencia creciente.
+// Los escritores sólo guardan el cambio en su hueco y despiertan a los lectores; nunca esperan
+// a un suscriptor. Cada suscriptor lleva su propio cursor (la última secuencia que ha visto) y
+// lee sin bloqueo; si el anillo le ha dado la vuelta, la lectura se marca como perdida y quien
+// lee decide (CambiosControlador desconecta al suscriptor lento).
+//
+// Los servicios publican CambioDTO con ApplicationEventPublisher; aquí sólo llegan tras el
+// commit, así que nunca se anuncia un cambio que luego se deshace. El feed es sólo de eventos y
+// participantes: los cambios de organizadores van al diario (DiarioCambios) pero aquí se ignoran.
+@Component
+public class FeedCambios {
+    private static final Set<String> ENTIDADES = Set.of(CambioDTO.EVENTO, CambioDTO.PARTICIPANTE);
+
+    private final Entrada[] anillo;
+    private final ReentrantLock candado = new ReentrantLock();
+    private final Condition nuevos = candado.newCondition();
+    // Secuencia del último cambio publicado; 0 si todavía no hay ninguno
+    private volatile long ultimo;
+
+    public FeedCambios(CambiosProperties propiedades) {
+        this.anillo = new Entrada[propiedades.getCapacidad()];
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publicar(CambioDTO cambio) {
+        if (!ENTIDADES.contains(cambio.getEntidad())) {
+            return;
+        }
+        candado.lock();
+        try {
+            long secuencia = ultimo + 1;
+            anillo[hueco(secuencia)] = new Entrada(secuencia, cambio);
+            ultimo = secuencia;
+            nuevos.signalAll();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    public long ultimo() {
+        return ultimo;
+    }
+
+    // true si todos los cambios posteriores a visto siguen en el anillo
+    public boolean disponible(long visto) {
+        long actual = ultimo;
+        return visto >= 0 && visto <= actual && actual - visto <= anillo.length;
+    }
+
+    // Hasta max cambios posteriores a visto, en orden
+    public Lectura leer(long visto, int max) {
+        long actual = ultimo;
+        if (!disponible(visto)) {
+            return Lectura.PERDIDA;
+        }
+        List<Entrada> entradas = new ArrayList<>((int) Math.min(max, actual - visto));
+        for (long s = visto + 1; s <= actual && entradas.size() < max; s++) {
+            Entrada entrada = anillo[hueco(s)];
+            // Un escritor ya ha reutilizado el hueco mientras leíamos
+            if (entrada.secuencia() != s) {
+                return Lectura.PERDIDA;
+            }
+            entradas.add(entrada);
+        }
+        return new Lectura(entradas, false);
+    }
+
+    // Espera a que haya cambios posteriores a visto; false si vence el plazo sin ninguno
+    public boolean esperar(long visto, Duration plazo) throws InterruptedException {
+        long nanos = plazo.toNanos();
+        candado.lock();
+        try {
+            while (ultimo <= visto) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = nuevos.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    private int hueco(long secuencia) {
+        return (int) (secuencia % anillo.length);
+    }
+
+    public record Entrada(long secuencia, CambioDTO cambio) {
+    }
+
+    public record Lectura(List<Entrada> entradas, boolean perdida) {
+        static final Lectura PERDIDA = new Lectura(List.of(), true);
+    }
+}
@@ -0,0 +1,146 @@
+package daw2a.gestioneventos.servicio;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom escalable (Almeida et al., 2007): dice "seguro que no está" o "puede estar".
+// Empieza con una etapa para capacidadInicial elementos; al llenarse se añade otra el doble de
+// grande y con la mitad de probabilidad de falso positivo, así que la probabilidad total no pasa
+// de probabilidadObjetivo por muchos elementos que se añadan.
+//
+// Añadir y consultar no bloquean (los bits son un AtomicLongArray); sólo se sincroniza la creación
+// de etapas. Un elemento añadido lo ve cualquier consulta posterior, de cualquier hilo. No se
+// pueden quitar elementos.
+public class FiltroBloom {
+    private static final double LN2 = Math.log(2);
+
+    private final List<Etapa> etapas = new CopyOnWriteArrayList<>();
+
+    public FiltroBloom(int capacidadInicial, double probabilidadObjetivo) {
+        // Etapa i: probabilidad p·(1/2)^(i+1); la suma de todas queda por debajo de p
+        etapas.add(new Etapa(capacidadInicial, probabilidadObjetivo / 2));
+    }
+
+    public void anadir(String valor) {
+        if (puedeContener(valor)) {
+            // Ya responde "puede estar": añadirlo otra vez sólo gastaría capacidad
+            return;
+        }
+        long hash = hash(valor);
+        Etapa ultima = etapas.getLast();
+        if (ultima.llena()) {
+            ultima = crecer(ultima);
+        }
+        ultima.anadir(hash);
+    }
+
+    public boolean puedeContener(String valor) {
+        long hash = hash(valor);
+        for (Etapa etapa : etapas) {
+            if (etapa.contiene(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Probabilidad de falso positivo con lo que hay ahora: 1 - Π(1 - p de cada etapa)
+    public double probabilidadFalsoPositivo() {
+        double ninguna = 1;
+        for (Etapa etapa : etapas) {
+            ninguna *= 1 - etapa.probabilidadFalsoPositivo();
+        }
+        return 1 - ninguna;
+    }
+
+    public long elementos() {
+        return etapas.stream().mapToLong(e -> e.elementos.get()).sum();
+    }
+
+    public int etapas() {
+        return etapas.size();
+    }
+
+    public long bits() {
+        return etapas.stream().mapToLong(e -> e.m).sum();
+    }
+
+    private synchronized Etapa crecer(Etapa llena) {
+        Etapa ultima = etapas.getLast();
+        if (ultima != llena) {
+            // Otro hilo ya ha creado la siguiente
+            return ultima;
+        }
+        Etapa nueva = new Etapa(llena.capacidad * 2, llena.probabilidad / 2);
+        etapas.add(nueva);
+        return nueva;
+    }
+
+    // FNV-1a de 64 bits sobre UTF-8, con la mezcla final de splitmix64
+    static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
+    private static final class Etapa {
+        private final int capacidad;
+        private final double probabilidad;
+        private final long m;
+        private final int k;
+        private final AtomicLongArray bits;
+        private final AtomicInteger elementos = new AtomicInteger();
+
+        Etapa(int capacidad, double probabilidad) {
+            this.capacidad = capacidad;
+            this.probabilidad = probabilidad;
+            // Tamaño y número de funciones óptimos para capacidad elementos con esa probabilidad
+            long palabras = Math.max(1, (long) Math.ceil(-capacidad * Math.log(probabilidad) / (LN2 * LN2) / 64));
+            this.m = palabras * 64;
+            this.k = Math.max(1, (int) Math.round((double) m / capacidad * LN2));
+            this.bits = new AtomicLongArray(Math.toIntExact(palabras));
+        }
+
+        boolean llena() {
+            return elementos.get() >= capacidad;
+        }
+
+        void anadir(long hash) {
+            for (int i = 0; i < k; i++) {
+                long bit = posicion(hash, i);
+                long mascara = 1L << bit;
+                bits.getAndAccumulate((int) (bit >>> 6), mascara, (actual, nuevo) -> actual | nuevo);
+            }
+            elementos.incrementAndGet();
+        }
+
+        boolean contiene(long hash) {
+            for (int i = 0; i < k; i++) {
+                long bit = posicion(hash, i);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Doble hash (Kirsch-Mitzenmacher): h1 + i·h2 con las dos mitades del hash
+        private long posicion(long hash, int i) {
+            long h1 = hash & 0xffffffffL;
+            long h2 = hash >>> 32;
+            return Math.floorMod(h1 + i * h2, m);
+        }
+
+        double probabilidadFalsoPositivo() {
+            return Math.pow(1 - Math.exp(-(double) k * elementos.get() / m), k);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package daw2a.gestioneventos.servicio;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// CSV (RFC 4180: comas, CRLF, comillas dobles duplicadas) en UTF-8 con BOM, para que Excel
+// reconozca las tildes al abrirlo
+public class HojaCsv implements HojaExportacion {
+    private final Writer escritor;
+
+    public HojaCsv(OutputStream salida) throws IOException {
+        this.escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANO_BUFFER);
+        escritor.write('\uFEFF');
+    }
+
+    @Override
+    public void fila(Object... celdas) throws IOException {
+        for (int i = 0; i < celdas.length; i++) {
+            if (i > 0) {
+                escritor.write(',');
+            }
+            escritor.write(celda(celdas[i]));
+        }
+        escritor.write("\r\n");
+    }
+
+    @Override
+    public void terminar() throws IOException {
+        escritor.flush();
+    }
+
+    static String celda(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor instanceof Number) {
+            return valor.toString();
+        }
+        String texto = valor.toString();
+        // Un texto que empieza por =, +, - o @ sería una fórmula en la hoja de cálculo
+        if (!texto.isEmpty() && "=+-@\t\r".indexOf(texto.charAt(0)) >= 0) {
+            texto = "'" + texto;
+        }
+        if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0 || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+            return '"' + texto.replace("\"", "\"\"") + '"';
+        }
+        return texto;
+    }
+}
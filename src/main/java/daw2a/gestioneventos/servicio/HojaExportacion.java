@@ -0,0 +1,17 @@
+package daw2a.gestioneventos.servicio;
+
+import java.io.IOException;
+
+// Destino de una exportación fila a fila (HojaCsv, HojaXlsx). Cada fila se escribe al momento en
+// la salida, que no se cierra al terminar la hoja: es de quien la abrió (p. ej. la respuesta HTTP).
+// Si la exportación falla no se llama a terminar: el fichero se queda a medias (un zip sin índice)
+// en lugar de parecer completo con menos filas
+public interface HojaExportacion {
+    int TAMANO_BUFFER = 64 * 1024;
+
+    // Celdas de tipo Number se escriben como números; el resto, con toString(); null, vacía
+    void fila(Object... celdas) throws IOException;
+
+    // Tras la última fila: escribe el cierre del formato y vacía el buffer
+    void terminar() throws IOException;
+}
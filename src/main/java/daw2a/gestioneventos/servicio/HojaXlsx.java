@@ -0,0 +1,116 @@
+package daw2a.gestioneventos.servicio;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Libro .xlsx (Office Open XML) de una sola hoja, escrito en streaming: las partes fijas del
+// paquete van al principio y después cada fila se añade a xl/worksheets/sheet1.xml según llega,
+// con los textos en línea (inlineStr) para no tener que guardar una tabla de cadenas compartidas.
+// Sin estilos ni fórmulas: lo mínimo que abren Excel, LibreOffice y Google Sheets.
+public class HojaXlsx implements HojaExportacion {
+    private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String TIPOS = XML
+            + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+            + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+            + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+            + "<Override PartName=\"/xl/workbook.xml\" "
+            + "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+            + "<Override PartName=\"/xl/worksheets/sheet1.xml\" "
+            + "ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+            + "</Types>";
+    private static final String RELACIONES = XML
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+            + "<Relationship Id=\"rId1\" "
+            + "Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" "
+            + "Target=\"xl/workbook.xml\"/></Relationships>";
+    private static final String RELACIONES_LIBRO = XML
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+            + "<Relationship Id=\"rId1\" "
+            + "Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" "
+            + "Target=\"worksheets/sheet1.xml\"/></Relationships>";
+
+    private final ZipOutputStream zip;
+    private final Writer hoja;
+    private long filas;
+
+    public HojaXlsx(OutputStream salida, String nombreHoja) throws IOException {
+        this.zip = new ZipOutputStream(salida, StandardCharsets.UTF_8);
+        // Se comprime mientras se escribe la respuesta: prima la velocidad sobre el tamaño
+        zip.setLevel(Deflater.BEST_SPEED);
+        this.hoja = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), TAMANO_BUFFER);
+        parte("[Content_Types].xml", TIPOS);
+        parte("_rels/.rels", RELACIONES);
+        parte("xl/workbook.xml", XML
+                + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+                + "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+                + "<sheets><sheet name=\"" + escapar(nombreHoja) + "\" sheetId=\"1\" r:id=\"rId1\"/></sheets>"
+                + "</workbook>");
+        parte("xl/_rels/workbook.xml.rels", RELACIONES_LIBRO);
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        hoja.write(XML + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+    }
+
+    @Override
+    public void fila(Object... celdas) throws IOException {
+        hoja.write("<row r=\"");
+        hoja.write(Long.toString(++filas));
+        hoja.write("\">");
+        for (Object celda : celdas) {
+            if (celda == null) {
+                hoja.write("<c/>");
+            } else if (celda instanceof Number numero) {
+                hoja.write("<c><v>");
+                hoja.write(numero.toString());
+                hoja.write("</v></c>");
+            } else {
+                hoja.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                hoja.write(escapar(celda.toString()));
+                hoja.write("</t></is></c>");
+            }
+        }
+        hoja.write("</row>");
+    }
+
+    // Cierra la hoja y escribe el índice del zip; la salida sigue abierta
+    @Override
+    public void terminar() throws IOException {
+        hoja.write("</sheetData></worksheet>");
+        hoja.flush();
+        zip.closeEntry();
+        zip.finish();
+    }
+
+    private void parte(String nombre, String contenido) throws IOException {
+        zip.putNextEntry(new ZipEntry(nombre));
+        hoja.write(contenido);
+        hoja.flush();
+        zip.closeEntry();
+    }
+
+    // Entidades de XML; los caracteres de control no son válidos en XML 1.0 y se omiten
+    static String escapar(String texto) {
+        StringBuilder resultado = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '&' -> resultado.append("&amp;");
+                case '<' -> resultado.append("&lt;");
+                case '>' -> resultado.append("&gt;");
+                case '"' -> resultado.append("&quot;");
+                default -> {
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        resultado.append(c);
+                    }
+                }
+            }
+        }
+        return resultado.toString();
+    }
+}
@@ -0,0 +1,183 @@
+package daw2a.gestioneventos.servicio;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import daw2a.gestioneventos.config.IngestaProperties;
+import daw2a.gestioneventos.dto.EstadoIngesta;
+import daw2a.gestioneventos.dto.ParticipanteRequestDTO;
+import daw2a.gestioneventos.dto.ResultadoAltaDTO;
+import daw2a.gestioneventos.dto.TicketIngestaDTO;
+import daw2a.gestioneventos.exception.ColaIngestaLlenaException;
+import daw2a.gestioneventos.exception.TicketNoEncontradoException;
+import daw2a.gestioneventos.repo.Fragmentos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Alta asíncrona de participantes para los picos de apertura de inscripciones.
+// La petición ya validada entra en una cola acotada y se responde al momento con un ticket;
+// un único hilo escritor vacía la cola en lotes de hasta tamanoLote altas, cada lote en una
+// transacción (ParticipanteServicio.crearParticipantes), así que la ingesta ocupa como mucho
+// una conexión del pool por muchas peticiones que lleguen. Con la cola llena se rechaza (429).
+//
+// Si el lote completo falla (p. ej. un usuario dado de alta a la vez por la vía síncrona),
+// se reintenta alta a alta para que sólo se rechacen las que fallan.
+//
+// Métricas: gestioneventos.ingesta.cola (altas en cola), gestioneventos.ingesta.rechazadas
+// (peticiones rechazadas por cola llena) y gestioneventos.ingesta.lote (duración de cada lote).
+@Slf4j
+@Component
+public class IngestaParticipantes {
+    private final ParticipanteServicio participanteServicio;
+    private final Fragmentos fragmentos;
+    private final IngestaProperties propiedades;
+    private final BlockingQueue<Alta> cola;
+    private final Cache<UUID, TicketIngestaDTO> tickets;
+    private final Counter rechazadas;
+    private final Timer duracionLote;
+    private volatile boolean activo;
+    private Thread escritor;
+
+    public IngestaParticipantes(ParticipanteServicio participanteServicio, Fragmentos fragmentos,
+                                IngestaProperties propiedades, MeterRegistry registro) {
+        this.participanteServicio = participanteServicio;
+        this.fragmentos = fragmentos;
+        this.propiedades = propiedades;
+        this.cola = new ArrayBlockingQueue<>(propiedades.getCapacidad());
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(propiedades.getRetencionTickets())
+                .maximumSize(propiedades.getMaxTickets())
+                .build();
+        Gauge.builder("gestioneventos.ingesta.cola", cola, BlockingQueue::size)
+                .description("Altas de participantes pendientes de escribir")
+                .register(registro);
+        this.rechazadas = Counter.builder("gestioneventos.ingesta.rechazadas")
+                .description("Altas rechazadas con 429 por tener la cola llena")
+                .register(registro);
+        this.duracionLote = Timer.builder("gestioneventos.ingesta.lote")
+                .description("Duración de cada lote de altas")
+                .register(registro);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        activo = true;
+        escritor = Thread.ofPlatform().name("ingesta-participantes").daemon().start(this::escribir);
+    }
+
+    // Deja de aceptar altas y espera a que se escriban las que ya están en cola
+    @PreDestroy
+    void detener() throws InterruptedException {
+        activo = false;
+        escritor.join(Duration.ofSeconds(30));
+    }
+
+    public TicketIngestaDTO encolar(ParticipanteRequestDTO dto) {
+        if (!activo && escritor != null) {
+            throw new ColaIngestaLlenaException(propiedades.getReintentarTras());
+        }
+        TicketIngestaDTO ticket = TicketIngestaDTO.pendiente(UUID.randomUUID());
+        tickets.put(ticket.getTicket(), ticket);
+        if (!cola.offer(new Alta(ticket.getTicket(), dto))) {
+            tickets.invalidate(ticket.getTicket());
+            rechazadas.increment();
+            throw new ColaIngestaLlenaException(propiedades.getReintentarTras());
+        }
+        return ticket;
+    }
+
+    public TicketIngestaDTO estado(UUID ticket) {
+        TicketIngestaDTO estado = tickets.getIfPresent(ticket);
+        if (estado == null) {
+            throw new TicketNoEncontradoException(ticket);
+        }
+        return estado;
+    }
+
+    private void escribir() {
+        while (activo || !cola.isEmpty()) {
+            try {
+                procesarLote();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error inesperado en la ingesta de participantes", e);
+            }
+        }
+    }
+
+    // Espera la primera alta y se lleva, sin esperar más, las que ya estén en cola.
+    // Devuelve cuántas altas ha procesado
+    int procesarLote() throws InterruptedException {
+        Alta primera = cola.poll(propiedades.getEspera().toMillis(), TimeUnit.MILLISECONDS);
+        if (primera == null) {
+            return 0;
+        }
+        List<Alta> lote = new ArrayList<>(propiedades.getTamanoLote());
+        lote.add(primera);
+        cola.drainTo(lote, propiedades.getTamanoLote() - 1);
+        duracionLote.record(() -> escribirPorFragmento(lote));
+        return lote.size();
+    }
+
+    // Una transacción por fragmento: cada grupo con las altas de los eventos de ese fragmento
+    private void escribirPorFragmento(List<Alta> lote) {
+        if (fragmentos.numero() == 1) {
+            escribirLote(lote);
+            return;
+        }
+        lote.stream()
+                .collect(Collectors.groupingBy(a -> Fragmentos.deId(a.dto().getEventoId()),
+                        LinkedHashMap::new, Collectors.toList()))
+                .forEach((fragmento, grupo) -> fragmentos.ejecutarEn(fragmento, () -> escribirLote(grupo)));
+    }
+
+    private void escribirLote(List<Alta> lote) {
+        List<ResultadoAltaDTO> resultados;
+        try {
+            resultados = participanteServicio.crearParticipantes(lote.stream().map(Alta::dto).toList());
+        } catch (RuntimeException e) {
+            log.warn("Lote de {} altas fallido ({}); se reintentan una a una", lote.size(), e.getMessage());
+            lote.forEach(this::escribirUna);
+            return;
+        }
+        for (int i = 0; i < lote.size(); i++) {
+            completar(lote.get(i).ticket(), resultados.get(i));
+        }
+    }
+
+    private void escribirUna(Alta alta) {
+        ResultadoAltaDTO resultado;
+        try {
+            resultado = ResultadoAltaDTO.creado(participanteServicio.crearParticipante(alta.dto()));
+        } catch (RuntimeException e) {
+            resultado = ResultadoAltaDTO.rechazado(e.getMessage());
+        }
+        completar(alta.ticket(), resultado);
+    }
+
+    private void completar(UUID ticket, ResultadoAltaDTO resultado) {
+        tickets.put(ticket, resultado.getParticipante() != null
+                ? new TicketIngestaDTO(ticket, EstadoIngesta.COMPLETADO, resultado.getParticipante().getId(), null)
+                : new TicketIngestaDTO(ticket, EstadoIngesta.RECHAZADO, null, resultado.getError()));
+    }
+
+    private record Alta(UUID ticket, ParticipanteRequestDTO dto) {
+    }
+}
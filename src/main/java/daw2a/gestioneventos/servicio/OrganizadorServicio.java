@@ -1,35 +1,146 @@
 package daw2a.gestioneventos.servicio;
 
 import daw2a.gestioneventos.dominio.Organizador;
+import daw2a.gestioneventos.dto.CambioDTO;
+import daw2a.gestioneventos.dto.EventoResponseDTO;
+import daw2a.gestioneventos.dto.OrganizadorConteoDTO;
 import daw2a.gestioneventos.dto.OrganizadorRequestDTO;
 import daw2a.gestioneventos.dto.OrganizadorResponseDTO;
+import daw2a.gestioneventos.dto.TipoCambio;
+import daw2a.gestioneventos.dto.VentanaDTO;
 import daw2a.gestioneventos.exception.OrganizadorDuplicadoException;
 import daw2a.gestioneventos.exception.OrganizadorNotFoundException;
+import daw2a.gestioneventos.mapper.EventoMapper;
 import daw2a.gestioneventos.mapper.OrganizadorMapper;
+import daw2a.gestioneventos.repo.CampoProyectado;
+import daw2a.gestioneventos.repo.EventoRepo;
+import daw2a.gestioneventos.repo.Fragmentos;
+import daw2a.gestioneventos.repo.LoteRepo;
 import daw2a.gestioneventos.repo.OrganizadorRepo;
+import daw2a.gestioneventos.repo.ProyeccionRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
+@Transactional(readOnly = true)
 public class OrganizadorServicio {
     private final OrganizadorRepo organizadorRepo;
+    private final EventoRepo eventoRepo;
+    private final ProyeccionRepo proyeccionRepo;
+    private final LoteRepo loteRepo;
+    private final ApplicationEventPublisher publicador;
+    private final Fragmentos fragmentos;
 
-    public OrganizadorServicio(OrganizadorRepo organizadorRepo) {
+    // Los organizadores están en todos los fragmentos y sus eventos sólo en el suyo
+    // (Fragmentos.deOrganizador): lo que muestra eventos de un organizador va a ese fragmento
+    public OrganizadorServicio(OrganizadorRepo organizadorRepo, EventoRepo eventoRepo, ProyeccionRepo proyeccionRepo,
+                               LoteRepo loteRepo, ApplicationEventPublisher publicador, Fragmentos fragmentos) {
         this.organizadorRepo = organizadorRepo;
+        this.eventoRepo = eventoRepo;
+        this.proyeccionRepo = proyeccionRepo;
+        this.loteRepo = loteRepo;
+        this.publicador = publicador;
+        this.fragmentos = fragmentos;
     }
 
     public Page<OrganizadorResponseDTO> listarOrganizadores(Pageable pageable){
-        return organizadorRepo.findAll(pageable)
-                .map(OrganizadorMapper::toDTO);
+        Page<Organizador> organizadores = organizadorRepo.findAll(pageable);
+        return new PageImpl<>(aDTOs(organizadores.getContent()), pageable, organizadores.getTotalElements());
     }
 
     public OrganizadorResponseDTO obtenerPorId(Long id){
-        Organizador organizador = organizadorRepo.findById(id)
+        // También la colección de eventos, que se carga al mapear, sale de su fragmento
+        return fragmentos.en(fragmentos.deOrganizador(id), () -> organizadorRepo.findById(id)
+                .map(OrganizadorMapper::toDTO)
+                .orElseThrow(() -> new OrganizadorNotFoundException(id)));
+    }
+
+    public OrganizadorConteoDTO obtenerConteoPorId(Long id){
+        return fragmentos.en(fragmentos.deOrganizador(id), () -> organizadorRepo.conteoPorId(id))
                 .orElseThrow(() -> new OrganizadorNotFoundException(id));
-        return OrganizadorMapper.toDTO(organizador);
     }
 
+    // Eventos del organizador por clave: tamano (como mucho VentanaDTO.MAXIMO) eventos con id mayor
+    // que despues; sin despues, desde el principio y con el total
+    public VentanaDTO<EventoResponseDTO> listarEventos(Long id, Long despues, int tamano){
+        return fragmentos.en(fragmentos.deOrganizador(id), () -> ventanaEventos(id, despues, tamano));
+    }
+
+    private VentanaDTO<EventoResponseDTO> ventanaEventos(Long id, Long despues, int tamano){
+        if (!organizadorRepo.existsById(id)) {
+            throw new OrganizadorNotFoundException(id);
+        }
+        int limite = Math.clamp(tamano, 1, VentanaDTO.MAXIMO);
+        List<EventoResponseDTO> eventos = eventoRepo.findByOrganizadorIdAndIdGreaterThanOrderByIdAsc(id,
+                        despues != null ? despues : Long.MIN_VALUE, Limit.of(limite)).stream()
+                .map(EventoMapper::toDTO)
+                .toList();
+        Long siguiente = eventos.size() == limite ? eventos.getLast().getId() : null;
+        Long total = despues == null ? eventoRepo.countByOrganizadorId(id) : null;
+        return new VentanaDTO<>(eventos, limite, siguiente, total);
+    }
+
+    // Las listas de eventos se inicializan por lotes (hibernate.default_batch_fetch_size)
+    public List<OrganizadorResponseDTO> obtenerPorIds(List<Long> ids){
+        return aDTOs(loteRepo.cargar(Organizador.class, ids));
+    }
+
+    // Con un solo fragmento, la colección de eventos de cada uno; con varios, sus ids pedidos a todos
+    private List<OrganizadorResponseDTO> aDTOs(List<Organizador> organizadores) {
+        if (fragmentos.numero() == 1) {
+            return organizadores.stream().map(OrganizadorMapper::toDTO).toList();
+        }
+        Map<Long, List<Long>> eventosIds = eventosIds(organizadores.stream().map(Organizador::getId).toList());
+        return organizadores.stream()
+                .map(o -> new OrganizadorResponseDTO(o.getId(), o.getNombre(),
+                        eventosIds.getOrDefault(o.getId(), List.of())))
+                .toList();
+    }
+
+    // Los eventos de cada organizador están en un único fragmento: basta con juntar los mapas
+    private Map<Long, List<Long>> eventosIds(List<Long> organizadoresIds) {
+        Map<Long, List<Long>> resultado = new HashMap<>();
+        fragmentos.reunir(() -> proyeccionRepo.idsEventosPorOrganizador(organizadoresIds)).forEach(resultado::putAll);
+        return resultado;
+    }
+
+    public Page<Map<String, Object>> listarOrganizadores(Pageable pageable, List<String> campos){
+        Page<Map<String, Object>> organizadores = proyeccionRepo.listar(Organizador.class,
+                CampoProyectado.seleccionar(OrganizadorMapper.CAMPOS, campos), pageable);
+        completarEventosIds(organizadores.getContent());
+        return organizadores;
+    }
+
+    public Map<String, Object> obtenerPorId(Long id, List<String> campos){
+        Map<String, Object> organizador = proyeccionRepo.buscarPor(Organizador.class,
+                        CampoProyectado.seleccionar(OrganizadorMapper.CAMPOS, campos), "id", id)
+                .orElseThrow(() -> new OrganizadorNotFoundException(id));
+        completarEventosIds(List.of(organizador));
+        return organizador;
+    }
+
+    // La proyección deja en "eventosIds" el id del organizador; si se pidió el campo,
+    // se cambia por sus ids de eventos con una sola consulta para toda la página
+    private void completarEventosIds(List<Map<String, Object>> filas) {
+        if (filas.isEmpty() || !filas.get(0).containsKey(OrganizadorMapper.EVENTOS_IDS)) {
+            return;
+        }
+        List<Long> ids = filas.stream().map(f -> (Long) f.get(OrganizadorMapper.EVENTOS_IDS)).toList();
+        Map<Long, List<Long>> eventosIds = eventosIds(ids);
+        filas.forEach(f -> f.put(OrganizadorMapper.EVENTOS_IDS,
+                eventosIds.getOrDefault((Long) f.get(OrganizadorMapper.EVENTOS_IDS), List.of())));
+    }
+
+    @Transactional
     public OrganizadorResponseDTO crearOrganizador(OrganizadorRequestDTO dto){
         // Validar que el nombre no exista
         if (organizadorRepo.existsByNombre(dto.getNombre())) {
@@ -38,7 +149,10 @@ public class OrganizadorServicio {
 
         Organizador organizador = OrganizadorMapper.toEntity(dto);
         Organizador guardado = organizadorRepo.save(organizador);
-        return OrganizadorMapper.toDTO(guardado);
+        fragmentos.replicar(() -> organizadorRepo.replicar(guardado.getId(), guardado.getNombre()));
+        OrganizadorResponseDTO creado = OrganizadorMapper.toDTO(guardado);
+        publicador.publishEvent(CambioDTO.organizador(TipoCambio.CREADO, creado));
+        return creado;
     }
 }
 
@@ -2,56 +2,227 @@ package daw2a.gestioneventos.servicio;
 
 import daw2a.gestioneventos.dominio.Evento;
 import daw2a.gestioneventos.dominio.Participante;
+import daw2a.gestioneventos.dominio.ParticipanteArchivado;
+import daw2a.gestioneventos.dto.CambioDTO;
+import daw2a.gestioneventos.dto.DisponibilidadDTO;
 import daw2a.gestioneventos.dto.ParticipanteRequestDTO;
 import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import daw2a.gestioneventos.dto.ResultadoAltaDTO;
+import daw2a.gestioneventos.dto.TipoCambio;
 import daw2a.gestioneventos.exception.EventoNoEncontradoException;
 import daw2a.gestioneventos.exception.ParticipanteNotFoundException;
 import daw2a.gestioneventos.exception.UsuarioYaExisteException;
 import daw2a.gestioneventos.mapper.ParticipanteMapper;
+import daw2a.gestioneventos.repo.CampoProyectado;
 import daw2a.gestioneventos.repo.EventoRepo;
+import daw2a.gestioneventos.repo.Fragmentos;
+import daw2a.gestioneventos.repo.LoteRepo;
+import daw2a.gestioneventos.repo.ParticipanteArchivadoRepo;
 import daw2a.gestioneventos.repo.ParticipanteRepo;
+import daw2a.gestioneventos.repo.ProyeccionRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class ParticipanteServicio {
     private final ParticipanteRepo participanteRepo;
     private final EventoRepo eventoRepo;
+    private final ProyeccionRepo proyeccionRepo;
+    private final LoteRepo loteRepo;
+    private final ApplicationEventPublisher publicador;
+    private final Fragmentos fragmentos;
+    private final DisponibilidadUsuarios disponibilidad;
+    private final ParticipanteArchivadoRepo participanteArchivadoRepo;
 
-    public ParticipanteServicio(ParticipanteRepo participanteRepo, EventoRepo eventoRepo) {
+    public ParticipanteServicio(ParticipanteRepo participanteRepo, EventoRepo eventoRepo, ProyeccionRepo proyeccionRepo,
+                                LoteRepo loteRepo, ApplicationEventPublisher publicador, Fragmentos fragmentos,
+                                DisponibilidadUsuarios disponibilidad,
+                                ParticipanteArchivadoRepo participanteArchivadoRepo) {
         this.participanteRepo = participanteRepo;
         this.eventoRepo = eventoRepo;
+        this.proyeccionRepo = proyeccionRepo;
+        this.loteRepo = loteRepo;
+        this.publicador = publicador;
+        this.fragmentos = fragmentos;
+        this.disponibilidad = disponibilidad;
+        this.participanteArchivadoRepo = participanteArchivadoRepo;
     }
 
     public Page<ParticipanteResponseDTO> listarParticipantes(Pageable pageable){
-        return participanteRepo.findAll(pageable)
+        return fragmentos.reunirPagina(pageable, participanteRepo::findAll, Fragmentos::propiedad)
+                .map(ParticipanteMapper::toDTO);
+    }
+
+    // Con incluirArchivados, la página sale de mezclar la de los vivos y la de los archivados
+    public Page<ParticipanteResponseDTO> listarParticipantes(Pageable pageable, boolean incluirArchivados){
+        if (!incluirArchivados) {
+            return listarParticipantes(pageable);
+        }
+        Pageable primeras = Fragmentos.primeras(pageable);
+        Page<Participante> vivos = fragmentos.reunirPagina(primeras, participanteRepo::findAll, Fragmentos::propiedad);
+        Page<Participante> archivados = fragmentos.reunirPagina(primeras, participanteArchivadoRepo::findAll,
+                Fragmentos::propiedad).map(ParticipanteArchivado::aParticipante);
+        return Fragmentos.mezclar(pageable, List.of(vivos, archivados), Fragmentos::propiedad)
                 .map(ParticipanteMapper::toDTO);
     }
 
+    // Si ya no está entre los vivos, puede estar archivado con su evento
     public ParticipanteResponseDTO obtenerPorId(Long id){
-        Participante participante = participanteRepo.findById(id)
+        return fragmentos.en(Fragmentos.deId(id), () -> participanteRepo.findById(id)
+                .map(ParticipanteMapper::toDTO)
+                .or(() -> archivado(id))
+                .orElseThrow(() -> new ParticipanteNotFoundException(id)));
+    }
+
+    public List<ParticipanteResponseDTO> obtenerPorIds(List<Long> ids){
+        return fragmentos.porIds(ids, this::cargarConArchivados, Participante::getId).stream()
+                .map(ParticipanteMapper::toDTO)
+                .toList();
+    }
+
+    // Los vivos y, sólo para los ids que falten, los archivados; en el orden de ids
+    private List<Participante> cargarConArchivados(List<Long> ids) {
+        Map<Long, Participante> porId = new HashMap<>();
+        loteRepo.cargar(Participante.class, ids).forEach(p -> porId.put(p.getId(), p));
+        List<Long> faltan = ids.stream().distinct().filter(id -> !porId.containsKey(id)).toList();
+        if (!faltan.isEmpty()) {
+            loteRepo.cargar(ParticipanteArchivado.class, faltan).forEach(p -> porId.put(p.getId(), p.aParticipante()));
+        }
+        return ids.stream().distinct().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    private Optional<ParticipanteResponseDTO> archivado(Long id) {
+        return participanteArchivadoRepo.findById(id)
+                .map(ParticipanteArchivado::aParticipante)
+                .map(ParticipanteMapper::toDTO);
+    }
+
+    public Page<Map<String, Object>> listarParticipantes(Pageable pageable, List<String> campos){
+        return fragmentos.reunirPagina(pageable, p -> proyeccionRepo.listar(Participante.class,
+                CampoProyectado.seleccionar(ParticipanteMapper.CAMPOS, campos), p), Map::get);
+    }
+
+    // Con archivados no se proyecta: se leen los campos de la página completa
+    public Page<Map<String, Object>> listarParticipantes(Pageable pageable, List<String> campos,
+                                                         boolean incluirArchivados){
+        if (!incluirArchivados) {
+            return listarParticipantes(pageable, campos);
+        }
+        List<CampoProyectado<Participante>> seleccion = CampoProyectado.seleccionar(ParticipanteMapper.CAMPOS, campos);
+        return listarParticipantes(pageable, true).map(p -> CampoProyectado.leer(seleccion, p));
+    }
+
+    public Map<String, Object> obtenerPorId(Long id, List<String> campos){
+        List<CampoProyectado<Participante>> seleccion = CampoProyectado.seleccionar(ParticipanteMapper.CAMPOS, campos);
+        return fragmentos.en(Fragmentos.deId(id), () -> proyeccionRepo.buscarPor(Participante.class, seleccion, "id", id)
+                        .or(() -> archivado(id).map(p -> CampoProyectado.leer(seleccion, p))))
                 .orElseThrow(() -> new ParticipanteNotFoundException(id));
-        return ParticipanteMapper.toDTO(participante);
     }
 
+    public DisponibilidadDTO usuarioDisponible(String usuario){
+        return new DisponibilidadDTO(usuario, disponibilidad.disponible(usuario));
+    }
+
+    // El participante va al fragmento de su evento
+    @Transactional
     public ParticipanteResponseDTO crearParticipante(ParticipanteRequestDTO dto){
-        // Validar que el usuario no exista
-        if (participanteRepo.existsByUsuario(dto.getUsuario())) {
+        // Validar que el usuario no exista (en cualquier fragmento); si el filtro lo descarta con
+        // seguridad (ver DisponibilidadUsuarios) no hace falta preguntar
+        if (disponibilidad.puedeExistir(dto.getUsuario())
+                && fragmentos.reunir(() -> participanteRepo.existsByUsuario(dto.getUsuario())).contains(true)) {
             throw new UsuarioYaExisteException(dto.getUsuario());
         }
 
-        // Validar que el evento existe
-        Evento evento = eventoRepo.findById(dto.getEventoId())
-                .orElseThrow(() -> new EventoNoEncontradoException(dto.getEventoId()));
+        return fragmentos.en(Fragmentos.deId(dto.getEventoId()), () -> {
+            // Validar que el evento existe
+            Evento evento = eventoRepo.findById(dto.getEventoId())
+                    .orElseThrow(() -> new EventoNoEncontradoException(dto.getEventoId()));
 
-        // Mapear DTO a entidad
-        Participante participante = ParticipanteMapper.toEntity(dto);
-        participante.setEvento(evento);
+            // Mapear DTO a entidad
+            Participante participante = ParticipanteMapper.toEntity(dto);
+            participante.setEvento(evento);
 
-        // Guardar y devolver
-        Participante guardado = participanteRepo.save(participante);
-        return ParticipanteMapper.toDTO(guardado);
+            // Guardar y devolver
+            // Con flush la restricción única salta aquí (un alta a la vez con el mismo usuario) y se
+            // responde 409 como si la comprobación de arriba lo hubiera visto
+            Participante guardado;
+            try {
+                guardado = participanteRepo.saveAndFlush(participante);
+            } catch (DataIntegrityViolationException e) {
+                throw new UsuarioYaExisteException(dto.getUsuario());
+            }
+            disponibilidad.registrar(guardado.getUsuario());
+            ParticipanteResponseDTO creado = ParticipanteMapper.toDTO(guardado);
+            publicador.publishEvent(CambioDTO.participante(TipoCambio.CREADO, creado));
+            return creado;
+        });
+    }
+
+    // Alta en bloque para la ingesta asíncrona: dos consultas validan todo el lote (usuarios ya
+    // registrados y eventos existentes) y los válidos se insertan con un único saveAllAndFlush,
+    // que Hibernate agrupa en lotes JDBC. Devuelve un resultado por alta, en el orden recibido.
+    // Con varios fragmentos, quien llama elige el del lote (todos sus eventos en el mismo, ver
+    // IngestaParticipantes): los usuarios se comprueban en todos, los eventos sólo en ese.
+    @Transactional
+    public List<ResultadoAltaDTO> crearParticipantes(List<ParticipanteRequestDTO> dtos){
+        // Sólo se consultan los usuarios que el filtro no descarta
+        List<String> usuarios = dtos.stream().map(ParticipanteRequestDTO::getUsuario)
+                .filter(disponibilidad::puedeExistir).toList();
+        Set<String> ocupados = new HashSet<>();
+        if (!usuarios.isEmpty()) {
+            fragmentos.reunir(() -> participanteRepo.usuariosRegistrados(usuarios)).forEach(ocupados::addAll);
+        }
+        Map<Long, Evento> eventos = eventoRepo.findAllById(
+                        dtos.stream().map(ParticipanteRequestDTO::getEventoId).distinct().toList()).stream()
+                .collect(Collectors.toMap(Evento::getId, Function.identity()));
+
+        // Mismo orden que dtos: el rechazo ya resuelto o la entidad que se va a insertar
+        List<Participante> nuevos = new ArrayList<>();
+        ResultadoAltaDTO[] rechazos = new ResultadoAltaDTO[dtos.size()];
+        Participante[] altas = new Participante[dtos.size()];
+        for (int i = 0; i < dtos.size(); i++) {
+            ParticipanteRequestDTO dto = dtos.get(i);
+            Evento evento = eventos.get(dto.getEventoId());
+            if (evento == null) {
+                rechazos[i] = ResultadoAltaDTO.rechazado(new EventoNoEncontradoException(dto.getEventoId()).getMessage());
+            } else if (!ocupados.add(dto.getUsuario())) {
+                rechazos[i] = ResultadoAltaDTO.rechazado(new UsuarioYaExisteException(dto.getUsuario()).getMessage());
+            } else {
+                altas[i] = ParticipanteMapper.toEntity(dto);
+                altas[i].setEvento(evento);
+                nuevos.add(altas[i]);
+            }
+        }
+        participanteRepo.saveAllAndFlush(nuevos);
+        nuevos.forEach(p -> disponibilidad.registrar(p.getUsuario()));
+
+        List<ResultadoAltaDTO> resultados = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            if (altas[i] == null) {
+                resultados.add(rechazos[i]);
+                continue;
+            }
+            ParticipanteResponseDTO creado = ParticipanteMapper.toDTO(altas[i]);
+            publicador.publishEvent(CambioDTO.participante(TipoCambio.CREADO, creado));
+            resultados.add(ResultadoAltaDTO.creado(creado));
+        }
+        return resultados;
     }
 }
 
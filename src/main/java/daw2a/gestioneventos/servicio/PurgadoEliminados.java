@@ -0,0 +1,142 @@
+package daw2a.gestioneventos.servicio;
+
+import daw2a.gestioneventos.config.PurgaProperties;
+import daw2a.gestioneventos.repo.Fragmentos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Borra físicamente, en segundo plano, las filas marcadas con borrado lógico.
+// Cada lote es una transacción propia con un DELETE de como mucho tamanoLote filas;
+// primero los participantes y después los eventos que ya no tienen participantes (FK).
+// Se usa SQL nativo porque las consultas de Hibernate no ven las filas eliminadas.
+//
+// Las filas marcadas se buscan por el índice (eliminado, id) de cada tabla, no recorriendo la tabla.
+//
+// Métricas: gestioneventos.purga.pendientes (gauge, filas marcadas aún sin purgar; se cuenta al
+// arrancar y al final de cada ejecución, no en cada lectura de métricas), gestioneventos.purga.filas (contador de filas purgadas) y gestioneventos.purga.lote
+// (duración de cada lote), todas con la etiqueta "tabla".
+//
+// Con varios fragmentos se purga cada uno por turno, con el mismo límite de lotes para todos.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gestioneventos.purga.habilitada", havingValue = "true", matchIfMissing = true)
+public class PurgadoEliminados {
+    private static final String PURGAR_PARTICIPANTES =
+            "delete from participante where id in "
+                    + "(select id from participante where eliminado = true order by id fetch first ? rows only)";
+    private static final String PURGAR_EVENTOS =
+            "delete from evento where id in (select e.id from evento e where e.eliminado = true "
+                    + "and not exists (select 1 from participante p where p.evento_id = e.id) "
+                    + "order by e.id fetch first ? rows only)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PurgaProperties propiedades;
+    private final Fragmentos fragmentos;
+    private final Tabla participantes;
+    private final Tabla eventos;
+
+    public PurgadoEliminados(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             PurgaProperties propiedades, Fragmentos fragmentos, MeterRegistry registro) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.propiedades = propiedades;
+        this.fragmentos = fragmentos;
+        this.participantes = new Tabla("participante", PURGAR_PARTICIPANTES, registro);
+        this.eventos = new Tabla("evento", PURGAR_EVENTOS, registro);
+    }
+
+    // Por defecto cada 5 minutos entre la 1 y las 7 de la mañana, la franja de poco tráfico
+    @Scheduled(cron = "${gestioneventos.purga.cron:0 */5 1-6 * * *}")
+    public void purgar() throws InterruptedException {
+        long filas = 0;
+        try {
+            for (int fragmento = 0; fragmento < fragmentos.numero(); fragmento++) {
+                filas += purgarFragmento(fragmento);
+            }
+        } finally {
+            actualizarPendientes();
+        }
+        if (filas > 0) {
+            log.info("Purgadas {} filas con borrado lógico", filas);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void actualizarPendientes() {
+        for (Tabla tabla : List.of(participantes, eventos)) {
+            tabla.pendientes.set(fragmentos.reunir(() -> jdbcTemplate.queryForObject(
+                            "select count(*) from " + tabla.nombre + " where eliminado = true", Long.class)).stream()
+                    .filter(Objects::nonNull)
+                    .mapToLong(Long::longValue)
+                    .sum());
+        }
+    }
+
+    private long purgarFragmento(int fragmento) throws InterruptedException {
+        int tamanoLote = propiedades.getTamanoLote();
+        int lotes = propiedades.getMaxLotesPorEjecucion();
+        long filas = 0;
+        for (Tabla tabla : List.of(participantes, eventos)) {
+            int borradas = tamanoLote;
+            // Un lote incompleto indica que la tabla ya no tiene más filas pendientes
+            while (borradas == tamanoLote && lotes > 0) {
+                borradas = fragmentos.en(fragmento, () -> purgarLote(tabla));
+                filas += borradas;
+                lotes--;
+                if (borradas == tamanoLote && !propiedades.getPausa().isZero()) {
+                    Thread.sleep(propiedades.getPausa());
+                }
+            }
+        }
+        return filas;
+    }
+
+    // Un lote en su propia transacción; devuelve las filas borradas
+    private int purgarLote(Tabla tabla) {
+        Integer borradas = tabla.duracion.record(() -> transactionTemplate.execute(estado ->
+                jdbcTemplate.update(tabla.sql, propiedades.getTamanoLote())));
+        int n = borradas != null ? borradas : 0;
+        tabla.purgadas.increment(n);
+        return n;
+    }
+
+    private static final class Tabla {
+        private final String nombre;
+        private final String sql;
+        private final AtomicLong pendientes = new AtomicLong();
+        private final Counter purgadas;
+        private final Timer duracion;
+
+        Tabla(String nombre, String sql, MeterRegistry registro) {
+            this.nombre = nombre;
+            this.sql = sql;
+            Gauge.builder("gestioneventos.purga.pendientes", pendientes, AtomicLong::get)
+                    .description("Filas marcadas como eliminadas pendientes de purga")
+                    .tag("tabla", nombre)
+                    .register(registro);
+            this.purgadas = Counter.builder("gestioneventos.purga.filas")
+                    .description("Filas con borrado lógico eliminadas físicamente")
+                    .tag("tabla", nombre)
+                    .register(registro);
+            this.duracion = Timer.builder("gestioneventos.purga.lote")
+                    .description("Duración de cada lote de purga")
+                    .tag("tabla", nombre)
+                    .register(registro);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package daw2a.gestioneventos.servicio;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+// Agrupa las búsquedas concurrentes de la misma clave: la primera que llega hace la carga
+// y las que llegan mientras tanto esperan y reciben el mismo resultado, o la misma excepción.
+// No guarda resultados: en cuanto la carga termina, la siguiente petición vuelve a cargar.
+//
+// Las excepciones del tipo negativa (p. ej. EventoNoEncontradoException) se recuerdan durante
+// ttlNegativo, para que una ráfaga de peticiones de algo que no existe no llegue a la base de
+// datos; invalidar(clave) las olvida antes (p. ej. al crear lo que se buscaba).
+//
+// El resultado se comparte entre hilos, así que debe ser inmutable (un DTO, no una entidad).
+public class VueloUnico<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> enVuelo = new ConcurrentHashMap<>();
+    private final Cache<K, RuntimeException> negativas;
+    private final Class<? extends RuntimeException> negativa;
+
+    public VueloUnico(Duration ttlNegativo, Class<? extends RuntimeException> negativa) {
+        this.negativas = Caffeine.newBuilder()
+                .expireAfterWrite(ttlNegativo)
+                .maximumSize(10_000)
+                .build();
+        this.negativa = negativa;
+    }
+
+    public V obtener(K clave, Supplier<V> carga) {
+        RuntimeException recordada = negativas.getIfPresent(clave);
+        if (recordada != null) {
+            throw recordada;
+        }
+        CompletableFuture<V> propia = new CompletableFuture<>();
+        CompletableFuture<V> existente = enVuelo.putIfAbsent(clave, propia);
+        if (existente != null) {
+            return esperar(existente);
+        }
+        try {
+            V valor = carga.get();
+            propia.complete(valor);
+            return valor;
+        } catch (RuntimeException e) {
+            if (negativa.isInstance(e)) {
+                negativas.put(clave, e);
+            }
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Por si la carga lanza un Error: nadie debe quedarse esperando
+            propia.completeExceptionally(new IllegalStateException("Carga interrumpida para " + clave));
+            enVuelo.remove(clave, propia);
+        }
+    }
+
+    public void invalidar(K clave) {
+        negativas.invalidate(clave);
+    }
+
+    int enVuelo() {
+        return enVuelo.size();
+    }
+
+    private static <V> V esperar(CompletableFuture<V> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package daw2a.gestioneventos.web;
+
+import daw2a.gestioneventos.dto.SugerenciaDTO;
+import daw2a.gestioneventos.servicio.Autocompletado;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Sugerencias para las cajas de búsqueda: ?campo=evento|usuario&prefijo=...&tope=10, servidas
+// desde memoria (Autocompletado); no distingue mayúsculas ni tildes
+@RestController
+@RequestMapping("/api/v1/autocompletar")
+public class AutocompletarControlador {
+
+    private final Autocompletado autocompletado;
+
+    public AutocompletarControlador(Autocompletado autocompletado) {
+        this.autocompletado = autocompletado;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<SugerenciaDTO>> autocompletar(@RequestParam String campo,
+                                                             @RequestParam(defaultValue = "") String prefijo,
+                                                             @RequestParam(defaultValue = "10") int tope) {
+        return ResponseEntity.ok(autocompletado.buscar(campo, prefijo, tope));
+    }
+}
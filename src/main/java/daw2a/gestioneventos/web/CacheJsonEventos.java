@@ -0,0 +1,66 @@
+package daw2a.gestioneventos.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import daw2a.gestioneventos.dto.CambioDTO;
+import daw2a.gestioneventos.dto.TipoCambio;
+import daw2a.gestioneventos.servicio.EventoServicio;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.UncheckedIOException;
+
+// JSON ya serializado de GET /api/v1/eventos/id/{id}, con su ETag calculado una sola vez.
+// Un acierto se escribe tal cual en la respuesta: sin EventoMapper, sin formatear fechas y
+// sin pasar por Jackson. Caffeine decide qué eventos se quedan (admisión W-TinyLFU), así que
+// con el tamaño acotado sobreviven los más leídos.
+//
+// Se invalida tras el commit de cada actualización o borrado de un evento (CambioDTO). La carga
+// va dentro de Cache.get: una invalidación que llega mientras se carga espera a que termine y
+// la descarta, así que no queda guardada una versión anterior al cambio.
+@Component
+public class CacheJsonEventos {
+    static final int MAXIMO = 10_000;
+
+    private final EventoServicio eventoServicio;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Representacion> representaciones = Caffeine.newBuilder()
+            .maximumSize(MAXIMO)
+            .build();
+
+    public CacheJsonEventos(EventoServicio eventoServicio, ObjectMapper objectMapper) {
+        this.eventoServicio = eventoServicio;
+        this.objectMapper = objectMapper;
+    }
+
+    // Lanza EventoNoEncontradoException si no existe (no se guarda nada)
+    public Representacion obtener(Long id) {
+        return representaciones.get(id, this::cargar);
+    }
+
+    public void invalidar(Long id) {
+        representaciones.invalidate(id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alConfirmar(CambioDTO cambio) {
+        if (CambioDTO.EVENTO.equals(cambio.getEntidad()) && cambio.getTipo() != TipoCambio.CREADO) {
+            invalidar(cambio.getId());
+        }
+    }
+
+    private Representacion cargar(Long id) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(eventoServicio.obtenEventoPorId(id));
+            return new Representacion(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record Representacion(byte[] json, String etag) {
+    }
+}
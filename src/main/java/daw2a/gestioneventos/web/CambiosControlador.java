@@ -0,0 +1,108 @@
+package daw2a.gestioneventos.web;
+
+import daw2a.gestioneventos.config.CambiosProperties;
+import daw2a.gestioneventos.servicio.FeedCambios;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Feed SSE de altas, cambios y borrados de eventos y participantes (ver FeedCambios).
+// Cada evento SSE lleva como id la secuencia del cambio y como nombre "entidad.tipo",
+// p. ej. "participante.creado". Un cliente que reconecta con Last-Event-ID sigue donde lo
+// dejó; si esa secuencia ya no está en el anillo recibe un evento "reinicio" (debe recargar
+// el estado con los GET habituales) y continúa desde el cambio más reciente.
+//
+// Cada suscriptor tiene su hilo virtual: un cliente lento sólo bloquea el suyo, y si se queda
+// más atrás de lo que guarda el anillo se le desconecta.
+@RestController
+@RequestMapping("/api/v1/eventos/cambios")
+public class CambiosControlador {
+    static final String REINICIO = "reinicio";
+
+    private final FeedCambios feedCambios;
+    private final CambiosProperties propiedades;
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger suscriptores = new AtomicInteger();
+    private final Counter desconectados;
+
+    public CambiosControlador(FeedCambios feedCambios, CambiosProperties propiedades, MeterRegistry registro) {
+        this.feedCambios = feedCambios;
+        this.propiedades = propiedades;
+        Gauge.builder("gestioneventos.cambios.suscriptores", suscriptores, AtomicInteger::get)
+                .description("Suscriptores conectados al feed de cambios")
+                .register(registro);
+        this.desconectados = Counter.builder("gestioneventos.cambios.desconectados")
+                .description("Suscriptores desconectados por quedarse atrás")
+                .register(registro);
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribir(@RequestHeader(value = "Last-Event-ID", required = false) Long ultimoId) {
+        SseEmitter emisor = new SseEmitter(propiedades.getDuracionMaxima().toMillis());
+        AtomicBoolean cerrado = new AtomicBoolean();
+        emisor.onTimeout(emisor::complete);
+        emisor.onCompletion(() -> cerrado.set(true));
+        emisor.onError(e -> cerrado.set(true));
+        long visto = ultimoId != null ? ultimoId : feedCambios.ultimo();
+        hilos.execute(() -> transmitir(emisor, cerrado, visto));
+        return emisor;
+    }
+
+    @PreDestroy
+    void detener() {
+        hilos.shutdownNow();
+    }
+
+    private void transmitir(SseEmitter emisor, AtomicBoolean cerrado, long visto) {
+        suscriptores.incrementAndGet();
+        try {
+            // Envía ya las cabeceras: el cliente sabe que está suscrito sin esperar al primer cambio
+            emisor.send(SseEmitter.event().comment("conectado"));
+            if (!feedCambios.disponible(visto)) {
+                visto = feedCambios.ultimo();
+                emisor.send(SseEmitter.event().id(String.valueOf(visto)).name(REINICIO).data(""));
+            }
+            while (!cerrado.get()) {
+                FeedCambios.Lectura lectura = feedCambios.leer(visto, propiedades.getLoteEnvio());
+                if (lectura.perdida()) {
+                    desconectados.increment();
+                    emisor.complete();
+                    return;
+                }
+                if (lectura.entradas().isEmpty()) {
+                    if (!feedCambios.esperar(visto, propiedades.getLatido())) {
+                        emisor.send(SseEmitter.event().comment("latido"));
+                    }
+                    continue;
+                }
+                for (FeedCambios.Entrada entrada : lectura.entradas()) {
+                    emisor.send(SseEmitter.event()
+                            .id(String.valueOf(entrada.secuencia()))
+                            .name(entrada.cambio().getEntidad() + "." + entrada.cambio().getTipo().name().toLowerCase())
+                            .data(entrada.cambio(), MediaType.APPLICATION_JSON));
+                    visto = entrada.secuencia();
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // El cliente se ha ido o el emisor ya está cerrado
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emisor.complete();
+        } finally {
+            suscriptores.decrementAndGet();
+        }
+    }
+}
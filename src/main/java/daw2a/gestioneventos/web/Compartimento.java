@@ -0,0 +1,97 @@
+package daw2a.gestioneventos.web;
+
+import daw2a.gestioneventos.config.CompartimentosProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Admisión por permisos de un grupo de peticiones: como mucho "permisos" dentro a la vez y "cola"
+// esperando, cada una como mucho "espera". Lo que no cabe se rechaza enseguida, sin ocupar un hilo
+// del servidor más de lo necesario.
+//
+// Métricas, con la etiqueta "compartimento": gestioneventos.compartimento.activas y .en-cola
+// (gauges), .espera (tiempo hasta tener permiso) y .rechazadas (etiqueta "motivo": cola-llena o
+// espera-agotada).
+public class Compartimento {
+    public enum Admision { ADMITIDA, COLA_LLENA, ESPERA_AGOTADA }
+
+    private final int permisos;
+    private final int maxCola;
+    private final long esperaNanos;
+    private final Semaphore semaforo;
+    private final AtomicInteger enCola = new AtomicInteger();
+    private final Timer espera;
+    private final Counter colaLlena;
+    private final Counter esperaAgotada;
+
+    public Compartimento(String nombre, CompartimentosProperties.Grupo grupo, MeterRegistry registro) {
+        this.permisos = grupo.getPermisos();
+        this.maxCola = grupo.getCola();
+        this.esperaNanos = grupo.getEspera().toNanos();
+        // Justo: quien lleva más tiempo en cola entra antes
+        this.semaforo = new Semaphore(permisos, true);
+        Gauge.builder("gestioneventos.compartimento.activas", this, Compartimento::activas)
+                .description("Peticiones del compartimento en curso")
+                .tag("compartimento", nombre)
+                .register(registro);
+        Gauge.builder("gestioneventos.compartimento.en-cola", enCola, AtomicInteger::get)
+                .description("Peticiones del compartimento esperando permiso")
+                .tag("compartimento", nombre)
+                .register(registro);
+        this.espera = Timer.builder("gestioneventos.compartimento.espera")
+                .description("Espera hasta tener permiso en el compartimento")
+                .tag("compartimento", nombre)
+                .register(registro);
+        this.colaLlena = rechazadas(nombre, "cola-llena", registro);
+        this.esperaAgotada = rechazadas(nombre, "espera-agotada", registro);
+    }
+
+    // Con ADMITIDA, quien llama debe llamar a salir() al terminar
+    public Admision entrar() throws InterruptedException {
+        if (semaforo.tryAcquire()) {
+            espera.record(0, TimeUnit.NANOSECONDS);
+            return Admision.ADMITIDA;
+        }
+        if (enCola.incrementAndGet() > maxCola) {
+            enCola.decrementAndGet();
+            colaLlena.increment();
+            return Admision.COLA_LLENA;
+        }
+        long inicio = System.nanoTime();
+        try {
+            if (semaforo.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS)) {
+                espera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                return Admision.ADMITIDA;
+            }
+            esperaAgotada.increment();
+            return Admision.ESPERA_AGOTADA;
+        } finally {
+            enCola.decrementAndGet();
+        }
+    }
+
+    public void salir() {
+        semaforo.release();
+    }
+
+    public int activas() {
+        return permisos - semaforo.availablePermits();
+    }
+
+    public int enCola() {
+        return enCola.get();
+    }
+
+    private static Counter rechazadas(String nombre, String motivo, MeterRegistry registro) {
+        return Counter.builder("gestioneventos.compartimento.rechazadas")
+                .description("Peticiones rechazadas con 503 por el compartimento")
+                .tag("compartimento", nombre)
+                .tag("motivo", motivo)
+                .register(registro);
+    }
+}
@@ -0,0 +1,116 @@
+package daw2a.gestioneventos.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import daw2a.gestioneventos.config.CompartimentosProperties;
+import daw2a.gestioneventos.dto.ApiError;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Reparte las peticiones entre los compartimentos de lecturas y escrituras (ver Compartimento).
+// La petición admitida deja su compartimento en el hilo (actual()) para que DataSourcePorCompartimento
+// saque la conexión del pool de ese grupo; la rechazada recibe 503 con Retry-After y el mismo cuerpo
+// ApiError que ApiExceptionHandler. Se registra en CompartimentosConfig, detrás del límite de tasa.
+//
+// Las respuestas asíncronas (SSE, ingesta) sueltan el permiso al salir del controlador, no al
+// terminar de enviarse, y su hilo no tiene compartimento: las que usan la base lo fijan con
+// ejecutarEn (ver la exportación de asistentes en EventoControlador).
+public class CompartimentosFiltro extends OncePerRequestFilter {
+    private static final ThreadLocal<String> ACTUAL = new ThreadLocal<>();
+
+    private final Map<String, Compartimento> compartimentos;
+    private final ObjectMapper objectMapper;
+
+    public CompartimentosFiltro(Map<String, Compartimento> compartimentos, ObjectMapper objectMapper) {
+        this.compartimentos = Map.copyOf(compartimentos);
+        this.objectMapper = objectMapper;
+    }
+
+    // Compartimento de la petición que atiende este hilo, o null fuera de una petición
+    public static String actual() {
+        return ACTUAL.get();
+    }
+
+    // La tarea con las conexiones del compartimento nombre, fuera de la petición que lo admitió
+    public static void ejecutarEn(String nombre, Tarea tarea) throws IOException {
+        String anterior = ACTUAL.get();
+        ACTUAL.set(nombre);
+        try {
+            tarea.ejecutar();
+        } finally {
+            if (anterior == null) {
+                ACTUAL.remove();
+            } else {
+                ACTUAL.set(anterior);
+            }
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String nombre = grupo(request);
+        Compartimento compartimento = compartimentos.get(nombre);
+        if (compartimento == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Compartimento.Admision admision;
+        try {
+            admision = compartimento.entrar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admision = Compartimento.Admision.ESPERA_AGOTADA;
+        }
+        if (admision != Compartimento.Admision.ADMITIDA) {
+            rechazar(request, response, nombre, admision);
+            return;
+        }
+        ACTUAL.set(nombre);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ACTUAL.remove();
+            compartimento.salir();
+        }
+    }
+
+    private void rechazar(HttpServletRequest request, HttpServletResponse response, String nombre,
+                          Compartimento.Admision admision) throws IOException {
+        ApiError error = new ApiError();
+        error.setTimestamp(LocalDateTime.now());
+        error.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.setError(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase());
+        error.setMessage(admision == Compartimento.Admision.COLA_LLENA
+                ? "Demasiadas peticiones de " + nombre + " en espera; reintente más tarde"
+                : "Sin capacidad para " + nombre + " a tiempo; reintente más tarde");
+        error.setPath(request.getRequestURI());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static String grupo(HttpServletRequest request) {
+        String metodo = request.getMethod();
+        return HttpMethod.GET.matches(metodo) || HttpMethod.HEAD.matches(metodo)
+                ? CompartimentosProperties.LECTURAS
+                : CompartimentosProperties.ESCRITURAS;
+    }
+
+    @FunctionalInterface
+    public interface Tarea {
+        void ejecutar() throws IOException;
+    }
+}
@@ -1,31 +1,63 @@
 package daw2a.gestioneventos.web;
 
+import daw2a.gestioneventos.config.CompartimentosProperties;
 import daw2a.gestioneventos.dominio.Evento;
+import daw2a.gestioneventos.dto.EliminacionEventoDTO;
 import daw2a.gestioneventos.dto.EventoRequestDTO;
 import daw2a.gestioneventos.dto.EventoResponseDTO;
+import daw2a.gestioneventos.dto.PaginaDTO;
+import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import daw2a.gestioneventos.dto.VentanaDTO;
+import daw2a.gestioneventos.exception.ExportacionesOcupadasException;
 import daw2a.gestioneventos.servicio.EventoServicio;
+import daw2a.gestioneventos.servicio.ExportacionParticipantes;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/eventos")
 public class EventoControlador {
+    static final String CABECERA_PARTICIPANTES_ELIMINADOS = "X-Participantes-Eliminados";
 
     private final EventoServicio eventoServicio;
+    private final CacheJsonEventos cacheJsonEventos;
+    private final ExportacionParticipantes exportacionParticipantes;
+    private final ObjectProvider<Compartimento> exportaciones;
 
-    public EventoControlador(EventoServicio eventoServicio) {
+    public EventoControlador(EventoServicio eventoServicio, CacheJsonEventos cacheJsonEventos,
+                             ExportacionParticipantes exportacionParticipantes,
+                             ObjectProvider<Compartimento> exportaciones) {
         this.eventoServicio = eventoServicio;
+        this.cacheJsonEventos = cacheJsonEventos;
+        this.exportacionParticipantes = exportacionParticipantes;
+        this.exportaciones = exportaciones;
     }
 
+    // Sólo los eventos vivos; con ?incluirArchivados=true también los terminados ya archivados
     @GetMapping
-    public ResponseEntity<Page<EventoResponseDTO>> getEventos(Pageable pageable) {
-        Page<EventoResponseDTO> eventos = eventoServicio.listarEventos(pageable);
-        return ResponseEntity.ok(eventos);
+    public ResponseEntity<PaginaDTO<EventoResponseDTO>> getEventos(Pageable pageable,
+                                                                   @RequestParam(defaultValue = "false") boolean incluirArchivados) {
+        Page<EventoResponseDTO> eventos = eventoServicio.listarEventos(pageable, incluirArchivados);
+        return ResponseEntity.ok(PaginaDTO.de(eventos));
+    }
+
+    // ?fields=id,nombre,... devuelve sólo esos campos y la consulta sólo lee esas columnas
+    @GetMapping(params = "fields")
+    public ResponseEntity<PaginaDTO<Map<String, Object>>> getEventos(Pageable pageable, @RequestParam List<String> fields,
+                                                                     @RequestParam(defaultValue = "false") boolean incluirArchivados) {
+        return ResponseEntity.ok(PaginaDTO.de(eventoServicio.listarEventos(pageable, fields, incluirArchivados)));
     }
     //Para distinguir dos endpoints que sólo se diferencian por el tipo de parámetro
     //Hay varias posibilidades una es usar una expresión regular. En estos dos endpoint
@@ -42,12 +74,100 @@ public class EventoControlador {
     //public ResponseEntity<Evento> obtenerPorId(@PathVariable Long id) { ... }
     //@GetMapping("/nombre/{nombre}")
     //public ResponseEntity<Evento> obtenerPorNombre(@PathVariable String nombre) { ... }
-    @GetMapping("/id/{id}")
+    @GetMapping(value = "/id/{id}", produces = {"application/cbor", "application/x-jackson-smile"})
     public ResponseEntity<EventoResponseDTO> obtenEventoPorId(@PathVariable Long id) {
         EventoResponseDTO evento = eventoServicio.obtenEventoPorId(id); // lanza EventoNoEncontradoException si no existe
         return ResponseEntity.ok(evento);
     }
 
+    // JSON, también sin Accept o con */*: bytes ya serializados de CacheJsonEventos con su ETag;
+    // con If-None-Match y el mismo ETag responde 304 sin cuerpo. CBOR y Smile van por el de arriba
+    @GetMapping("/id/{id}")
+    public ResponseEntity<byte[]> obtenEventoPorIdJson(@PathVariable Long id, WebRequest peticion) {
+        CacheJsonEventos.Representacion representacion = cacheJsonEventos.obtener(id);
+        if (peticion.checkNotModified(representacion.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(representacion.json().length)
+                .eTag(representacion.etag())
+                .body(representacion.json());
+    }
+
+    // Lista de asistentes por clave (?despues=<siguiente>), con ?prefijo= para buscar por nombre.
+    // {id} sólo numérico para no confundirse con /nombre/participantes
+    @GetMapping("/{id:\\d+}/participantes")
+    public ResponseEntity<VentanaDTO<ParticipanteResponseDTO>> listarParticipantes(@PathVariable Long id,
+                                                                                  @RequestParam(required = false) Long despues,
+                                                                                  @RequestParam(required = false) String prefijo,
+                                                                                  @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(eventoServicio.listarParticipantes(id, despues, prefijo, size));
+    }
+
+    // Descarga de todos los asistentes (?formato=csv o xlsx) escrita según se lee de la base.
+    // El cuerpo se escribe en el hilo asíncrono, cuando el permiso de lecturas ya se ha soltado:
+    // la descarga lleva su propio permiso (compartimento "exportaciones", 503 si no lo hay) hasta
+    // terminar, y su conexión sale del pool de lecturas
+    @GetMapping("/{id:\\d+}/participantes/export")
+    public ResponseEntity<StreamingResponseBody> exportarParticipantes(@PathVariable Long id,
+                                                                       @RequestParam(defaultValue = "csv") String formato) {
+        ExportacionParticipantes.Formato tipo = ExportacionParticipantes.Formato.de(formato);
+        exportacionParticipantes.comprobar(id);
+        Compartimento permiso = entrarExportacion();
+        String fichero = "participantes-" + id + "." + tipo.extension();
+        return ResponseEntity.ok()
+                .contentType(tipo.tipo())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fichero).build().toString())
+                .body(salida -> {
+                    try {
+                        CompartimentosFiltro.ejecutarEn(CompartimentosProperties.LECTURAS,
+                                () -> exportacionParticipantes.escribir(id, tipo, salida));
+                    } finally {
+                        if (permiso != null) {
+                            permiso.salir();
+                        }
+                    }
+                });
+    }
+
+    // El compartimento con el permiso cogido, o null si los compartimentos están desactivados
+    private Compartimento entrarExportacion() {
+        Compartimento compartimento = exportaciones.getIfAvailable();
+        if (compartimento == null) {
+            return null;
+        }
+        Compartimento.Admision admision;
+        try {
+            admision = compartimento.entrar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admision = Compartimento.Admision.ESPERA_AGOTADA;
+        }
+        if (admision != Compartimento.Admision.ADMITIDA) {
+            throw new ExportacionesOcupadasException();
+        }
+        return compartimento;
+    }
+
+    @GetMapping(value = "/id/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> obtenEventoPorId(@PathVariable Long id, @RequestParam List<String> fields) {
+        return ResponseEntity.ok(eventoServicio.obtenEventoPorId(id, fields));
+    }
+
+    // Hasta LoteRepo.MAXIMO_IDS eventos en una petición, en el orden pedido (omite los que no existen)
+    @GetMapping("/lote")
+    public ResponseEntity<List<EventoResponseDTO>> obtenEventosPorIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(eventoServicio.obtenEventosPorIds(ids));
+    }
+
+    // Eventos cuyo nombre contiene el texto (sin distinguir mayúsculas), ordenados por id
+    @GetMapping("/buscar")
+    public ResponseEntity<List<EventoResponseDTO>> buscarEventos(@RequestParam String nombre,
+                                                                 @RequestParam(defaultValue = "false") boolean incluirArchivados) {
+        return ResponseEntity.ok(eventoServicio.buscarEventos(nombre, incluirArchivados));
+    }
+
     //Para distinguir dos endpopints que sólo se diferencian por el tipo de parámetro
     //Hay varias posibilidades una es usar una expresión regular
     @GetMapping("/nombre/{nombre}")
@@ -56,6 +176,12 @@ public class EventoControlador {
 
         return ResponseEntity.ok(evento);
     }
+
+    @GetMapping(value = "/nombre/{nombre}", params = "fields")
+    public ResponseEntity<Map<String, Object>> obtenEventoPorNombre(@PathVariable String nombre, @RequestParam List<String> fields) {
+        return ResponseEntity.ok(eventoServicio.obtenEventoPorNombre(nombre, fields));
+    }
+
     @PostMapping
     public ResponseEntity<EventoResponseDTO> creaEvento(@RequestBody EventoRequestDTO evento) {
         EventoResponseDTO eventoGuardado = eventoServicio.crearEvento(evento);
@@ -70,9 +196,12 @@ public class EventoControlador {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> eliminarEvento(@PathVariable Long id) {
-       eventoServicio.eliminarEvento(id);
+        EliminacionEventoDTO eliminacion = eventoServicio.eliminarEvento(id);
 
-        return ResponseEntity.noContent().build();
+        // Se mantiene el 204; el número de participantes borrados va en una cabecera
+        return ResponseEntity.noContent()
+                .header(CABECERA_PARTICIPANTES_ELIMINADOS, String.valueOf(eliminacion.getParticipantesEliminados()))
+                .build();
     }
 }
 
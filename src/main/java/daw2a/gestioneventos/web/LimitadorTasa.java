@@ -0,0 +1,77 @@
+package daw2a.gestioneventos.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import daw2a.gestioneventos.config.LimiteTasaProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Cubo de fichas por cliente y grupo implementado como GCRA: en vez de fichas y última
+// reposición, cada cubo guarda un único long, el instante teórico de llegada (TAT) de la
+// siguiente petición, y se actualiza con un CAS. No hay candados: el mapa concurrente reparte
+// las claves entre sus cubetas y cada cliente sólo compite consigo mismo.
+//
+// Como mucho maxClientes cubos: por encima, Caffeine expulsa los menos usados, así que una
+// avalancha de clientes distintos no hace crecer la memoria entre purgas.
+public class LimitadorTasa {
+    private final Cache<String, AtomicLong> cubos;
+    private final LongSupplier reloj;
+
+    public LimitadorTasa(long maxClientes) {
+        this(maxClientes, System::nanoTime);
+    }
+
+    LimitadorTasa(long maxClientes, LongSupplier reloj) {
+        // Expulsión en el propio hilo: el tope se cumple ya, no cuando le toque al ForkJoinPool
+        this.cubos = Caffeine.newBuilder()
+                .maximumSize(maxClientes)
+                .executor(Runnable::run)
+                .build();
+        this.reloj = reloj;
+    }
+
+    public Decision intentar(String clave, LimiteTasaProperties.Grupo grupo) {
+        long intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / grupo.getPorSegundo());
+        long tolerancia = intervalo * grupo.getRafaga();
+        AtomicLong tat = cubos.get(clave, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long ahora = reloj.getAsLong();
+            long actual = tat.get();
+            long nuevo = Math.max(actual, ahora) + intervalo;
+            long ocupado = nuevo - ahora;
+            if (ocupado > tolerancia) {
+                // Rechazada: la siguiente ficha llega cuando el cubo baje de la tolerancia
+                return new Decision(false, grupo.getRafaga(), 0, segundos(ocupado), segundos(ocupado - tolerancia));
+            }
+            if (tat.compareAndSet(actual, nuevo)) {
+                int restantes = (int) ((tolerancia - ocupado) / intervalo);
+                return new Decision(true, grupo.getRafaga(), restantes, segundos(ocupado), 0);
+            }
+        }
+    }
+
+    // Quita los cubos que ya se han llenado del todo: equivalen a uno nuevo, y así los
+    // clientes que llevan un rato sin llamar no ocupan memoria
+    @Scheduled(fixedDelayString = "${gestioneventos.limite-tasa.purga:60s}")
+    public void purgar() {
+        long ahora = reloj.getAsLong();
+        cubos.asMap().values().removeIf(tat -> tat.get() <= ahora);
+    }
+
+    long cubos() {
+        cubos.cleanUp();
+        return cubos.estimatedSize();
+    }
+
+    private static long segundos(long nanos) {
+        return Math.max(0, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    // limite/restantes en fichas; reinicio: segundos hasta tener el cubo lleno;
+    // reintentarTras: segundos hasta la próxima ficha si se ha rechazado
+    public record Decision(boolean permitida, int limite, int restantes, long reinicio, long reintentarTras) {
+    }
+}
@@ -0,0 +1,98 @@
+package daw2a.gestioneventos.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import daw2a.gestioneventos.config.LimiteTasaProperties;
+import daw2a.gestioneventos.dto.ApiError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Aplica LimitadorTasa antes de llegar a los controladores. Toda respuesta limitada lleva
+// RateLimit-Limit, RateLimit-Remaining y RateLimit-Reset; las rechazadas, 429 con Retry-After
+// y el mismo cuerpo ApiError que ApiExceptionHandler. Se registra en LimiteTasaConfig.
+public class LimiteTasaFiltro extends OncePerRequestFilter {
+    static final String ALTAS_PATH = "/api/v1/participantes";
+
+    private final LimitadorTasa limitador;
+    private final LimiteTasaProperties propiedades;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registro;
+    private final Map<String, Counter> rechazadas = new ConcurrentHashMap<>();
+
+    public LimiteTasaFiltro(LimitadorTasa limitador, LimiteTasaProperties propiedades, ObjectMapper objectMapper,
+                            MeterRegistry registro) {
+        this.limitador = limitador;
+        this.propiedades = propiedades;
+        this.objectMapper = objectMapper;
+        this.registro = registro;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String nombreGrupo = grupo(request);
+        LimiteTasaProperties.Grupo grupo = nombreGrupo != null ? propiedades.getGrupos().get(nombreGrupo) : null;
+        if (grupo == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        LimitadorTasa.Decision decision = limitador.intentar(nombreGrupo + ":" + cliente(request), grupo);
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limite()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.restantes()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.reinicio()));
+        if (decision.permitida()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        rechazadas.computeIfAbsent(nombreGrupo, g -> Counter.builder("gestioneventos.limite-tasa.rechazadas")
+                .description("Peticiones rechazadas con 429 por superar el límite de tasa")
+                .tag("grupo", g)
+                .register(registro)).increment();
+        ApiError error = new ApiError();
+        error.setTimestamp(LocalDateTime.now());
+        error.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        error.setError(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        error.setMessage("Demasiadas peticiones; reintente en " + decision.reintentarTras() + " s");
+        error.setPath(request.getRequestURI());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, decision.reintentarTras())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    // null si la petición no está limitada
+    private static String grupo(HttpServletRequest request) {
+        String metodo = request.getMethod();
+        if (HttpMethod.POST.matches(metodo) && ALTAS_PATH.equals(request.getRequestURI())) {
+            return LimiteTasaProperties.ALTAS;
+        }
+        if (HttpMethod.GET.matches(metodo) || HttpMethod.HEAD.matches(metodo)) {
+            return LimiteTasaProperties.LECTURAS;
+        }
+        return null;
+    }
+
+    // La cabecera sin validar no sirve: cada valor inventado sería un cubo lleno nuevo
+    private String cliente(HttpServletRequest request) {
+        String clave = request.getHeader(propiedades.getCabeceraCliente());
+        if (clave != null && propiedades.getClavesApi().contains(clave)) {
+            return "clave:" + clave;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -1,7 +1,11 @@
 package daw2a.gestioneventos.web;
 
+import daw2a.gestioneventos.dto.EventoResponseDTO;
+import daw2a.gestioneventos.dto.OrganizadorConteoDTO;
 import daw2a.gestioneventos.dto.OrganizadorRequestDTO;
 import daw2a.gestioneventos.dto.OrganizadorResponseDTO;
+import daw2a.gestioneventos.dto.PaginaDTO;
+import daw2a.gestioneventos.dto.VentanaDTO;
 import daw2a.gestioneventos.servicio.OrganizadorServicio;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
@@ -10,6 +14,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @RequestMapping("/api/v1/organizadores")
 @RestController
 public class OrganizadorControlador {
@@ -21,9 +28,19 @@ public class OrganizadorControlador {
     }
 
     @GetMapping
-    public ResponseEntity<Page<OrganizadorResponseDTO>> listar(Pageable pageable) {
+    public ResponseEntity<PaginaDTO<OrganizadorResponseDTO>> listar(Pageable pageable) {
         Page<OrganizadorResponseDTO> organizadores = organizadorServicio.listarOrganizadores(pageable);
-        return ResponseEntity.ok(organizadores);
+        return ResponseEntity.ok(PaginaDTO.de(organizadores));
+    }
+
+    @GetMapping(params = "fields")
+    public ResponseEntity<PaginaDTO<Map<String, Object>>> listar(Pageable pageable, @RequestParam List<String> fields) {
+        return ResponseEntity.ok(PaginaDTO.de(organizadorServicio.listarOrganizadores(pageable, fields)));
+    }
+
+    @GetMapping("/lote")
+    public ResponseEntity<List<OrganizadorResponseDTO>> obtenerPorIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(organizadorServicio.obtenerPorIds(ids));
     }
 
     @GetMapping("/{id}")
@@ -32,6 +49,24 @@ public class OrganizadorControlador {
         return ResponseEntity.ok(organizador);
     }
 
+    @GetMapping(value = "/{id}", params = "soloConteo=true")
+    public ResponseEntity<OrganizadorConteoDTO> obtenerConteoPorId(@PathVariable Long id) {
+        return ResponseEntity.ok(organizadorServicio.obtenerConteoPorId(id));
+    }
+
+    // Recorrido por clave: ?despues=<siguiente de la página anterior>
+    @GetMapping("/{id}/eventos")
+    public ResponseEntity<VentanaDTO<EventoResponseDTO>> listarEventos(@PathVariable Long id,
+                                                                       @RequestParam(required = false) Long despues,
+                                                                       @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(organizadorServicio.listarEventos(id, despues, size));
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> obtenerPorId(@PathVariable Long id, @RequestParam List<String> fields) {
+        return ResponseEntity.ok(organizadorServicio.obtenerPorId(id, fields));
+    }
+
     @PostMapping
     public ResponseEntity<OrganizadorResponseDTO> crear(@Valid @RequestBody OrganizadorRequestDTO organizador) {
         OrganizadorResponseDTO creado = organizadorServicio.crearOrganizador(organizador);
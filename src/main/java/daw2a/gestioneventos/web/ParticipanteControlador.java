@@ -1,7 +1,11 @@
 package daw2a.gestioneventos.web;
 
+import daw2a.gestioneventos.dto.DisponibilidadDTO;
+import daw2a.gestioneventos.dto.PaginaDTO;
 import daw2a.gestioneventos.dto.ParticipanteRequestDTO;
 import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import daw2a.gestioneventos.dto.TicketIngestaDTO;
+import daw2a.gestioneventos.servicio.IngestaParticipantes;
 import daw2a.gestioneventos.servicio.ParticipanteServicio;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
@@ -10,20 +14,50 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api/v1/participantes")
 public class ParticipanteControlador {
 
+    static final String PREFER = "Prefer";
+    static final String PREFER_ASINCRONO = "respond-async";
+
     private final ParticipanteServicio participanteServicio;
+    private final IngestaParticipantes ingestaParticipantes;
 
-    public ParticipanteControlador(ParticipanteServicio participanteServicio) {
+    public ParticipanteControlador(ParticipanteServicio participanteServicio,
+                                   IngestaParticipantes ingestaParticipantes) {
         this.participanteServicio = participanteServicio;
+        this.ingestaParticipantes = ingestaParticipantes;
     }
 
+    // Con ?incluirArchivados=true también los de eventos archivados
     @GetMapping
-    public ResponseEntity<Page<ParticipanteResponseDTO>> listar(Pageable pageable) {
-        Page<ParticipanteResponseDTO> participantes = participanteServicio.listarParticipantes(pageable);
-        return ResponseEntity.ok(participantes);
+    public ResponseEntity<PaginaDTO<ParticipanteResponseDTO>> listar(Pageable pageable,
+                                                                     @RequestParam(defaultValue = "false") boolean incluirArchivados) {
+        Page<ParticipanteResponseDTO> participantes = participanteServicio.listarParticipantes(pageable, incluirArchivados);
+        return ResponseEntity.ok(PaginaDTO.de(participantes));
+    }
+
+    @GetMapping(params = "fields")
+    public ResponseEntity<PaginaDTO<Map<String, Object>>> listar(Pageable pageable, @RequestParam List<String> fields,
+                                                                 @RequestParam(defaultValue = "false") boolean incluirArchivados) {
+        return ResponseEntity.ok(PaginaDTO.de(participanteServicio.listarParticipantes(pageable, fields, incluirArchivados)));
+    }
+
+    @GetMapping("/lote")
+    public ResponseEntity<List<ParticipanteResponseDTO>> obtenerPorIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(participanteServicio.obtenerPorIds(ids));
+    }
+
+    // Respuesta rápida para el formulario de registro; el alta vuelve a comprobarlo
+    @GetMapping("/disponible")
+    public ResponseEntity<DisponibilidadDTO> disponible(@RequestParam String usuario) {
+        return ResponseEntity.ok(participanteServicio.usuarioDisponible(usuario));
     }
 
     @GetMapping("/{id}")
@@ -32,9 +66,45 @@ public class ParticipanteControlador {
         return ResponseEntity.ok(participante);
     }
 
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> obtenerPorId(@PathVariable Long id, @RequestParam List<String> fields) {
+        return ResponseEntity.ok(participanteServicio.obtenerPorId(id, fields));
+    }
+
+    // Con "Prefer: respond-async" (sola o junto a otras preferencias, p. ej. "respond-async, wait=5")
+    // el alta es asíncrona: 202 con el ticket y su URL de consulta; 429 con Retry-After si la cola
+    // está llena. Sin ella, 201 con el participante creado
     @PostMapping
-    public ResponseEntity<ParticipanteResponseDTO> crear(@Valid @RequestBody ParticipanteRequestDTO participante) {
+    public ResponseEntity<?> crear(@Valid @RequestBody ParticipanteRequestDTO participante,
+                                   @RequestHeader(name = PREFER, required = false) List<String> preferencias) {
+        if (pideAsincrono(preferencias)) {
+            TicketIngestaDTO ticket = ingestaParticipantes.encolar(participante);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/participantes/ingesta/" + ticket.getTicket()))
+                    .header("Preference-Applied", PREFER_ASINCRONO)
+                    .body(ticket);
+        }
         ParticipanteResponseDTO creado = participanteServicio.crearParticipante(participante);
         return ResponseEntity.status(HttpStatus.CREATED).body(creado);
     }
+
+    @GetMapping("/ingesta/{ticket}")
+    public ResponseEntity<TicketIngestaDTO> estadoIngesta(@PathVariable UUID ticket) {
+        return ResponseEntity.ok(ingestaParticipantes.estado(ticket));
+    }
+
+    // RFC 7240: cada preferencia es "token[=valor]" seguida de parámetros tras ";"; Spring ya
+    // separa por comas las preferencias de una cabecera y junta las de varias cabeceras Prefer
+    static boolean pideAsincrono(List<String> preferencias) {
+        if (preferencias == null) {
+            return false;
+        }
+        for (String preferencia : preferencias) {
+            String token = preferencia.split("[;=]", 2)[0].strip();
+            if (token.equalsIgnoreCase(PREFER_ASINCRONO)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,89 @@
+package daw2a.gestioneventos.benchmark;
+
+import daw2a.gestioneventos.dominio.Evento;
+import daw2a.gestioneventos.dominio.Organizador;
+import daw2a.gestioneventos.repo.EventoRepo;
+import daw2a.gestioneventos.repo.OrganizadorRepo;
+import daw2a.gestioneventos.web.CacheJsonEventos;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// GET /api/v1/eventos/id/{id} con los bytes JSON ya serializados en CacheJsonEventos frente
+// al camino normal (servicio + EventoMapper + Jackson, invalidando la caché antes de cada
+// petición): bytes reservados por petición en el hilo y latencia media, a través de MockMvc.
+// Se ejecuta con: gradle benchmark
+@Tag("benchmark")
+@SpringBootTest(properties = "gestioneventos.limite-tasa.habilitado=false")
+@AutoConfigureMockMvc
+class CacheJsonBenchmarkTest {
+
+    private static final int CALENTAMIENTO = 2_000;
+    private static final int ITERACIONES = 10_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrganizadorRepo organizadorRepo;
+
+    @Autowired
+    private EventoRepo eventoRepo;
+
+    @Autowired
+    private CacheJsonEventos cacheJsonEventos;
+
+    @Test
+    void obtenerPorId() throws Exception {
+        Organizador organizador = organizadorRepo.save(Organizador.builder().nombre("Bench JSON").build());
+        Long id = eventoRepo.save(Evento.builder().nombre("Bench JSON")
+                .descripcion("Descripción del evento " + " ".repeat(200))
+                .fechaInicio(LocalDateTime.of(2025, 3, 1, 10, 0))
+                .fechaFin(LocalDateTime.of(2025, 3, 2, 18, 0))
+                .organizador(organizador).build()).getId();
+        String url = "/api/v1/eventos/id/" + id;
+
+        Resultado normal = medir(url, () -> cacheJsonEventos.invalidar(id));
+        Resultado cacheado = medir(url, () -> { });
+
+        System.out.printf("%nGET /eventos/id/{id} (%d peticiones)%n", ITERACIONES);
+        System.out.printf("%-10s %14s %12s%n", "camino", "bytes/petición", "µs/petición");
+        System.out.printf("%-10s %14d %12.1f%n", "normal", normal.bytesPorPeticion(), normal.usPorPeticion());
+        System.out.printf("%-10s %14d %12.1f%n", "cacheado", cacheado.bytesPorPeticion(), cacheado.usPorPeticion());
+        assertThat(cacheado.bytesPorPeticion()).isLessThan(normal.bytesPorPeticion());
+    }
+
+    private Resultado medir(String url, Runnable antes) throws Exception {
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            antes.run();
+            peticion(url);
+        }
+        long reservadoInicio = hilos.getCurrentThreadAllocatedBytes();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            antes.run();
+            peticion(url);
+        }
+        long nanos = System.nanoTime() - inicio;
+        long reservado = hilos.getCurrentThreadAllocatedBytes() - reservadoInicio;
+        return new Resultado(reservado / ITERACIONES, nanos / 1000.0 / ITERACIONES);
+    }
+
+    private void peticion(String url) throws Exception {
+        mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON));
+    }
+
+    private record Resultado(long bytesPorPeticion, double usPorPeticion) {
+    }
+}
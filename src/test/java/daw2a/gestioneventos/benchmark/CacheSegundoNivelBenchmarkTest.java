@@ -0,0 +1,118 @@
+package daw2a.gestioneventos.benchmark;
+
+import daw2a.gestioneventos.dominio.Organizador;
+import daw2a.gestioneventos.dto.EventoRequestDTO;
+import daw2a.gestioneventos.repo.EventoRepo;
+import daw2a.gestioneventos.repo.OrganizadorRepo;
+import daw2a.gestioneventos.servicio.EventoServicio;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sentencias SQL y latencia de las rutas de escritura y de búsqueda por nombre, leyendo de la
+// caché de segundo nivel (USE) frente a ignorarla (BYPASS) en el mismo contexto.
+// Se ejecuta con: gradle benchmark
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CacheSegundoNivelBenchmarkTest {
+
+    private static final int ITERACIONES = 2000;
+
+    @Autowired
+    private EventoServicio eventoServicio;
+
+    @Autowired
+    private OrganizadorRepo organizadorRepo;
+
+    @Autowired
+    private EventoRepo eventoRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicInteger contador = new AtomicInteger();
+    private Statistics estadisticas;
+    private Long organizadorId;
+    private Long eventoId;
+
+    @BeforeAll
+    void preparar() {
+        estadisticas = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        organizadorId = organizadorRepo.save(Organizador.builder().nombre("Bench cache").build()).getId();
+        eventoId = eventoServicio.crearEvento(peticion("Bench cache evento")).getId();
+    }
+
+    @Test
+    void crearEvento() {
+        comparar("crearEvento", i -> eventoServicio.crearEvento(peticion("Bench " + contador.incrementAndGet())));
+    }
+
+    @Test
+    void actualizarEvento() {
+        comparar("actualizarEvento", i -> eventoServicio.actualizarEvento(eventoId,
+                new EventoRequestDTO(null, "Descripción " + contador.incrementAndGet(), null, null, organizadorId)));
+    }
+
+    // Directamente sobre el repositorio: obtenEventoPorNombre no se une a la transacción
+    // (VueloUnico), así que no vería el modo de caché fijado en ella
+    @Test
+    void findByNombre() {
+        comparar("findByNombre", i -> eventoRepo.findByNombre("Bench cache evento"));
+    }
+
+    private void comparar(String operacion, IntConsumer op) {
+        Resultado sinCache = medir(CacheRetrieveMode.BYPASS, op);
+        Resultado conCache = medir(CacheRetrieveMode.USE, op);
+        System.out.printf("%n%s%n", operacion);
+        System.out.printf("%-12s %14s %12s%n", "caché", "sentencias/op", "µs/op");
+        System.out.printf("%-12s %14.2f %12.1f%n", "BYPASS", sinCache.sentenciasPorOp(), sinCache.microsPorOp());
+        System.out.printf("%-12s %14.2f %12.1f%n", "USE", conCache.sentenciasPorOp(), conCache.microsPorOp());
+        assertThat(conCache.sentenciasPorOp()).isLessThan(sinCache.sentenciasPorOp());
+    }
+
+    // Cada operación en su transacción, con el modo de lectura de caché fijado en el EntityManager
+    private Resultado medir(CacheRetrieveMode modo, IntConsumer op) {
+        for (int i = 0; i < ITERACIONES / 4; i++) {
+            ejecutar(modo, op, i);
+        }
+        estadisticas.clear();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            ejecutar(modo, op, i);
+        }
+        long nanos = System.nanoTime() - inicio;
+        return new Resultado(estadisticas.getPrepareStatementCount() / (double) ITERACIONES,
+                nanos / 1000.0 / ITERACIONES);
+    }
+
+    private void ejecutar(CacheRetrieveMode modo, IntConsumer op, int i) {
+        transactionTemplate.executeWithoutResult(estado -> {
+            entityManager.setProperty("jakarta.persistence.cache.retrieveMode", modo);
+            op.accept(i);
+        });
+    }
+
+    private EventoRequestDTO peticion(String nombre) {
+        return new EventoRequestDTO(nombre, "Descripción", null, null, organizadorId);
+    }
+
+    private record Resultado(double sentenciasPorOp, double microsPorOp) {
+    }
+}
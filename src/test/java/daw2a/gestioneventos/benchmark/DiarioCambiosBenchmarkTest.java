@@ -0,0 +1,55 @@
+package daw2a.gestioneventos.benchmark;
+
+import daw2a.gestioneventos.config.DiarioProperties;
+import daw2a.gestioneventos.dto.CambioDTO;
+import daw2a.gestioneventos.dto.TipoCambio;
+import daw2a.gestioneventos.servicio.DiarioCambios;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Coste de anotar un cambio en el diario mapeado en memoria, con el hilo de sincronización
+// activo, y lo que tarda el último registro en estar en disco. Se ejecuta con: gradle benchmark
+@Tag("benchmark")
+class DiarioCambiosBenchmarkTest {
+
+    private static final int CALENTAMIENTO = 200_000;
+    private static final int ITERACIONES = 1_000_000;
+
+    @TempDir
+    private Path directorio;
+
+    @Test
+    void anotar() throws Exception {
+        DiarioProperties propiedades = new DiarioProperties();
+        propiedades.setDirectorio(directorio);
+        DiarioCambios diario = new DiarioCambios(propiedades);
+        diario.iniciar();
+        try {
+            for (int i = 0; i < CALENTAMIENTO; i++) {
+                diario.anotar(CambioDTO.participante(TipoCambio.CREADO, (long) i, 1L));
+            }
+            long inicio = System.nanoTime();
+            for (int i = 0; i < ITERACIONES; i++) {
+                diario.anotar(CambioDTO.participante(TipoCambio.CREADO, (long) i, 1L));
+            }
+            long nanos = System.nanoTime() - inicio;
+            long ultima = diario.ultimo();
+            long esperaInicio = System.nanoTime();
+            assertThat(diario.esperarSincronizado(ultima, Duration.ofSeconds(30))).isTrue();
+            long esperaNanos = System.nanoTime() - esperaInicio;
+
+            System.out.printf("%nDiarioCambios.anotar (%d registros)%n", ITERACIONES);
+            System.out.printf("%-28s %10.2f%n", "µs/anotación", nanos / 1000.0 / ITERACIONES);
+            System.out.printf("%-28s %10.1f%n", "ms hasta tenerlo en disco", esperaNanos / 1e6);
+            assertThat(nanos / ITERACIONES).isLessThan(20_000);
+        } finally {
+            diario.cerrar();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package daw2a.gestioneventos.benchmark;
+
+import daw2a.gestioneventos.dominio.Evento;
+import daw2a.gestioneventos.repo.EventoRepo;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Exportación de un evento con 100.000 asistentes en CSV y XLSX a través de toda la pila
+// (MockMvc + respuesta asíncrona + cursor JDBC + H2): tiempo y tamaño de la descarga.
+// Se ejecuta con: gradle benchmark
+@Tag("benchmark")
+@SpringBootTest(properties = {"gestioneventos.limite-tasa.habilitado=false", "spring.mvc.async.request-timeout=60s"})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportacionBenchmarkTest {
+
+    private static final int ASISTENTES = 100_000;
+    // Fuera del rango de la secuencia de participante
+    private static final long PRIMER_ID = 10_000_000L;
+    private static final int ITERACIONES = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventoRepo eventoRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long eventoId;
+
+    @BeforeAll
+    void cargarDatos() {
+        eventoId = eventoRepo.save(Evento.builder().nombre("Bench exportación").descripcion("d").build()).getId();
+        List<Object[]> filas = new ArrayList<>(ASISTENTES);
+        for (int i = 0; i < ASISTENTES; i++) {
+            filas.add(new Object[]{PRIMER_ID + i, "Asistente " + i, "exp" + i, "secreto", eventoId});
+        }
+        jdbcTemplate.batchUpdate("insert into participante (id, nombre, usuario, contrasenia, evento_id, eliminado) "
+                + "values (?, ?, ?, ?, ?, false)", filas);
+    }
+
+    @Test
+    void exportarCienMilAsistentes() throws Exception {
+        System.out.printf("%n%d asistentes%n%-6s %12s %10s%n", ASISTENTES, "formato", "bytes", "ms");
+        for (String formato : List.of("csv", "xlsx")) {
+            exportar(formato);
+            long inicio = System.nanoTime();
+            int bytes = 0;
+            for (int i = 0; i < ITERACIONES; i++) {
+                bytes = exportar(formato);
+            }
+            double ms = (System.nanoTime() - inicio) / 1_000_000.0 / ITERACIONES;
+            System.out.printf("%-6s %12d %10.0f%n", formato, bytes, ms);
+            assertThat(ms).isLessThan(10_000);
+        }
+    }
+
+    private int exportar(String formato) throws Exception {
+        MvcResult asincrona = mockMvc.perform(get("/api/v1/eventos/" + eventoId + "/participantes/export")
+                .param("formato", formato)).andReturn();
+        byte[] cuerpo = mockMvc.perform(asyncDispatch(asincrona)).andReturn().getResponse().getContentAsByteArray();
+        assertThat(cuerpo.length).isGreaterThan(ASISTENTES);
+        return cuerpo.length;
+    }
+}
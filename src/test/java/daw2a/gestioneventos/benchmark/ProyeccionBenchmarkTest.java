@@ -0,0 +1,105 @@
+package daw2a.gestioneventos.benchmark;
+
+import daw2a.gestioneventos.dominio.Evento;
+import daw2a.gestioneventos.dominio.Organizador;
+import daw2a.gestioneventos.repo.EventoRepo;
+import daw2a.gestioneventos.repo.OrganizadorRepo;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Respuesta completa frente a ?fields= (proyección en el SELECT): bytes y latencia media
+// a través de toda la pila (MockMvc + Hibernate + H2), sin límite de tasa.
+// Se ejecuta con: gradle benchmark
+@Tag("benchmark")
+@SpringBootTest(properties = "gestioneventos.limite-tasa.habilitado=false")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProyeccionBenchmarkTest {
+
+    private static final int ORGANIZADORES = 20;
+    private static final int EVENTOS_POR_ORGANIZADOR = 500;
+    private static final int CALENTAMIENTO = 20;
+    private static final int ITERACIONES = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrganizadorRepo organizadorRepo;
+
+    @Autowired
+    private EventoRepo eventoRepo;
+
+    @BeforeAll
+    void cargarDatos() {
+        for (int o = 0; o < ORGANIZADORES; o++) {
+            Organizador organizador = organizadorRepo.save(Organizador.builder().nombre("Bench " + o).build());
+            List<Evento> eventos = new ArrayList<>();
+            for (int e = 0; e < EVENTOS_POR_ORGANIZADOR; e++) {
+                eventos.add(Evento.builder().nombre("Bench " + o + "-" + e)
+                        .descripcion("Descripción larga del evento " + e + " ".repeat(200))
+                        .organizador(organizador).build());
+            }
+            eventoRepo.saveAll(eventos);
+        }
+    }
+
+    @Test
+    void organizadoresSinListaDeEventos() throws Exception {
+        Resultado completo = medir("/api/v1/organizadores?size=" + ORGANIZADORES);
+        Resultado parcial = medir("/api/v1/organizadores?size=" + ORGANIZADORES + "&fields=id,nombre");
+        informar("organizadores (size=" + ORGANIZADORES + ")", completo, parcial);
+        assertThat(parcial.bytes()).isLessThan(completo.bytes() / 10);
+    }
+
+    @Test
+    void eventosSoloIdYNombre() throws Exception {
+        Resultado completo = medir("/api/v1/eventos?size=1000");
+        Resultado parcial = medir("/api/v1/eventos?size=1000&fields=id,nombre");
+        informar("eventos (size=1000)", completo, parcial);
+        assertThat(parcial.bytes()).isLessThan(completo.bytes());
+    }
+
+    private Resultado medir(String url) throws Exception {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            peticion(url);
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            peticion(url);
+        }
+        long nanos = System.nanoTime() - inicio;
+        return new Resultado(peticion(url), nanos / 1_000_000.0 / ITERACIONES);
+    }
+
+    private int peticion(String url) throws Exception {
+        return mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+
+    private static void informar(String caso, Resultado completo, Resultado parcial) {
+        System.out.printf("%n%s%n", caso);
+        System.out.printf("%-10s %10s %12s%n", "respuesta", "bytes", "ms/petición");
+        System.out.printf("%-10s %10d %12.2f%n", "completa", completo.bytes(), completo.msPorPeticion());
+        System.out.printf("%-10s %10d %12.2f%n", "?fields", parcial.bytes(), parcial.msPorPeticion());
+        System.out.printf("ahorro: %.1f%% bytes, %.1f%% latencia%n",
+                100.0 * (completo.bytes() - parcial.bytes()) / completo.bytes(),
+                100.0 * (completo.msPorPeticion() - parcial.msPorPeticion()) / completo.msPorPeticion());
+    }
+
+    private record Resultado(int bytes, double msPorPeticion) {
+    }
+}
@@ -0,0 +1,88 @@
+package daw2a.gestioneventos.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import daw2a.gestioneventos.dto.EventoResponseDTO;
+import daw2a.gestioneventos.dto.PaginaDTO;
+import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Bytes en la red y tiempo de codificación de una página de 1000 elementos en cada formato.
+// Se ejecuta con: gradle benchmark
+@Tag("benchmark")
+class SerializacionBenchmarkTest {
+
+    private static final int ELEMENTOS = 1000;
+    private static final int CALENTAMIENTO = 500;
+    private static final int ITERACIONES = 2000;
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+    private final ObjectMapper smile = Jackson2ObjectMapperBuilder.smile().build();
+
+    @Test
+    void paginaDeEventos() throws Exception {
+        List<EventoResponseDTO> eventos = IntStream.range(0, ELEMENTOS)
+                .mapToObj(i -> new EventoResponseDTO((long) i, "Evento " + i,
+                        "2025-03-01T10:00", "2025-03-02T18:30", (long) (i % 50)))
+                .toList();
+        comparar("eventos", new PageImpl<>(eventos, PageRequest.of(0, ELEMENTOS), 100_000));
+    }
+
+    @Test
+    void paginaDeParticipantes() throws Exception {
+        List<ParticipanteResponseDTO> participantes = IntStream.range(0, ELEMENTOS)
+                .mapToObj(i -> new ParticipanteResponseDTO((long) i, "Participante " + i,
+                        "usuario" + i, (long) (i % 20), "Evento " + (i % 20)))
+                .toList();
+        comparar("participantes", new PageImpl<>(participantes, PageRequest.of(0, ELEMENTOS), 100_000));
+    }
+
+    private void comparar(String datos, Page<?> pagina) throws Exception {
+        PaginaDTO<?> plana = PaginaDTO.de(pagina);
+        Map<String, Resultado> resultados = new LinkedHashMap<>();
+        resultados.put("JSON Page (anterior)", medir(json, pagina));
+        resultados.put("JSON PaginaDTO", medir(json, plana));
+        resultados.put("CBOR PaginaDTO", medir(cbor, plana));
+        resultados.put("Smile PaginaDTO", medir(smile, plana));
+
+        int base = resultados.get("JSON Page (anterior)").bytes();
+        System.out.printf("%nPágina de %d %s%n", ELEMENTOS, datos);
+        System.out.printf("%-22s %10s %8s %14s%n", "formato", "bytes", "% base", "µs/codificar");
+        resultados.forEach((formato, r) -> System.out.printf("%-22s %10d %7.1f%% %14.1f%n",
+                formato, r.bytes(), 100.0 * r.bytes() / base, r.microsPorCodificacion()));
+
+        assertThat(resultados.get("JSON PaginaDTO").bytes()).isLessThan(base);
+        assertThat(resultados.get("CBOR PaginaDTO").bytes()).isLessThan(resultados.get("JSON PaginaDTO").bytes());
+        assertThat(resultados.get("Smile PaginaDTO").bytes()).isLessThan(resultados.get("JSON PaginaDTO").bytes());
+    }
+
+    private Resultado medir(ObjectMapper mapper, Object valor) throws Exception {
+        long acumulado = 0;
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            acumulado += mapper.writeValueAsBytes(valor).length;
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            acumulado += mapper.writeValueAsBytes(valor).length;
+        }
+        long nanos = System.nanoTime() - inicio;
+        // "acumulado" se usa para que el JIT no elimine las codificaciones
+        assertThat(acumulado).isPositive();
+        return new Resultado(mapper.writeValueAsBytes(valor).length, nanos / 1000.0 / ITERACIONES);
+    }
+
+    private record Resultado(int bytes, double microsPorCodificacion) {
+    }
+}
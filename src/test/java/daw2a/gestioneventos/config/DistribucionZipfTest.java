@@ -0,0 +1,50 @@
+package daw2a.gestioneventos.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DistribucionZipfTest {
+
+    private static final int MUESTRAS = 100_000;
+
+    @Test
+    void samplesStayInRangeAndLowRanksDominate() {
+        int[] veces = muestrear(new DistribucionZipf(100, 1.1), 100);
+
+        // Con exponente 1.1 el rango 0 se lleva en torno a la quinta parte de las muestras
+        assertThat(veces[0]).isGreaterThan(MUESTRAS / 6);
+        assertThat(veces[0]).isGreaterThan(veces[1]);
+        assertThat(veces[1]).isGreaterThan(veces[9]);
+        assertThat(veces[9]).isGreaterThan(veces[99]);
+        assertThat(veces[0]).isGreaterThan(50 * veces[99]);
+    }
+
+    @Test
+    void zeroExponentIsUniform() {
+        int[] veces = muestrear(new DistribucionZipf(10, 0), 10);
+
+        for (int v : veces) {
+            assertThat(v).isBetween(MUESTRAS / 10 * 9 / 10, MUESTRAS / 10 * 11 / 10);
+        }
+    }
+
+    @Test
+    void needsAtLeastOneElement() {
+        assertThatThrownBy(() -> new DistribucionZipf(0, 1.1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(new DistribucionZipf(1, 1.1).muestra(new SplittableRandom(1))).isZero();
+    }
+
+    // Cuántas veces sale cada rango; una muestra fuera de rango haría saltar el índice
+    private static int[] muestrear(DistribucionZipf distribucion, int n) {
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        int[] veces = new int[n];
+        for (int i = 0; i < MUESTRAS; i++) {
+            veces[distribucion.muestra(aleatorio)]++;
+        }
+        return veces;
+    }
+}
@@ -0,0 +1,154 @@
+package daw2a.gestioneventos.config;
+
+import daw2a.gestioneventos.dto.EventoRequestDTO;
+import daw2a.gestioneventos.dto.EventoResponseDTO;
+import daw2a.gestioneventos.dto.OrganizadorRequestDTO;
+import daw2a.gestioneventos.dto.OrganizadorResponseDTO;
+import daw2a.gestioneventos.dto.ParticipanteRequestDTO;
+import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import daw2a.gestioneventos.exception.CambioDeFragmentoException;
+import daw2a.gestioneventos.exception.EventoDuplicadoException;
+import daw2a.gestioneventos.exception.UsuarioYaExisteException;
+import daw2a.gestioneventos.repo.Fragmentos;
+import daw2a.gestioneventos.servicio.EventoServicio;
+import daw2a.gestioneventos.servicio.OrganizadorServicio;
+import daw2a.gestioneventos.servicio.ParticipanteServicio;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Tres bases H2 en memoria, una por fragmento. Se consulta cada una por separado para ver dónde
+// ha acabado cada fila.
+@SpringBootTest(properties = {
+        "gestioneventos.fragmentos.habilitado=true",
+        "gestioneventos.fragmentos.urls[0]=jdbc:h2:mem:fragmento0;DB_CLOSE_DELAY=-1",
+        "gestioneventos.fragmentos.urls[1]=jdbc:h2:mem:fragmento1;DB_CLOSE_DELAY=-1",
+        "gestioneventos.fragmentos.urls[2]=jdbc:h2:mem:fragmento2;DB_CLOSE_DELAY=-1",
+        "gestioneventos.datos-ejemplo.habilitado=false",
+        "gestioneventos.purga.habilitada=false",
+        "gestioneventos.limite-tasa.habilitado=false"
+})
+class FragmentosConfigTest {
+
+    @Autowired
+    private OrganizadorServicio organizadorServicio;
+
+    @Autowired
+    private EventoServicio eventoServicio;
+
+    @Autowired
+    private ParticipanteServicio participanteServicio;
+
+    @Autowired
+    private Fragmentos fragmentos;
+
+    @Autowired
+    private DataSourceFragmentado dataSourceFragmentado;
+
+    @Test
+    void eventsAndParticipantsLiveInTheirOrganizerShardAndReadsGatherAllShards() {
+        List<OrganizadorResponseDTO> organizadores = organizadoresEnFragmentosDistintos();
+        List<EventoResponseDTO> eventos = new ArrayList<>();
+        for (OrganizadorResponseDTO organizador : organizadores) {
+            eventos.add(eventoServicio.crearEvento(new EventoRequestDTO("Fragmentado " + organizador.getNombre(), "d",
+                    null, null, organizador.getId())));
+        }
+
+        for (int i = 0; i < eventos.size(); i++) {
+            EventoResponseDTO evento = eventos.get(i);
+            int fragmento = fragmentos.deOrganizador(organizadores.get(i).getId());
+            // El id lleva el fragmento, y la fila sólo está en esa base
+            assertThat(Fragmentos.deId(evento.getId())).isEqualTo(fragmento);
+            for (int f = 0; f < fragmentos.numero(); f++) {
+                assertThat(base(f).queryForObject("select count(*) from evento where id = ?", Long.class, evento.getId()))
+                        .isEqualTo(f == fragmento ? 1 : 0);
+            }
+            assertThat(eventoServicio.obtenEventoPorId(evento.getId()).getNombre()).isEqualTo(evento.getNombre());
+            assertThat(eventoServicio.obtenEventoPorNombre(evento.getNombre()).getId()).isEqualTo(evento.getId());
+        }
+
+        ParticipanteResponseDTO participante = participanteServicio.crearParticipante(
+                new ParticipanteRequestDTO("Ana", "anafrag", "secreto", eventos.get(2).getId()));
+        assertThat(Fragmentos.deId(participante.getId())).isEqualTo(Fragmentos.deId(eventos.get(2).getId()));
+        assertThat(participanteServicio.obtenerPorId(participante.getId()).getEventoId()).isEqualTo(eventos.get(2).getId());
+        // El usuario es único en todos los fragmentos
+        assertThatThrownBy(() -> participanteServicio.crearParticipante(
+                new ParticipanteRequestDTO("Ana", "anafrag", "secreto", eventos.get(0).getId())))
+                .isInstanceOf(UsuarioYaExisteException.class);
+
+        // "Fragmentado ..." va antes que cualquier otro evento de esta clase
+        Page<EventoResponseDTO> pagina = eventoServicio.listarEventos(PageRequest.of(0, 3, Sort.by("nombre")));
+        long total = IntStream.range(0, fragmentos.numero())
+                .mapToLong(f -> base(f).queryForObject("select count(*) from evento where eliminado = false", Long.class))
+                .sum();
+        assertThat(pagina.getTotalElements()).isEqualTo(total);
+        assertThat(pagina.getContent()).extracting(EventoResponseDTO::getNombre)
+                .containsExactlyElementsOf(eventos.stream().map(EventoResponseDTO::getNombre).sorted().toList());
+        assertThat(eventoServicio.buscarEventos("fragmentado")).extracting(EventoResponseDTO::getId)
+                .containsExactlyInAnyOrderElementsOf(eventos.stream().map(EventoResponseDTO::getId).toList());
+        assertThat(eventoServicio.obtenEventosPorIds(List.of(eventos.get(2).getId(), eventos.get(0).getId())))
+                .extracting(EventoResponseDTO::getId)
+                .containsExactly(eventos.get(2).getId(), eventos.get(0).getId());
+        assertThat(organizadorServicio.obtenerPorId(organizadores.get(1).getId()).getEventosIds())
+                .containsExactly(eventos.get(1).getId());
+    }
+
+    @Test
+    void organizersAreReplicatedAndNamesStayUniqueAcrossShards() {
+        List<OrganizadorResponseDTO> organizadores = organizadoresEnFragmentosDistintos();
+        for (int f = 0; f < fragmentos.numero(); f++) {
+            assertThat(base(f).queryForObject("select nombre from organizador where id = ?", String.class,
+                    organizadores.get(0).getId())).isEqualTo(organizadores.get(0).getNombre());
+        }
+
+        Long primero = organizadores.get(0).getId();
+        EventoResponseDTO evento = eventoServicio.crearEvento(new EventoRequestDTO("Único", "d", null, null, primero));
+        assertThatThrownBy(() -> eventoServicio.crearEvento(
+                new EventoRequestDTO("Único", "d", null, null, organizadores.get(1).getId())))
+                .isInstanceOf(EventoDuplicadoException.class);
+        // Pasar el evento a un organizador de otro fragmento no se permite
+        assertThatThrownBy(() -> eventoServicio.actualizarEvento(evento.getId(),
+                new EventoRequestDTO("Único", "d", null, null, organizadores.get(1).getId())))
+                .isInstanceOf(CambioDeFragmentoException.class);
+    }
+
+    @Test
+    void shardingAndReadReplicaTogetherShouldFailFastWithClearMessage() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(FragmentosConfig.class, RutaDataSourceConfig.class)
+                .withPropertyValues("gestioneventos.fragmentos.habilitado=true",
+                        "gestioneventos.datasource.replica.url=jdbc:h2:mem:replica")
+                .run(contexto -> assertThat(contexto).getFailure()
+                        .rootCause()
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("incompatibles"));
+    }
+
+    // Un organizador nuevo en cada fragmento
+    private List<OrganizadorResponseDTO> organizadoresEnFragmentosDistintos() {
+        List<OrganizadorResponseDTO> porFragmento = new ArrayList<>(Collections.nCopies(fragmentos.numero(), null));
+        String prefijo = "Org " + System.nanoTime() + " ";
+        for (int i = 0; porFragmento.contains(null); i++) {
+            OrganizadorResponseDTO organizador = organizadorServicio.crearOrganizador(new OrganizadorRequestDTO(prefijo + i));
+            porFragmento.set(fragmentos.deOrganizador(organizador.getId()), organizador);
+        }
+        return porFragmento;
+    }
+
+    private JdbcTemplate base(int fragmento) {
+        return new JdbcTemplate(dataSourceFragmentado.fragmento(fragmento));
+    }
+}
@@ -0,0 +1,67 @@
+package daw2a.gestioneventos.config;
+
+import daw2a.gestioneventos.dominio.Evento;
+import daw2a.gestioneventos.dominio.Participante;
+import daw2a.gestioneventos.repo.EventoRepo;
+import daw2a.gestioneventos.repo.ParticipanteRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// GeneradorDatos sólo existe con el perfil "generador"; aquí se construye a mano con volúmenes pequeños
+@DataJpaTest
+class GeneradorDatosTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EventoRepo eventoRepo;
+
+    @Autowired
+    private ParticipanteRepo participanteRepo;
+
+    @Test
+    void generarInsertsRequestedRowsAndLeavesSequencesAboveThem() throws Exception {
+        GeneradorDatosProperties props = new GeneradorDatosProperties();
+        props.setOrganizadores(5);
+        props.setEventos(20);
+        props.setParticipantes(500);
+        props.setTamanoLote(64);
+        props.setProductores(3);
+        long organizadores = contar("organizador");
+        long eventos = contar("evento");
+        long participantes = contar("participante");
+
+        new GeneradorDatos(jdbcTemplate, transactionManager, props).generar();
+
+        assertThat(contar("organizador")).isEqualTo(organizadores + 5);
+        assertThat(contar("evento")).isEqualTo(eventos + 20);
+        assertThat(contar("participante")).isEqualTo(participantes + 500);
+        // Los usuarios generados cumplen el @Size(min=6,max=15) de Participante
+        assertThat(jdbcTemplate.queryForObject("select count(*) from participante where length(usuario) not between 6 and 15",
+                Long.class)).isZero();
+
+        // Lo que inserte Hibernate después, también al pedir bloques nuevos a la secuencia (más de un
+        // allocationSize), no pisa el rango reservado por el generador
+        Long[] generados = jdbcTemplate.queryForObject(
+                "select min(id), max(id) from participante where nombre like 'Participante %'", (rs, n) -> new Long[]{rs.getLong(1), rs.getLong(2)});
+        Evento evento = eventoRepo.saveAndFlush(Evento.builder().nombre("Tras el generador").descripcion("d").build());
+        for (int i = 0; i < 120; i++) {
+            Participante participante = participanteRepo.saveAndFlush(Participante.builder().nombre("Ana")
+                    .usuario("trasgen" + i).contrasenia("secreto").evento(evento).build());
+            assertThat(participante.getId()).matches(id -> id < generados[0] || id > generados[1]);
+        }
+    }
+
+    private long contar(String tabla) {
+        return jdbcTemplate.queryForObject("select count(*) from " + tabla, Long.class);
+    }
+}
@@ -0,0 +1,69 @@
+package daw2a.gestioneventos.config;
+
+import daw2a.gestioneventos.dto.OrganizadorRequestDTO;
+import daw2a.gestioneventos.dto.OrganizadorResponseDTO;
+import daw2a.gestioneventos.servicio.OrganizadorServicio;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Dos bases H2 en memoria: "principal" (la de la aplicación) y "replica". El esquema se copia
+// a la réplica con SCRIPT/RUNSCRIPT, pero los datos no se replican, así que se puede ver a qué
+// base ha ido cada operación.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:principal;DB_CLOSE_DELAY=-1",
+        "gestioneventos.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "gestioneventos.datasource.replica.username=sa",
+        "gestioneventos.datasource.replica.password=sa",
+        "gestioneventos.datos-ejemplo.habilitado=false",
+        "gestioneventos.purga.habilitada=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RutaDataSourceTest {
+
+    @Autowired
+    private OrganizadorServicio organizadorServicio;
+
+    private JdbcTemplate principal;
+    private JdbcTemplate replica;
+
+    @BeforeAll
+    void copiarEsquema(@TempDir Path directorio) throws SQLException {
+        principal = conectar("principal");
+        replica = conectar("replica");
+        String script = directorio.resolve("esquema.sql").toString();
+        principal.execute("SCRIPT NODATA TO '" + script + "'");
+        replica.execute("RUNSCRIPT FROM '" + script + "'");
+    }
+
+    @Test
+    void writesGoToPrimaryAndReadOnlyTransactionsToReplica() {
+        OrganizadorResponseDTO creado = organizadorServicio.crearOrganizador(new OrganizadorRequestDTO("Solo en principal"));
+        replica.update("insert into organizador (id, nombre) values (?, ?)", 999_999L, "Solo en replica");
+
+        assertThat(principal.queryForObject("select count(*) from organizador where id = ?", Long.class, creado.getId()))
+                .isEqualTo(1);
+        assertThat(replica.queryForObject("select count(*) from organizador where id = ?", Long.class, creado.getId()))
+                .isZero();
+
+        // listarOrganizadores es de sólo lectura: sólo ve lo que hay en la réplica
+        assertThat(organizadorServicio.listarOrganizadores(PageRequest.of(0, 10)))
+                .extracting(OrganizadorResponseDTO::getNombre)
+                .containsExactly("Solo en replica");
+    }
+
+    private static JdbcTemplate conectar(String base) throws SQLException {
+        return new JdbcTemplate(new SingleConnectionDataSource("jdbc:h2:mem:" + base + ";DB_CLOSE_DELAY=-1", "sa", "sa", true));
+    }
+}
@@ -1,9 +1,12 @@
 package daw2a.gestioneventos.repo;
 
 import daw2a.gestioneventos.dominio.Evento;
+import daw2a.gestioneventos.dominio.Organizador;
+import daw2a.gestioneventos.dominio.Participante;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 
@@ -15,6 +18,12 @@ class EventoRepoTest {
     @Autowired
     private EventoRepo eventoRepo;
 
+    @Autowired
+    private ParticipanteRepo participanteRepo;
+
+    @Autowired
+    private OrganizadorRepo organizadorRepo;
+
     @Test
     void findByNombreContainingIgnoreCaseShouldReturnResults() {
         Evento e1 = Evento.builder().nombre("Java Conference").descripcion("x").build();
@@ -26,5 +35,46 @@ class EventoRepoTest {
         assertThat(found).isNotEmpty();
         assertThat(found.get(0).getNombre()).containsIgnoringCase("java");
     }
-}
 
+    @Test
+    void softDeleteShouldHideEventAndParticipants() {
+        Organizador organizador = organizadorRepo.save(Organizador.builder().nombre("ACME").build());
+        Evento evento = eventoRepo.save(Evento.builder().nombre("Borrable").descripcion("x")
+                .organizador(organizador).build());
+        for (int i = 0; i < 3; i++) {
+            participanteRepo.save(Participante.builder().nombre("P" + i).usuario("usuario" + i)
+                    .contrasenia("secreto").evento(evento).build());
+        }
+
+        assertThat(participanteRepo.marcarEliminadosPorEvento(evento.getId())).isEqualTo(3);
+        assertThat(eventoRepo.marcarEliminado(evento.getId())).isEqualTo(1);
+
+        assertThat(eventoRepo.findById(evento.getId())).isEmpty();
+        assertThat(eventoRepo.findByNombre("Borrable")).isNull();
+        assertThat(participanteRepo.count()).isZero();
+        assertThat(participanteRepo.findByUsuario("usuario0")).isEmpty();
+        assertThat(organizadorRepo.findById(organizador.getId()).orElseThrow().getEventos()).isEmpty();
+        // Hasta la purga siguen ocupando el nombre y los usuarios
+        assertThat(eventoRepo.existsByNombre("Borrable")).isTrue();
+        assertThat(participanteRepo.existsByUsuario("usuario0")).isTrue();
+    }
+
+    @Test
+    void keysetByOrganizadorShouldWalkEventsInIdOrder() {
+        Organizador acme = organizadorRepo.save(Organizador.builder().nombre("ACME").build());
+        Organizador otro = organizadorRepo.save(Organizador.builder().nombre("Otro").build());
+        for (int i = 0; i < 5; i++) {
+            eventoRepo.save(Evento.builder().nombre("ACME " + i).descripcion("x").organizador(acme).build());
+            eventoRepo.save(Evento.builder().nombre("Otro " + i).descripcion("x").organizador(otro).build());
+        }
+
+        List<Evento> primera = eventoRepo.findByOrganizadorIdAndIdGreaterThanOrderByIdAsc(acme.getId(),
+                Long.MIN_VALUE, Limit.of(3));
+        List<Evento> segunda = eventoRepo.findByOrganizadorIdAndIdGreaterThanOrderByIdAsc(acme.getId(),
+                primera.getLast().getId(), Limit.of(3));
+
+        assertThat(primera).extracting(Evento::getNombre).containsExactly("ACME 0", "ACME 1", "ACME 2");
+        assertThat(segunda).extracting(Evento::getNombre).containsExactly("ACME 3", "ACME 4");
+        assertThat(eventoRepo.countByOrganizadorId(acme.getId())).isEqualTo(5);
+    }
+}
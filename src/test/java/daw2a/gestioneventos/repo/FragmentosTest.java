@@ -0,0 +1,113 @@
+package daw2a.gestioneventos.repo;
+
+import daw2a.gestioneventos.config.FragmentosProperties;
+import daw2a.gestioneventos.exception.PaginaDemasiadoProfundaException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FragmentosTest {
+
+    @Test
+    void idsShouldCarryTheirShardInTheHighBits() {
+        assertThat(Fragmentos.deId(Fragmentos.primerId(3) + 12345)).isEqualTo(3);
+        assertThat(Fragmentos.deId(12345L)).isZero();
+        assertThat(Fragmentos.deId(null)).isZero();
+    }
+
+    @Test
+    void ringShouldSpreadOrganizersAndMoveFewWhenAShardIsAdded() {
+        Fragmentos tres = fragmentos(3);
+        Fragmentos cuatro = fragmentos(4);
+
+        Map<Integer, Long> reparto = LongStream.rangeClosed(1, 30_000).boxed()
+                .collect(Collectors.groupingBy(tres::deOrganizador, Collectors.counting()));
+        assertThat(reparto).hasSize(3);
+        assertThat(reparto.values()).allSatisfy(n -> assertThat(n).isBetween(7_000L, 13_000L));
+
+        // Sólo cambian de fragmento los que pasan al nuevo
+        long movidos = LongStream.rangeClosed(1, 30_000)
+                .filter(id -> tres.deOrganizador(id) != cuatro.deOrganizador(id))
+                .peek(id -> assertThat(cuatro.deOrganizador(id)).isEqualTo(3))
+                .count();
+        assertThat(movidos).isBetween(4_000L, 11_000L);
+        assertThat(fragmentos(1).deOrganizador(42L)).isZero();
+    }
+
+    @Test
+    void primerasShouldRejectPagesTooDeepToMerge() {
+        assertThat(Fragmentos.primeras(PageRequest.of(4, 2000)).getPageSize()).isEqualTo(10_000);
+        assertThatThrownBy(() -> Fragmentos.primeras(PageRequest.of(5000, 2000)))
+                .isInstanceOf(PaginaDemasiadoProfundaException.class);
+        // Sin desbordar el int aunque offset + size no quepa en él
+        assertThatThrownBy(() -> Fragmentos.primeras(PageRequest.of(Integer.MAX_VALUE, 2000)))
+                .isInstanceOf(PaginaDemasiadoProfundaException.class);
+    }
+
+    @Test
+    void reunirPaginaShouldMergeShardPagesInRequestedOrder() {
+        Fragmentos fragmentos = fragmentos(3);
+        // Fila (id, nombre); cada fragmento ordena las suyas como se le pide
+        Map<Integer, List<Fila>> porFragmento = Map.of(
+                0, List.of(new Fila(1, "c"), new Fila(2, "f"), new Fila(3, "a")),
+                1, List.of(new Fila(Fragmentos.primerId(1) + 1, "b"), new Fila(Fragmentos.primerId(1) + 2, "e")),
+                2, List.of(new Fila(Fragmentos.primerId(2) + 1, "d")));
+
+        Page<Fila> pagina = fragmentos.reunirPagina(PageRequest.of(1, 2, Sort.by("nombre")),
+                p -> pagina(porFragmento.get(Fragmentos.actual()), p), Fragmentos::propiedad);
+
+        assertThat(pagina.getTotalElements()).isEqualTo(6);
+        assertThat(pagina.getTotalPages()).isEqualTo(3);
+        assertThat(pagina.getContent()).extracting(Fila::getNombre).containsExactly("c", "d");
+
+        Page<Fila> porId = fragmentos.reunirPagina(PageRequest.of(0, 4),
+                p -> pagina(porFragmento.get(Fragmentos.actual()), p), Fragmentos::propiedad);
+        assertThat(porId.getContent()).extracting(Fila::getId)
+                .containsExactly(1L, 2L, 3L, Fragmentos.primerId(1) + 1);
+    }
+
+    private static Page<Fila> pagina(List<Fila> filas, Pageable pageable) {
+        Comparator<Fila> orden = pageable.getSort().getOrderFor("nombre") != null
+                ? Comparator.comparing(Fila::getNombre) : Comparator.comparing(Fila::getId);
+        List<Fila> ordenadas = filas.stream().sorted(orden).toList();
+        return new PageImpl<>(ordenadas.stream().limit(pageable.getPageSize()).toList(), pageable, filas.size());
+    }
+
+    private static Fragmentos fragmentos(int numero) {
+        FragmentosProperties propiedades = new FragmentosProperties();
+        propiedades.setHabilitado(true);
+        propiedades.setUrls(LongStream.range(0, numero).mapToObj(i -> "jdbc:h2:mem:f" + i).toList());
+        return new Fragmentos(propiedades);
+    }
+
+    // Getters para que Fragmentos.propiedad pueda leer los campos
+    public static class Fila {
+        private final long id;
+        private final String nombre;
+
+        Fila(long id, String nombre) {
+            this.id = id;
+            this.nombre = nombre;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package daw2a.gestioneventos.repo;
+
+import daw2a.gestioneventos.dominio.Evento;
+import daw2a.gestioneventos.exception.LoteDemasiadoGrandeException;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(LoteRepo.class)
+class LoteRepoTest {
+
+    @Autowired
+    private LoteRepo loteRepo;
+
+    @Autowired
+    private EventoRepo eventoRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void cargarShouldKeepRequestOrderAndSkipMissingAndRepeatedIds() {
+        Evento a = eventoRepo.save(Evento.builder().nombre("A").descripcion("x").build());
+        Evento b = eventoRepo.save(Evento.builder().nombre("B").descripcion("y").build());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Evento> eventos = loteRepo.cargar(Evento.class, List.of(b.getId(), -1L, a.getId(), b.getId()));
+
+        assertThat(eventos).extracting(Evento::getNombre).containsExactly("B", "A");
+    }
+
+    @Test
+    void cargarShouldUseOneQueryPerChunk() {
+        List<Evento> nuevos = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            nuevos.add(Evento.builder().nombre("E" + i).descripcion("d").build());
+        }
+        List<Long> ids = eventoRepo.saveAll(nuevos).stream().map(Evento::getId).toList();
+        entityManager.flush();
+        entityManager.clear();
+        Statistics estadisticas = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        assertThat(loteRepo.cargar(Evento.class, ids)).hasSize(1200);
+        // 1200 ids en trozos de 500: tres SELECT ... IN (...)
+        assertThat(estadisticas.getPrepareStatementCount())
+                .isEqualTo((1200 + LoteRepo.TAMANO_TROZO - 1) / LoteRepo.TAMANO_TROZO);
+    }
+
+    @Test
+    void cargarShouldRejectTooManyIds() {
+        List<Long> ids = LongStream.rangeClosed(1, LoteRepo.MAXIMO_IDS + 1).boxed().toList();
+
+        assertThatExceptionOfType(LoteDemasiadoGrandeException.class)
+                .isThrownBy(() -> loteRepo.cargar(Evento.class, ids));
+    }
+}
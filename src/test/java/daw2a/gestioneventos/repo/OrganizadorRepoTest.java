@@ -1,6 +1,8 @@
 package daw2a.gestioneventos.repo;
 
+import daw2a.gestioneventos.dominio.Evento;
 import daw2a.gestioneventos.dominio.Organizador;
+import daw2a.gestioneventos.dto.OrganizadorConteoDTO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -15,6 +17,9 @@ class OrganizadorRepoTest {
     @Autowired
     private OrganizadorRepo organizadorRepo;
 
+    @Autowired
+    private EventoRepo eventoRepo;
+
     @Test
     void findByNombreContainingIgnoreCaseShouldReturnResults() {
         Organizador o1 = Organizador.builder().nombre("ACME Org").build();
@@ -26,4 +31,20 @@ class OrganizadorRepoTest {
         assertThat(found).isNotEmpty();
         assertThat(found.get(0).getNombre()).containsIgnoringCase("acme");
     }
+
+    @Test
+    void conteoPorIdShouldCountLiveEventsOnly() {
+        Organizador acme = organizadorRepo.save(Organizador.builder().nombre("ACME").build());
+        Organizador vacio = organizadorRepo.save(Organizador.builder().nombre("Vacío").build());
+        for (int i = 0; i < 3; i++) {
+            eventoRepo.save(Evento.builder().nombre("Evento " + i).descripcion("x").organizador(acme).build());
+        }
+        eventoRepo.marcarEliminado(eventoRepo.findByNombre("Evento 0").getId());
+
+        OrganizadorConteoDTO conteo = organizadorRepo.conteoPorId(acme.getId()).orElseThrow();
+        assertThat(conteo.getNombre()).isEqualTo("ACME");
+        assertThat(conteo.getNumEventos()).isEqualTo(2);
+        assertThat(organizadorRepo.conteoPorId(vacio.getId()).orElseThrow().getNumEventos()).isZero();
+        assertThat(organizadorRepo.conteoPorId(-1L)).isEmpty();
+    }
 }
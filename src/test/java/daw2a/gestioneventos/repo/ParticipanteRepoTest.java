@@ -1,9 +1,12 @@
 package daw2a.gestioneventos.repo;
 
+import daw2a.gestioneventos.dominio.Evento;
 import daw2a.gestioneventos.dominio.Participante;
+import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 
@@ -15,6 +18,9 @@ class ParticipanteRepoTest {
     @Autowired
     private ParticipanteRepo participanteRepo;
 
+    @Autowired
+    private EventoRepo eventoRepo;
+
     @Test
     void findByNombreContainingIgnoreCaseShouldReturnResults() {
         Participante p1 = Participante.builder().nombre("Alice").usuario("alice01").contrasenia("secret").build();
@@ -26,4 +32,29 @@ class ParticipanteRepoTest {
         assertThat(found).isNotEmpty();
         assertThat(found.get(0).getNombre()).containsIgnoringCase("ali");
     }
+
+    @Test
+    void ventanaPorEventoShouldWalkEventParticipantsFilteredByPrefix() {
+        Evento evento = eventoRepo.save(Evento.builder().nombre("Congreso").descripcion("x").build());
+        Evento otro = eventoRepo.save(Evento.builder().nombre("Taller").descripcion("y").build());
+        for (String nombre : List.of("Ana", "Andrés", "Bea", "anabel", "100%_real")) {
+            participanteRepo.save(Participante.builder().nombre(nombre).usuario("c-" + nombre.hashCode())
+                    .contrasenia("secreto").evento(evento).build());
+        }
+        participanteRepo.save(Participante.builder().nombre("Ana").usuario("taller-ana")
+                .contrasenia("secreto").evento(otro).build());
+
+        List<ParticipanteResponseDTO> primera = participanteRepo.ventanaPorEvento(evento.getId(), Long.MIN_VALUE,
+                null, Limit.of(3));
+        List<ParticipanteResponseDTO> segunda = participanteRepo.ventanaPorEvento(evento.getId(),
+                primera.getLast().getId(), null, Limit.of(3));
+
+        assertThat(primera).extracting(ParticipanteResponseDTO::getNombre).containsExactly("Ana", "Andrés", "Bea");
+        assertThat(primera.get(0).getEventoNombre()).isEqualTo("Congreso");
+        assertThat(segunda).extracting(ParticipanteResponseDTO::getNombre).containsExactly("anabel", "100%_real");
+        assertThat(participanteRepo.ventanaPorEvento(evento.getId(), Long.MIN_VALUE, "ana%", Limit.of(10)))
+                .extracting(ParticipanteResponseDTO::getNombre).containsExactly("Ana", "anabel");
+        assertThat(participanteRepo.contarPorEvento(evento.getId(), "100\\%%")).isEqualTo(1);
+        assertThat(participanteRepo.contarPorEvento(evento.getId(), null)).isEqualTo(5);
+    }
 }
@@ -0,0 +1,77 @@
+package daw2a.gestioneventos.repo;
+
+import daw2a.gestioneventos.dominio.Evento;
+import daw2a.gestioneventos.dominio.Organizador;
+import daw2a.gestioneventos.exception.CampoNoValidoException;
+import daw2a.gestioneventos.mapper.EventoMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+@DataJpaTest
+@Import(ProyeccionRepo.class)
+class ProyeccionRepoTest {
+
+    @Autowired
+    private ProyeccionRepo proyeccionRepo;
+
+    @Autowired
+    private EventoRepo eventoRepo;
+
+    @Autowired
+    private OrganizadorRepo organizadorRepo;
+
+    @Test
+    void listarShouldReturnOnlyRequestedFieldsInRequestedOrder() {
+        Organizador org = organizadorRepo.save(Organizador.builder().nombre("ACME").build());
+        eventoRepo.save(Evento.builder().nombre("A").descripcion("x").organizador(org)
+                .fechaInicio(LocalDateTime.of(2025, 3, 1, 10, 0)).build());
+        eventoRepo.save(Evento.builder().nombre("B").descripcion("y").build());
+
+        Page<Map<String, Object>> page = proyeccionRepo.listar(Evento.class,
+                CampoProyectado.seleccionar(EventoMapper.CAMPOS, List.of("nombre", "fechaInicio", "organizadorId")),
+                PageRequest.of(0, 10, Sort.by("nombre")));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent().get(0)).containsOnlyKeys("nombre", "fechaInicio", "organizadorId");
+        assertThat(page.getContent().get(0).keySet()).containsExactly("nombre", "fechaInicio", "organizadorId");
+        assertThat(page.getContent().get(0)).containsEntry("fechaInicio", "2025-03-01T10:00")
+                .containsEntry("organizadorId", org.getId());
+        // Eventos sin organizador: el id del organizador sale del FK, sin join que los descarte
+        assertThat(page.getContent().get(1)).containsEntry("nombre", "B").containsEntry("organizadorId", null);
+    }
+
+    @Test
+    void buscarPorShouldReturnEmptyWhenMissing() {
+        assertThat(proyeccionRepo.buscarPor(Evento.class,
+                CampoProyectado.seleccionar(EventoMapper.CAMPOS, List.of("id")), "id", 999L)).isEmpty();
+    }
+
+    @Test
+    void idsEventosPorOrganizadorShouldGroupByOrganizer() {
+        Organizador org = organizadorRepo.save(Organizador.builder().nombre("ACME").build());
+        Evento e1 = eventoRepo.save(Evento.builder().nombre("A").descripcion("x").organizador(org).build());
+        Evento e2 = eventoRepo.save(Evento.builder().nombre("B").descripcion("y").organizador(org).build());
+
+        assertThat(proyeccionRepo.idsEventosPorOrganizador(List.of(org.getId())))
+                .containsEntry(org.getId(), List.of(e1.getId(), e2.getId()));
+    }
+
+    @Test
+    void seleccionarShouldRejectUnknownFields() {
+        assertThatExceptionOfType(CampoNoValidoException.class)
+                .isThrownBy(() -> CampoProyectado.seleccionar(EventoMapper.CAMPOS, List.of("id", "descripcion")))
+                .withMessageContaining("descripcion");
+    }
+}
@@ -0,0 +1,162 @@
+package daw2a.gestioneventos.servicio;
+
+import daw2a.gestioneventos.config.ArchivadoProperties;
+import daw2a.gestioneventos.config.FragmentosProperties;
+import daw2a.gestioneventos.dominio.Evento;
+import daw2a.gestioneventos.dominio.EventoArchivado;
+import daw2a.gestioneventos.dominio.Participante;
+import daw2a.gestioneventos.dto.CambioDTO;
+import daw2a.gestioneventos.dto.TipoCambio;
+import daw2a.gestioneventos.repo.EventoArchivadoRepo;
+import daw2a.gestioneventos.repo.EventoRepo;
+import daw2a.gestioneventos.repo.Fragmentos;
+import daw2a.gestioneventos.repo.ParticipanteArchivadoRepo;
+import daw2a.gestioneventos.repo.ParticipanteRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {"gestioneventos.archivado.tamano-lote=1", "gestioneventos.archivado.pausa=0"})
+@Import({ArchivadoEventos.class, Fragmentos.class, ArchivadoEventosTest.Configuracion.class})
+@RecordApplicationEvents
+class ArchivadoEventosTest {
+
+    @Autowired
+    private ArchivadoEventos archivadoEventos;
+
+    @Autowired
+    private EventoRepo eventoRepo;
+
+    @Autowired
+    private ParticipanteRepo participanteRepo;
+
+    @Autowired
+    private EventoArchivadoRepo eventoArchivadoRepo;
+
+    @Autowired
+    private ParticipanteArchivadoRepo participanteArchivadoRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ArchivadoProperties propiedades;
+
+    @Autowired
+    private Fragmentos fragmentos;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void archivarShouldMoveFinishedEventsAndTheirParticipantsInChunks() throws Exception {
+        Evento viejo = evento("Viejo", LocalDateTime.now().minusYears(1));
+        Evento otroViejo = evento("Otro viejo", LocalDateTime.now().minusDays(31));
+        Evento reciente = evento("Reciente", LocalDateTime.now().minusDays(1));
+        Evento sinFecha = evento("Sin fecha", null);
+        for (int i = 0; i < 3; i++) {
+            participanteRepo.save(Participante.builder().nombre("P" + i).usuario("viejo00" + i)
+                    .contrasenia("secreto").evento(viejo).build());
+        }
+        participanteRepo.saveAndFlush(Participante.builder().nombre("Q").usuario("reciente")
+                .contrasenia("secreto").evento(reciente).build());
+
+        archivadoEventos.archivar();
+
+        assertThat(jdbcTemplate.queryForList("select nombre from evento order by id", String.class))
+                .containsExactly(reciente.getNombre(), sinFecha.getNombre());
+        assertThat(jdbcTemplate.queryForObject("select count(*) from participante", Long.class)).isEqualTo(1);
+        EventoArchivado archivado = eventoArchivadoRepo.findById(viejo.getId()).orElseThrow();
+        assertThat(archivado.getNombre()).isEqualTo("Viejo");
+        assertThat(archivado.getArchivado()).isNotNull();
+        assertThat(eventoArchivadoRepo.findById(otroViejo.getId())).isPresent();
+        assertThat(participanteArchivadoRepo.findAll()).hasSize(3)
+                .allMatch(p -> p.getEvento().getId().equals(viejo.getId()));
+        // El usuario de un participante archivado sigue ocupado
+        assertThat(participanteRepo.existsByUsuario("viejo001")).isTrue();
+
+        // Lotes de 1: uno por evento y uno vacío que termina
+        assertThat(registro.get("gestioneventos.archivado.filas").tag("tabla", "evento").counter().count())
+                .isEqualTo(2);
+        assertThat(registro.get("gestioneventos.archivado.filas").tag("tabla", "participante").counter().count())
+                .isEqualTo(3);
+        assertThat(registro.get("gestioneventos.archivado.lote").timer().count()).isEqualTo(3);
+        assertThat(eventos.stream(CambioDTO.class))
+                .allMatch(c -> c.getTipo() == TipoCambio.ARCHIVADO)
+                .extracting(CambioDTO::getId)
+                .containsExactly(viejo.getId(), otroViejo.getId());
+    }
+
+    @Test
+    void aParticipantAddedAfterTheCopyShouldNeverBeDeletedWithoutBeingArchived() {
+        Evento viejo = evento("Viejo", LocalDateTime.now().minusYears(1));
+        participanteRepo.saveAndFlush(Participante.builder().nombre("P").usuario("viejo000")
+                .contrasenia("secreto").evento(viejo).build());
+        // Alta que llega justo después de copiar los participantes del lote
+        JdbcTemplate conAltaTardia = new JdbcTemplate(dataSource) {
+            @Override
+            public int update(PreparedStatementCreator sentencia) {
+                int filas = super.update(sentencia);
+                if (sentencia instanceof SqlProvider sql && sql.getSql().startsWith("insert into participante_archivado")) {
+                    participanteRepo.saveAndFlush(Participante.builder().nombre("Tarde").usuario("tardio00")
+                            .contrasenia("secreto").evento(viejo).build());
+                }
+                return filas;
+            }
+        };
+        ArchivadoEventos archivado = new ArchivadoEventos(conAltaTardia, transactionTemplate, propiedades,
+                fragmentos, entityManagerFactory, event -> { }, new SimpleMeterRegistry());
+
+        // El evento ya no se puede borrar: el lote falla en lugar de perder el alta
+        assertThatThrownBy(archivado::archivar).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from participante where usuario = 'tardio00'",
+                Long.class)).isEqualTo(1);
+    }
+
+    private Evento evento(String nombre, LocalDateTime fin) {
+        return eventoRepo.saveAndFlush(Evento.builder().nombre(nombre).descripcion("d")
+                .fechaInicio(fin != null ? fin.minusDays(1) : null).fechaFin(fin).build());
+    }
+
+    @TestConfiguration
+    @EnableConfigurationProperties({ArchivadoProperties.class, FragmentosProperties.class})
+    static class Configuracion {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package daw2a.gestioneventos.servicio;
+
+import daw2a.gestioneventos.config.FragmentosProperties;
+import daw2a.gestioneventos.dto.CambioDTO;
+import daw2a.gestioneventos.dto.EventoResponseDTO;
+import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import daw2a.gestioneventos.dto.SugerenciaDTO;
+import daw2a.gestioneventos.dto.TipoCambio;
+import daw2a.gestioneventos.exception.CampoNoValidoException;
+import daw2a.gestioneventos.repo.EventoRepo;
+import daw2a.gestioneventos.repo.Fragmentos;
+import daw2a.gestioneventos.repo.ParticipanteRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AutocompletadoTest {
+
+    private final EventoRepo eventoRepo = mock(EventoRepo.class);
+    private final ParticipanteRepo participanteRepo = mock(ParticipanteRepo.class);
+    private Autocompletado autocompletado;
+
+    @BeforeEach
+    void setUp() {
+        when(eventoRepo.sugerencias()).thenReturn(List.of(
+                new SugerenciaDTO(1L, "Java Conference"),
+                new SugerenciaDTO(2L, "JavaScript Day"),
+                new SugerenciaDTO(3L, "Jornadas Ágiles"),
+                new SugerenciaDTO(4L, "Spring Workshop")));
+        when(participanteRepo.sugerencias()).thenReturn(List.of(
+                new SugerenciaDTO(10L, "anagarcia", 1L),
+                new SugerenciaDTO(11L, "anabel", 2L),
+                new SugerenciaDTO(12L, "bruno", 1L)));
+        autocompletado = new Autocompletado(eventoRepo, participanteRepo, new Fragmentos(new FragmentosProperties()));
+        autocompletado.reconstruir();
+    }
+
+    @Test
+    void buscarShouldReturnTopMatchesInOrderIgnoringCaseAndAccents() {
+        assertThat(autocompletado.buscar(Autocompletado.EVENTO, "JAVA", 10)).extracting(SugerenciaDTO::getId)
+                .containsExactly(1L, 2L);
+        assertThat(autocompletado.buscar(Autocompletado.EVENTO, "j", 2)).extracting(SugerenciaDTO::getTexto)
+                .containsExactly("Java Conference", "JavaScript Day");
+        assertThat(autocompletado.buscar(Autocompletado.EVENTO, "jornadas ag", 10)).extracting(SugerenciaDTO::getId)
+                .containsExactly(3L);
+        assertThat(autocompletado.buscar(Autocompletado.USUARIO, "ana", 10)).extracting(SugerenciaDTO::getTexto)
+                .containsExactly("anabel", "anagarcia");
+        assertThat(autocompletado.buscar(Autocompletado.USUARIO, "x", 10)).isEmpty();
+        assertThatThrownBy(() -> autocompletado.buscar("organizador", "a", 10))
+                .isInstanceOf(CampoNoValidoException.class);
+    }
+
+    @Test
+    void confirmedChangesShouldUpdateTheIndex() {
+        when(eventoRepo.sugerenciaPorId(4L)).thenReturn(Optional.of(new SugerenciaDTO(4L, "Java Workshop")));
+        autocompletado.alConfirmar(CambioDTO.evento(TipoCambio.ACTUALIZADO, 4L));
+        when(participanteRepo.sugerenciaPorId(13L)).thenReturn(Optional.of(new SugerenciaDTO(13L, "anais", 4L)));
+        autocompletado.alConfirmar(CambioDTO.participante(TipoCambio.CREADO, 13L, 4L));
+
+        assertThat(autocompletado.buscar(Autocompletado.EVENTO, "java", 10)).extracting(SugerenciaDTO::getId)
+                .containsExactly(1L, 4L, 2L);
+        assertThat(autocompletado.buscar(Autocompletado.EVENTO, "spring", 10)).isEmpty();
+
+        // Al borrar el evento 1 desaparecen él y sus participantes
+        autocompletado.alConfirmar(CambioDTO.evento(TipoCambio.ELIMINADO, 1L));
+        assertThat(autocompletado.buscar(Autocompletado.EVENTO, "java", 10)).extracting(SugerenciaDTO::getId)
+                .containsExactly(4L, 2L);
+        assertThat(autocompletado.buscar(Autocompletado.USUARIO, "", 10)).extracting(SugerenciaDTO::getTexto)
+                .containsExactly("anabel", "anais");
+
+        // Al archivar, lo mismo
+        autocompletado.alConfirmar(CambioDTO.evento(TipoCambio.ARCHIVADO, 4L));
+        assertThat(autocompletado.buscar(Autocompletado.USUARIO, "", 10)).extracting(SugerenciaDTO::getTexto)
+                .containsExactly("anabel");
+    }
+
+    @Test
+    void changesWithDataShouldUpdateTheIndexWithoutQueryingTheDatabase() {
+        autocompletado.alConfirmar(CambioDTO.evento(TipoCambio.ACTUALIZADO,
+                new EventoResponseDTO(4L, "Java Workshop", null, null, 1L)));
+        autocompletado.alConfirmar(CambioDTO.participante(TipoCambio.CREADO,
+                new ParticipanteResponseDTO(13L, "Anaïs", "anais", 4L, "Java Workshop")));
+
+        assertThat(autocompletado.buscar(Autocompletado.EVENTO, "java w", 10)).extracting(SugerenciaDTO::getId)
+                .containsExactly(4L);
+        assertThat(autocompletado.buscar(Autocompletado.USUARIO, "anai", 10)).extracting(SugerenciaDTO::getEventoId)
+                .containsExactly(4L);
+        verify(eventoRepo, never()).sugerenciaPorId(any());
+        verify(participanteRepo, never()).sugerenciaPorId(any());
+
+        // Sus participantes se siguen quitando con el evento
+        autocompletado.alConfirmar(CambioDTO.evento(TipoCambio.ARCHIVADO, 4L));
+        assertThat(autocompletado.buscar(Autocompletado.USUARIO, "anai", 10)).isEmpty();
+    }
+}
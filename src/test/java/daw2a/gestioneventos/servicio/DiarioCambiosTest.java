@@ -0,0 +1,167 @@
+package daw2a.gestioneventos.servicio;
+
+import daw2a.gestioneventos.config.DiarioProperties;
+import daw2a.gestioneventos.dto.CambioDTO;
+import daw2a.gestioneventos.dto.EventoResponseDTO;
+import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import daw2a.gestioneventos.dto.TipoCambio;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiarioCambiosTest {
+
+    @TempDir
+    private Path directorio;
+
+    @Test
+    void leerShouldReplayAppendedChangesInOrderFromSequence() {
+        DiarioCambios diario = abrir(DataSize.ofKilobytes(64));
+        diario.anotar(CambioDTO.organizador(TipoCambio.CREADO, 1L));
+        diario.anotar(CambioDTO.evento(TipoCambio.CREADO, 2L));
+        diario.anotar(CambioDTO.participante(TipoCambio.CREADO, 3L, 2L));
+
+        List<DiarioCambios.Registro> registros = new ArrayList<>();
+        assertThat(diario.leer(2, registros::add)).isEqualTo(2);
+
+        assertThat(registros).extracting(DiarioCambios.Registro::secuencia).containsExactly(2L, 3L);
+        assertThat(registros.get(1).cambio().getEntidad()).isEqualTo(CambioDTO.PARTICIPANTE);
+        assertThat(registros.get(1).cambio().getEventoId()).isEqualTo(2L);
+        assertThat(registros.get(0).instante()).isBeforeOrEqualTo(registros.get(1).instante());
+    }
+
+    @Test
+    void leerShouldReturnStateAfterChangeAsResponseDto() {
+        DiarioCambios diario = abrir(DataSize.ofKilobytes(64));
+        diario.anotar(CambioDTO.evento(TipoCambio.ACTUALIZADO,
+                new EventoResponseDTO(2L, "Congreso", "2026-01-01T10:00", "2026-01-02T10:00", 1L)));
+        diario.anotar(CambioDTO.participante(TipoCambio.CREADO,
+                new ParticipanteResponseDTO(3L, "Ana", "anagarcia", 2L, "Congreso")));
+        diario.anotar(CambioDTO.evento(TipoCambio.ELIMINADO, 2L));
+
+        List<CambioDTO> cambios = new ArrayList<>();
+        diario.leer(1, r -> cambios.add(r.cambio()));
+
+        assertThat(cambios.get(0).getDatos()).isInstanceOfSatisfying(EventoResponseDTO.class,
+                e -> assertThat(e.getNombre()).isEqualTo("Congreso"));
+        assertThat(cambios.get(1).getDatos()).isInstanceOfSatisfying(ParticipanteResponseDTO.class,
+                p -> assertThat(p.getUsuario()).isEqualTo("anagarcia"));
+        assertThat(cambios.get(1).getEventoId()).isEqualTo(2L);
+        assertThat(cambios.get(2).getDatos()).isNull();
+    }
+
+    @Test
+    void anotarShouldRotateSegmentsAndReaderShouldCrossThem() throws IOException {
+        DiarioCambios diario = abrir(DataSize.ofBytes(256));
+        for (long id = 1; id <= 20; id++) {
+            diario.anotar(CambioDTO.evento(TipoCambio.ACTUALIZADO, id));
+        }
+
+        assertThat(segmentos()).hasSizeGreaterThan(2);
+        List<Long> ids = new ArrayList<>();
+        diario.leer(5, r -> ids.add(r.cambio().getId()));
+        assertThat(ids).hasSize(16).startsWith(5L).endsWith(20L);
+        // Los segmentos cerrados leídos quedan mapeados para la siguiente lectura
+        diario.leer(1, r -> { });
+        assertThat(diario.mapeados()).isEqualTo(segmentos().size() - 1);
+    }
+
+    @Test
+    void onlyTheMostRecentlyReadClosedSegmentsShouldStayMapped() throws IOException {
+        DiarioCambios diario = abrir(DataSize.ofBytes(256), 2);
+        for (long id = 1; id <= 40; id++) {
+            diario.anotar(CambioDTO.evento(TipoCambio.ACTUALIZADO, id));
+        }
+        assertThat(segmentos()).hasSizeGreaterThan(4);
+
+        List<Long> ids = new ArrayList<>();
+        diario.leer(1, r -> ids.add(r.cambio().getId()));
+        assertThat(diario.mapeados()).isEqualTo(2);
+        // Releer segmentos ya soltados los vuelve a mapear sin perder registros
+        diario.leer(1, r -> ids.add(r.cambio().getId()));
+        assertThat(ids).hasSize(80).containsSequence(LongStream.rangeClosed(1, 40).boxed().toList());
+        assertThat(diario.mapeados()).isEqualTo(2);
+    }
+
+    @Test
+    void reopeningShouldContinueSequenceAndDropTornTail() throws Exception {
+        DiarioCambios diario = abrir(DataSize.ofKilobytes(4));
+        diario.anotar(CambioDTO.evento(TipoCambio.CREADO, 1L));
+        diario.anotar(CambioDTO.evento(TipoCambio.CREADO, 2L));
+        diario.cerrar();
+
+        // Simula un registro a medio escribir tras el segundo: longitud puesta, resto basura
+        Path segmento = segmentos().getLast();
+        long fin = finDeDatos(segmento);
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(12).putInt(40).putInt(123).putInt(7).flip(), fin);
+        }
+
+        DiarioCambios reabierto = abrir(DataSize.ofKilobytes(4));
+        assertThat(reabierto.ultimo()).isEqualTo(2);
+        assertThat(reabierto.anotar(CambioDTO.evento(TipoCambio.ELIMINADO, 1L))).isEqualTo(3);
+        List<TipoCambio> tipos = new ArrayList<>();
+        reabierto.leer(1, r -> tipos.add(r.cambio().getTipo()));
+        assertThat(tipos).containsExactly(TipoCambio.CREADO, TipoCambio.CREADO, TipoCambio.ELIMINADO);
+    }
+
+    @Test
+    void syncThreadShouldFlushAppendedRecordsInGroups() throws InterruptedException {
+        DiarioCambios diario = abrir(DataSize.ofKilobytes(64));
+        diario.iniciar();
+        try {
+            long ultima = 0;
+            for (long id = 1; id <= 100; id++) {
+                ultima = diario.anotar(CambioDTO.evento(TipoCambio.CREADO, id));
+            }
+
+            assertThat(diario.esperarSincronizado(ultima, Duration.ofSeconds(5))).isTrue();
+            assertThat(diario.sincronizado()).isEqualTo(100);
+        } finally {
+            diario.cerrar();
+        }
+    }
+
+    private DiarioCambios abrir(DataSize tamanoSegmento) {
+        return abrir(tamanoSegmento, new DiarioProperties().getSegmentosMapeados());
+    }
+
+    private DiarioCambios abrir(DataSize tamanoSegmento, int segmentosMapeados) {
+        DiarioProperties propiedades = new DiarioProperties();
+        propiedades.setDirectorio(directorio);
+        propiedades.setTamanoSegmento(tamanoSegmento);
+        propiedades.setIntervaloSync(Duration.ofMillis(5));
+        propiedades.setSegmentosMapeados(segmentosMapeados);
+        return new DiarioCambios(propiedades);
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> ficheros = Files.list(directorio)) {
+            return ficheros.sorted().toList();
+        }
+    }
+
+    // Posición de la longitud 0 que sigue al último registro
+    private static long finDeDatos(Path segmento) throws IOException {
+        ByteBuffer datos = ByteBuffer.wrap(Files.readAllBytes(segmento));
+        int posicion = 0;
+        while (datos.getInt(posicion) != 0) {
+            posicion += DiarioCambios.CABECERA + datos.getInt(posicion);
+        }
+        return posicion;
+    }
+}
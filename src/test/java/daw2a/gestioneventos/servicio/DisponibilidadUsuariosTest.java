@@ -0,0 +1,84 @@
+package daw2a.gestioneventos.servicio;
+
+import daw2a.gestioneventos.config.DisponibilidadProperties;
+import daw2a.gestioneventos.config.FragmentosProperties;
+import daw2a.gestioneventos.repo.Fragmentos;
+import daw2a.gestioneventos.repo.ParticipanteRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DisponibilidadUsuariosTest {
+
+    private final ParticipanteRepo participanteRepo = mock(ParticipanteRepo.class);
+    private final SimpleMeterRegistry registro = new SimpleMeterRegistry();
+    private DisponibilidadUsuarios disponibilidad;
+
+    @BeforeEach
+    void setUp() {
+        when(participanteRepo.usuarios()).thenReturn(List.of("alice01", "bob0001"));
+        when(participanteRepo.existsByUsuario("alice01")).thenReturn(true);
+        disponibilidad = new DisponibilidadUsuarios(participanteRepo, new Fragmentos(new FragmentosProperties()),
+                new DisponibilidadProperties(), registro);
+    }
+
+    @Test
+    void everyCheckGoesToTheDatabaseUntilTheFilterIsLoaded() {
+        assertThat(disponibilidad.puedeExistir("carol01")).isTrue();
+        assertThat(disponibilidad.disponible("carol01")).isTrue();
+        verify(participanteRepo).existsByUsuario("carol01");
+    }
+
+    @Test
+    void unknownUsersAreAnsweredByTheFilterAndKnownOnesByTheDatabase() {
+        disponibilidad.cargar();
+
+        assertThat(disponibilidad.disponible("carol01")).isTrue();
+        verify(participanteRepo, never()).existsByUsuario("carol01");
+        assertThat(disponibilidad.disponible("alice01")).isFalse();
+        verify(participanteRepo).existsByUsuario("alice01");
+
+        disponibilidad.registrar("carol01");
+        assertThat(disponibilidad.puedeExistir("carol01")).isTrue();
+
+        assertThat(registro.get("gestioneventos.disponibilidad.consultas").tag("resultado", "filtro-libre").counter().count())
+                .isEqualTo(1);
+        assertThat(registro.get("gestioneventos.disponibilidad.consultas").tag("resultado", "bd-ocupado").counter().count())
+                .isEqualTo(1);
+        assertThat(registro.get("gestioneventos.disponibilidad.falsos-positivos").gauge().value()).isZero();
+        assertThat(registro.get("gestioneventos.disponibilidad.falsos-positivos.estimados").gauge().value())
+                .isLessThan(0.01);
+    }
+
+    @Test
+    void signupsSkipTheDatabaseOnlyWhenTheFilterKnowsEveryUser() {
+        disponibilidad.cargar();
+        // Por defecto puede haber otras instancias: el filtro no basta para un alta
+        assertThat(disponibilidad.puedeExistir("carol01")).isTrue();
+
+        DisponibilidadProperties unica = new DisponibilidadProperties();
+        unica.setInstanciaUnica(true);
+        DisponibilidadUsuarios autoritativa = new DisponibilidadUsuarios(participanteRepo,
+                new Fragmentos(new FragmentosProperties()), unica, new SimpleMeterRegistry());
+        assertThat(autoritativa.puedeExistir("carol01")).isTrue();
+        autoritativa.cargar();
+        assertThat(autoritativa.puedeExistir("carol01")).isFalse();
+
+        // Con fragmentos la restricción única no cruza bases: siempre se pregunta a todas
+        FragmentosProperties dos = new FragmentosProperties();
+        dos.setHabilitado(true);
+        dos.setUrls(List.of("jdbc:h2:mem:f0", "jdbc:h2:mem:f1"));
+        DisponibilidadUsuarios fragmentada = new DisponibilidadUsuarios(participanteRepo, new Fragmentos(dos),
+                unica, new SimpleMeterRegistry());
+        fragmentada.cargar();
+        assertThat(fragmentada.puedeExistir("carol01")).isTrue();
+    }
+}
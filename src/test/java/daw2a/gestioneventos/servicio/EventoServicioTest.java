@@ -1,27 +1,47 @@
 package daw2a.gestioneventos.servicio;
 
+import daw2a.gestioneventos.config.FragmentosProperties;
 import daw2a.gestioneventos.dominio.Evento;
+import daw2a.gestioneventos.dominio.EventoArchivado;
 import daw2a.gestioneventos.dominio.Organizador;
+import daw2a.gestioneventos.dto.CambioDTO;
+import daw2a.gestioneventos.dto.EliminacionEventoDTO;
 import daw2a.gestioneventos.dto.EventoRequestDTO;
 import daw2a.gestioneventos.dto.EventoResponseDTO;
+import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import daw2a.gestioneventos.dto.TipoCambio;
+import daw2a.gestioneventos.dto.VentanaDTO;
+import daw2a.gestioneventos.exception.CambioDeFragmentoException;
 import daw2a.gestioneventos.exception.EventoDuplicadoException;
 import daw2a.gestioneventos.exception.EventoNoEncontradoException;
 import daw2a.gestioneventos.exception.OrganizadorNotFoundException;
+import daw2a.gestioneventos.repo.EventoArchivadoRepo;
 import daw2a.gestioneventos.repo.EventoRepo;
+import daw2a.gestioneventos.repo.Fragmentos;
+import daw2a.gestioneventos.repo.LoteRepo;
 import daw2a.gestioneventos.repo.OrganizadorRepo;
+import daw2a.gestioneventos.repo.ParticipanteRepo;
+import daw2a.gestioneventos.repo.ProyeccionRepo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -35,6 +55,24 @@ class EventoServicioTest {
     @Mock
     private OrganizadorRepo organizadorRepo;
 
+    @Mock
+    private ProyeccionRepo proyeccionRepo;
+
+    @Mock
+    private LoteRepo loteRepo;
+
+    @Mock
+    private ParticipanteRepo participanteRepo;
+
+    @Mock
+    private ApplicationEventPublisher publicador;
+
+    @Mock
+    private EventoArchivadoRepo eventoArchivadoRepo;
+
+    @Spy
+    private Fragmentos fragmentos = new Fragmentos(new FragmentosProperties());
+
     @InjectMocks
     private EventoServicio eventoServicio;
 
@@ -68,6 +106,25 @@ class EventoServicioTest {
         verify(eventoRepo).findAll(pageable);
     }
 
+    @Test
+    void listarEventosWithArchivedShouldMergeBothPages() {
+        // Página 1 de tamaño 2 por nombre: cada tabla devuelve sus 4 primeros
+        Pageable pageable = PageRequest.of(1, 2, Sort.by("nombre"));
+        Pageable primeras = PageRequest.of(0, 4, Sort.by("nombre"));
+        when(eventoRepo.findAll(primeras)).thenReturn(new PageImpl<>(List.of(
+                Evento.builder().id(1L).nombre("A").build(),
+                Evento.builder().id(2L).nombre("C").build(),
+                Evento.builder().id(3L).nombre("E").build()), primeras, 3));
+        when(eventoArchivadoRepo.findAll(primeras)).thenReturn(new PageImpl<>(List.of(
+                EventoArchivado.builder().id(4L).nombre("B").build(),
+                EventoArchivado.builder().id(5L).nombre("D").build()), primeras, 2));
+
+        Page<EventoResponseDTO> result = eventoServicio.listarEventos(pageable, true);
+
+        assertThat(result.getContent()).extracting(EventoResponseDTO::getNombre).containsExactly("C", "D");
+        assertThat(result.getTotalElements()).isEqualTo(5);
+    }
+
     @Test
     void obtenEventoPorIdShouldReturnDTOWhenExists() {
         Organizador org = Organizador.builder().id(1L).nombre("Organizador").build();
@@ -100,6 +157,42 @@ class EventoServicioTest {
         verify(eventoRepo).findById(99L);
     }
 
+    @Test
+    void obtenEventoPorIdShouldFallBackToArchive() {
+        Organizador org = Organizador.builder().id(1L).nombre("Organizador").build();
+        EventoArchivado archivado = EventoArchivado.builder()
+                .id(5L)
+                .nombre("Pasado")
+                .descripcion("Desc")
+                .fechaFin(LocalDateTime.of(2020, 1, 1, 18, 0))
+                .organizador(org)
+                .build();
+
+        when(eventoRepo.findById(5L)).thenReturn(Optional.empty());
+        when(eventoArchivadoRepo.findById(5L)).thenReturn(Optional.of(archivado));
+
+        EventoResponseDTO result = eventoServicio.obtenEventoPorId(5L);
+
+        assertThat(result.getNombre()).isEqualTo("Pasado");
+        assertThat(result.getFechaFin()).isEqualTo("2020-01-01T18:00");
+        assertThat(result.getOrganizadorId()).isEqualTo(1L);
+        assertThat(eventoServicio.obtenEventoPorId(5L, List.of("id", "fechaFin")))
+                .containsExactly(Map.entry("id", 5L), Map.entry("fechaFin", "2020-01-01T18:00"));
+    }
+
+    @Test
+    void buscarEventosShouldIncludeArchivedOnlyWhenAsked() {
+        when(eventoRepo.findByNombreContainingIgnoreCase("feria"))
+                .thenReturn(List.of(Evento.builder().id(7L).nombre("Feria 2026").build()));
+        when(eventoArchivadoRepo.findByNombreContainingIgnoreCase("feria"))
+                .thenReturn(List.of(EventoArchivado.builder().id(3L).nombre("Feria 2019").build()));
+
+        assertThat(eventoServicio.buscarEventos("feria", false)).extracting(EventoResponseDTO::getId)
+                .containsExactly(7L);
+        assertThat(eventoServicio.buscarEventos("feria", true)).extracting(EventoResponseDTO::getId)
+                .containsExactly(3L, 7L);
+    }
+
     @Test
     void obtenEventoPorNombreShouldReturnDTOWhenExists() {
         Organizador org = Organizador.builder().id(1L).nombre("Organizador").build();
@@ -131,6 +224,27 @@ class EventoServicioTest {
         verify(eventoRepo).findByNombre("NoExiste");
     }
 
+    @Test
+    void obtenEventoPorNombreShouldRememberNotFoundUntilEventIsCreated() {
+        Organizador org = Organizador.builder().id(1L).nombre("Organizador").build();
+        when(eventoRepo.findByNombre("Pronto")).thenReturn(null);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatExceptionOfType(EventoNoEncontradoException.class)
+                    .isThrownBy(() -> eventoServicio.obtenEventoPorNombre("Pronto"));
+        }
+        verify(eventoRepo, times(1)).findByNombre("Pronto");
+
+        Evento creado = Evento.builder().id(5L).nombre("Pronto").descripcion("d").organizador(org).build();
+        when(eventoRepo.existsByNombre("Pronto")).thenReturn(false);
+        when(organizadorRepo.findById(1L)).thenReturn(Optional.of(org));
+        when(eventoRepo.save(any(Evento.class))).thenReturn(creado);
+        when(eventoRepo.findByNombre("Pronto")).thenReturn(creado);
+        eventoServicio.crearEvento(new EventoRequestDTO("Pronto", "d", null, null, 1L));
+
+        assertThat(eventoServicio.obtenEventoPorNombre("Pronto").getId()).isEqualTo(5L);
+    }
+
     @Test
     void crearEventoShouldThrowWhenNombreYaExiste() {
         EventoRequestDTO dto = new EventoRequestDTO("Duplicado", "Desc",
@@ -188,6 +302,8 @@ class EventoServicioTest {
         verify(eventoRepo).existsByNombre("Nuevo");
         verify(organizadorRepo).findById(1L);
         verify(eventoRepo).save(any(Evento.class));
+        verify(publicador).publishEvent(argThat((Object e) -> e instanceof CambioDTO c
+                && c.getTipo() == TipoCambio.CREADO && c.getId().equals(10L)));
     }
 
     @Test
@@ -234,30 +350,106 @@ class EventoServicioTest {
         verify(eventoRepo).save(existente);
     }
 
+    @Test
+    void actualizarEventoShouldKeepWorkingAfterAShardIsAddedAndOnlyRejectMovesToAnotherShard() {
+        Fragmentos dos = fragmentos(2);
+        Fragmentos tres = fragmentos(3);
+        // Un organizador que el anillo lleva al fragmento nuevo y otro que se queda en el suyo
+        long movido = LongStream.rangeClosed(1, 1_000).filter(o -> tres.deOrganizador(o) == 2).findFirst().orElseThrow();
+        long quieto = LongStream.rangeClosed(1, 1_000)
+                .filter(o -> dos.deOrganizador(o) == dos.deOrganizador(movido) && tres.deOrganizador(o) != 2)
+                .findFirst().orElseThrow();
+        long otro = LongStream.rangeClosed(1, 1_000).filter(o -> tres.deOrganizador(o) == 2 && o != movido)
+                .findFirst().orElseThrow();
+        // Evento creado con dos fragmentos, antes de añadir el tercero
+        long id = Fragmentos.primerId(dos.deOrganizador(movido)) + 1;
+        Organizador organizador = Organizador.builder().id(movido).nombre("Org").build();
+        Evento existente = Evento.builder().id(id).nombre("Viejo").organizador(organizador).build();
+        when(eventoRepo.findById(id)).thenReturn(Optional.of(existente));
+        when(organizadorRepo.findById(movido)).thenReturn(Optional.of(organizador));
+        when(organizadorRepo.findById(quieto)).thenReturn(Optional.of(Organizador.builder().id(quieto).build()));
+        when(eventoRepo.save(any(Evento.class))).thenReturn(existente);
+        EventoServicio servicio = new EventoServicio(eventoRepo, organizadorRepo, proyeccionRepo, loteRepo,
+                participanteRepo, publicador, tres, eventoArchivadoRepo);
+
+        assertThat(servicio.actualizarEvento(id, new EventoRequestDTO("Nuevo", "d", null, null, movido)).getNombre())
+                .isEqualTo("Nuevo");
+        // Cambiar a un organizador del mismo fragmento que la fila sigue valiendo; a otro, no
+        assertThat(servicio.actualizarEvento(id, new EventoRequestDTO("Nuevo", "d", null, null, quieto))).isNotNull();
+        existente.setOrganizador(organizador);
+        assertThatExceptionOfType(CambioDeFragmentoException.class)
+                .isThrownBy(() -> servicio.actualizarEvento(id, new EventoRequestDTO("Nuevo", "d", null, null, otro)));
+    }
+
     @Test
     void eliminarEventoShouldThrowWhenNoExiste() {
-        when(eventoRepo.findById(1L)).thenReturn(Optional.empty());
+        when(participanteRepo.marcarEliminadosPorEvento(1L)).thenReturn(0);
+        when(eventoRepo.marcarEliminado(1L)).thenReturn(0);
 
         assertThatExceptionOfType(EventoNoEncontradoException.class)
                 .isThrownBy(() -> eventoServicio.eliminarEvento(1L));
 
-        verify(eventoRepo).findById(1L);
+        verify(eventoRepo).marcarEliminado(1L);
+        verify(eventoRepo, never()).findById(any());
+    }
+
+    @Test
+    void eliminarEventoShouldMarkParticipantsAndEventWithBulkStatements() {
+        when(participanteRepo.marcarEliminadosPorEvento(1L)).thenReturn(20_000);
+        when(eventoRepo.marcarEliminado(1L)).thenReturn(1);
+
+        EliminacionEventoDTO result = eventoServicio.eliminarEvento(1L);
+
+        assertThat(result.getEventoId()).isEqualTo(1L);
+        assertThat(result.getParticipantesEliminados()).isEqualTo(20_000);
+        InOrder orden = inOrder(participanteRepo, eventoRepo);
+        orden.verify(participanteRepo).marcarEliminadosPorEvento(1L);
+        orden.verify(eventoRepo).marcarEliminado(1L);
         verify(eventoRepo, never()).delete(any(Evento.class));
     }
 
     @Test
-    void eliminarEventoShouldDeleteWhenExiste() {
-        Evento existente = Evento.builder()
-                .id(1L)
-                .nombre("Test")
-                .descripcion("Desc")
-                .build();
+    void obtenEventosPorIdsShouldMapLoadedEvents() {
+        Evento e1 = Evento.builder().id(1L).nombre("Uno").descripcion("x").build();
+        Evento e2 = Evento.builder().id(2L).nombre("Dos").descripcion("y").build();
 
-        when(eventoRepo.findById(1L)).thenReturn(Optional.of(existente));
+        when(loteRepo.cargar(Evento.class, List.of(2L, 1L, 99L))).thenReturn(List.of(e2, e1));
 
-        eventoServicio.eliminarEvento(1L);
+        List<EventoResponseDTO> result = eventoServicio.obtenEventosPorIds(List.of(2L, 1L, 99L));
 
-        verify(eventoRepo).findById(1L);
-        verify(eventoRepo).delete(existente);
+        assertThat(result).extracting(EventoResponseDTO::getId).containsExactly(2L, 1L);
+        verify(loteRepo).cargar(Evento.class, List.of(2L, 1L, 99L));
+        verifyNoInteractions(eventoRepo);
+    }
+
+    @Test
+    void listarParticipantesShouldEscapePrefixAndReturnFirstWindow() {
+        ParticipanteResponseDTO p = new ParticipanteResponseDTO(4L, "50%_Ana", "ana050", 1L, "Congreso");
+
+        when(eventoRepo.existsById(1L)).thenReturn(true);
+        when(participanteRepo.ventanaPorEvento(1L, Long.MIN_VALUE, "50\\%\\_a%", Limit.of(1))).thenReturn(List.of(p));
+        when(participanteRepo.contarPorEvento(1L, "50\\%\\_a%")).thenReturn(3L);
+
+        VentanaDTO<ParticipanteResponseDTO> ventana = eventoServicio.listarParticipantes(1L, null, "50%_A", 1);
+
+        assertThat(ventana.getContent()).containsExactly(p);
+        assertThat(ventana.getSiguiente()).isEqualTo(4L);
+        assertThat(ventana.getTotalElements()).isEqualTo(3L);
+    }
+
+    @Test
+    void listarParticipantesShouldThrowWhenEventoNotExists() {
+        when(eventoRepo.existsById(9L)).thenReturn(false);
+
+        assertThatExceptionOfType(EventoNoEncontradoException.class)
+                .isThrownBy(() -> eventoServicio.listarParticipantes(9L, null, null, 50));
+        verifyNoInteractions(participanteRepo);
+    }
+
+    private static Fragmentos fragmentos(int numero) {
+        FragmentosProperties propiedades = new FragmentosProperties();
+        propiedades.setHabilitado(true);
+        propiedades.setUrls(LongStream.range(0, numero).mapToObj(i -> "jdbc:h2:mem:f" + i).toList());
+        return new Fragmentos(propiedades);
     }
 }
@@ -0,0 +1,170 @@
+package daw2a.gestioneventos.servicio;
+
+import daw2a.gestioneventos.config.FragmentosProperties;
+import daw2a.gestioneventos.dominio.Evento;
+import daw2a.gestioneventos.dominio.EventoArchivado;
+import daw2a.gestioneventos.dominio.Participante;
+import daw2a.gestioneventos.dominio.ParticipanteArchivado;
+import daw2a.gestioneventos.dominio.TipoEvento;
+import daw2a.gestioneventos.exception.EventoNoEncontradoException;
+import daw2a.gestioneventos.repo.EventoArchivadoRepo;
+import daw2a.gestioneventos.repo.EventoRepo;
+import daw2a.gestioneventos.repo.Fragmentos;
+import daw2a.gestioneventos.repo.ParticipanteArchivadoRepo;
+import daw2a.gestioneventos.repo.ParticipanteRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({ExportacionParticipantes.class, Fragmentos.class, ExportacionParticipantesTest.Configuracion.class})
+class ExportacionParticipantesTest {
+
+    @Autowired
+    private ExportacionParticipantes exportacion;
+
+    @Autowired
+    private EventoRepo eventoRepo;
+
+    @Autowired
+    private ParticipanteRepo participanteRepo;
+
+    @Autowired
+    private EventoArchivadoRepo eventoArchivadoRepo;
+
+    @Autowired
+    private ParticipanteArchivadoRepo participanteArchivadoRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Fragmentos fragmentos;
+
+    @Test
+    void csvShouldListLiveAttendeesInIdOrderWithEscaping() throws Exception {
+        Evento evento = eventoRepo.save(Evento.builder().nombre("Feria").descripcion("d").build());
+        Participante ana = participanteRepo.save(Participante.builder().nombre("Ana, \"la de Jaén\"")
+                .usuario("anajaen").contrasenia("secreto").evento(evento).build());
+        Participante formula = participanteRepo.save(Participante.builder().nombre("=1+1")
+                .usuario("formula").contrasenia("secreto").evento(evento).build());
+        Participante borrado = participanteRepo.saveAndFlush(Participante.builder().nombre("Borrado")
+                .usuario("borrado").contrasenia("secreto").evento(evento).build());
+        jdbcTemplate.update("update participante set eliminado = true where id = ?", borrado.getId());
+
+        exportacion.comprobar(evento.getId());
+        String csv = csv(evento.getId());
+
+        assertThat(csv).isEqualTo("\uFEFFid,nombre,usuario\r\n"
+                + ana.getId() + ",\"Ana, \"\"la de Jaén\"\"\",anajaen\r\n"
+                + formula.getId() + ",'=1+1,formula\r\n");
+    }
+
+    @Test
+    void archivedEventsAreExportedFromTheArchive() throws Exception {
+        EventoArchivado evento = eventoArchivadoRepo.save(EventoArchivado.builder().id(900L).nombre("Pasado")
+                .descripcion("d").tipo(TipoEvento.CONGRESO).archivado(LocalDateTime.now()).build());
+        participanteArchivadoRepo.saveAndFlush(ParticipanteArchivado.builder().id(901L).nombre("Luis")
+                .usuario("luis001").contrasenia("secreto").evento(evento).build());
+
+        exportacion.comprobar(900L);
+
+        assertThat(csv(900L)).endsWith("901,Luis,luis001\r\n");
+        assertThatThrownBy(() -> exportacion.comprobar(12345L)).isInstanceOf(EventoNoEncontradoException.class);
+    }
+
+    @Test
+    void xlsxShouldBeAZipWithOneRowPerAttendee() throws Exception {
+        Evento evento = eventoRepo.save(Evento.builder().nombre("Congreso").descripcion("d").build());
+        participanteRepo.saveAndFlush(Participante.builder().nombre("Eva <B&B>")
+                .usuario("eva0001").contrasenia("secreto").evento(evento).build());
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        exportacion.escribir(evento.getId(), ExportacionParticipantes.Formato.XLSX, salida);
+
+        Map<String, String> partes = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(salida.toByteArray()))) {
+            for (ZipEntry entrada; (entrada = zip.getNextEntry()) != null; ) {
+                partes.put(entrada.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        assertThat(partes).containsKeys("[Content_Types].xml", "_rels/.rels", "xl/workbook.xml",
+                "xl/_rels/workbook.xml.rels", "xl/worksheets/sheet1.xml");
+        String hoja = partes.get("xl/worksheets/sheet1.xml");
+        assertThat(hoja).contains("<row r=\"2\"><c><v>").contains("Eva &lt;B&amp;B&gt;").endsWith("</sheetData></worksheet>");
+        assertThat(hoja).doesNotContain("<row r=\"3\"");
+    }
+
+    @Test
+    void aReadFailureMidExportShouldNotProduceAValidFile() throws Exception {
+        Evento evento = eventoRepo.save(Evento.builder().nombre("Cortado").descripcion("d").build());
+        for (int i = 0; i < 3; i++) {
+            participanteRepo.saveAndFlush(Participante.builder().nombre("P" + i).usuario("cortado" + i)
+                    .contrasenia("secreto").evento(evento).build());
+        }
+        // El cursor falla en la segunda fila, como si se cayera la conexión
+        JdbcTemplate fallida = new JdbcTemplate(dataSource) {
+            @Override
+            public void query(PreparedStatementCreator consulta, RowCallbackHandler filas) {
+                AtomicInteger leidas = new AtomicInteger();
+                super.query(consulta, (RowCallbackHandler) fila -> {
+                    if (leidas.incrementAndGet() == 2) {
+                        throw new SQLException("Conexión perdida");
+                    }
+                    filas.processRow(fila);
+                });
+            }
+        };
+        ExportacionParticipantes cortada = new ExportacionParticipantes(fallida, transactionManager, fragmentos);
+
+        for (ExportacionParticipantes.Formato formato : ExportacionParticipantes.Formato.values()) {
+            ByteArrayOutputStream salida = new ByteArrayOutputStream();
+            assertThatThrownBy(() -> cortada.escribir(evento.getId(), formato, salida))
+                    .isInstanceOf(DataAccessException.class);
+            String escrito = salida.toString(StandardCharsets.ISO_8859_1);
+            // Sin la última fila ni, en el xlsx, el índice del zip (firma PK\5\6)
+            assertThat(escrito).doesNotContain("cortado2").doesNotContain("PK\u0005\u0006");
+        }
+    }
+
+    private String csv(Long eventoId) throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        exportacion.escribir(eventoId, ExportacionParticipantes.Formato.CSV, salida);
+        return salida.toString(StandardCharsets.UTF_8);
+    }
+
+    @TestConfiguration
+    @EnableConfigurationProperties(FragmentosProperties.class)
+    static class Configuracion {
+    }
+}
@@ -0,0 +1,71 @@
+package daw2a.gestioneventos.servicio;
+
+import daw2a.gestioneventos.config.CambiosProperties;
+import daw2a.gestioneventos.dto.CambioDTO;
+import daw2a.gestioneventos.dto.TipoCambio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedCambiosTest {
+
+    private FeedCambios feed;
+
+    @BeforeEach
+    void setUp() {
+        CambiosProperties propiedades = new CambiosProperties();
+        propiedades.setCapacidad(4);
+        feed = new FeedCambios(propiedades);
+    }
+
+    @Test
+    void leerShouldReturnChangesAfterCursorInOrder() {
+        for (long id = 1; id <= 3; id++) {
+            feed.publicar(CambioDTO.evento(TipoCambio.CREADO, id));
+        }
+
+        FeedCambios.Lectura lectura = feed.leer(1, 10);
+
+        assertThat(lectura.perdida()).isFalse();
+        assertThat(lectura.entradas()).extracting(FeedCambios.Entrada::secuencia).containsExactly(2L, 3L);
+        assertThat(lectura.entradas()).extracting(e -> e.cambio().getId()).containsExactly(2L, 3L);
+        assertThat(feed.leer(0, 2).entradas()).hasSize(2);
+    }
+
+    @Test
+    void leerShouldReportLostChangesWhenRingWrapsPastCursor() {
+        for (long id = 1; id <= 6; id++) {
+            feed.publicar(CambioDTO.evento(TipoCambio.ACTUALIZADO, id));
+        }
+
+        // Capacidad 4: sólo siguen en el anillo las secuencias 3 a 6
+        assertThat(feed.leer(1, 10).perdida()).isTrue();
+        assertThat(feed.leer(2, 10).entradas()).extracting(FeedCambios.Entrada::secuencia)
+                .containsExactly(3L, 4L, 5L, 6L);
+        // Una secuencia que el anillo no ha emitido (p. ej. tras reiniciar el servidor)
+        assertThat(feed.disponible(7)).isFalse();
+    }
+
+    @Test
+    void publicarShouldIgnoreOrganizerChanges() {
+        feed.publicar(CambioDTO.organizador(TipoCambio.CREADO, 1L));
+        feed.publicar(CambioDTO.evento(TipoCambio.CREADO, 2L));
+
+        assertThat(feed.ultimo()).isEqualTo(1);
+        assertThat(feed.leer(0, 10).entradas()).extracting(e -> e.cambio().getEntidad())
+                .containsExactly(CambioDTO.EVENTO);
+    }
+
+    @Test
+    void esperarShouldWakeUpOnPublishAndTimeOutOtherwise() throws InterruptedException {
+        assertThat(feed.esperar(0, Duration.ofMillis(10))).isFalse();
+
+        Thread.ofVirtual().start(() -> feed.publicar(CambioDTO.participante(TipoCambio.CREADO, 5L, 1L)));
+
+        assertThat(feed.esperar(0, Duration.ofSeconds(5))).isTrue();
+        assertThat(feed.ultimo()).isEqualTo(1);
+    }
+}
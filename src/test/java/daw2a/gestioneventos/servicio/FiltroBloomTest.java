@@ -0,0 +1,33 @@
+package daw2a.gestioneventos.servicio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FiltroBloomTest {
+
+    @Test
+    void addedValuesAreAlwaysFoundAndFilterGrowsPastItsCapacity() {
+        FiltroBloom filtro = new FiltroBloom(1_000, 0.01);
+
+        IntStream.range(0, 10_000).forEach(i -> filtro.anadir("usuario" + i));
+
+        assertThat(IntStream.range(0, 10_000)).allMatch(i -> filtro.puedeContener("usuario" + i));
+        // 1000 + 2000 + 4000 + 8000
+        assertThat(filtro.etapas()).isEqualTo(4);
+        assertThat(filtro.elementos()).isLessThanOrEqualTo(10_000);
+    }
+
+    @Test
+    void falsePositiveRateStaysBelowTarget() {
+        FiltroBloom filtro = new FiltroBloom(1_000, 0.01);
+        IntStream.range(0, 20_000).forEach(i -> filtro.anadir("usuario" + i));
+
+        long falsos = IntStream.range(0, 100_000).filter(i -> filtro.puedeContener("libre" + i)).count();
+
+        assertThat(filtro.probabilidadFalsoPositivo()).isLessThan(0.01);
+        assertThat(falsos / 100_000.0).isLessThan(0.015);
+    }
+}
@@ -0,0 +1,103 @@
+package daw2a.gestioneventos.servicio;
+
+import daw2a.gestioneventos.config.FragmentosProperties;
+import daw2a.gestioneventos.config.IngestaProperties;
+import daw2a.gestioneventos.dto.EstadoIngesta;
+import daw2a.gestioneventos.dto.ParticipanteRequestDTO;
+import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import daw2a.gestioneventos.dto.ResultadoAltaDTO;
+import daw2a.gestioneventos.dto.TicketIngestaDTO;
+import daw2a.gestioneventos.exception.ColaIngestaLlenaException;
+import daw2a.gestioneventos.exception.TicketNoEncontradoException;
+import daw2a.gestioneventos.exception.UsuarioYaExisteException;
+import daw2a.gestioneventos.repo.Fragmentos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+// Sin arrancar el hilo escritor: los lotes se procesan llamando a procesarLote()
+class IngestaParticipantesTest {
+
+    @Mock
+    private ParticipanteServicio participanteServicio;
+
+    private IngestaParticipantes ingesta;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        IngestaProperties propiedades = new IngestaProperties();
+        propiedades.setCapacidad(3);
+        propiedades.setTamanoLote(2);
+        ingesta = new IngestaParticipantes(participanteServicio, new Fragmentos(new FragmentosProperties()), propiedades, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void encolarShouldRejectWhenQueueIsFull() {
+        for (int i = 0; i < 3; i++) {
+            ingesta.encolar(peticion("usuario" + i));
+        }
+
+        assertThatExceptionOfType(ColaIngestaLlenaException.class)
+                .isThrownBy(() -> ingesta.encolar(peticion("usuario3")));
+    }
+
+    @Test
+    void procesarLoteShouldWriteUpToBatchSizeAndCompleteTickets() throws InterruptedException {
+        TicketIngestaDTO t1 = ingesta.encolar(peticion("usuario1"));
+        TicketIngestaDTO t2 = ingesta.encolar(peticion("usuario2"));
+        TicketIngestaDTO t3 = ingesta.encolar(peticion("usuario3"));
+        when(participanteServicio.crearParticipantes(anyList())).thenReturn(List.of(
+                ResultadoAltaDTO.creado(new ParticipanteResponseDTO(10L, "N", "usuario1", 1L, "E")),
+                ResultadoAltaDTO.rechazado("El usuario 'usuario2' ya está registrado")));
+
+        assertThat(ingesta.procesarLote()).isEqualTo(2);
+
+        assertThat(ingesta.estado(t1.getTicket()).getEstado()).isEqualTo(EstadoIngesta.COMPLETADO);
+        assertThat(ingesta.estado(t1.getTicket()).getParticipanteId()).isEqualTo(10L);
+        assertThat(ingesta.estado(t2.getTicket()).getEstado()).isEqualTo(EstadoIngesta.RECHAZADO);
+        assertThat(ingesta.estado(t3.getTicket()).getEstado()).isEqualTo(EstadoIngesta.PENDIENTE);
+        verify(participanteServicio, times(1)).crearParticipantes(anyList());
+    }
+
+    @Test
+    void procesarLoteShouldRetryOneByOneWhenBatchFails() throws InterruptedException {
+        TicketIngestaDTO t1 = ingesta.encolar(peticion("usuario1"));
+        TicketIngestaDTO t2 = ingesta.encolar(peticion("usuario2"));
+        when(participanteServicio.crearParticipantes(anyList())).thenThrow(new IllegalStateException("unique"));
+        when(participanteServicio.crearParticipante(any(ParticipanteRequestDTO.class))).thenAnswer(inv -> {
+            ParticipanteRequestDTO dto = inv.getArgument(0);
+            if (dto.getUsuario().equals("usuario2")) {
+                throw new UsuarioYaExisteException("usuario2");
+            }
+            return new ParticipanteResponseDTO(11L, "N", dto.getUsuario(), 1L, "E");
+        });
+
+        ingesta.procesarLote();
+
+        assertThat(ingesta.estado(t1.getTicket()).getParticipanteId()).isEqualTo(11L);
+        assertThat(ingesta.estado(t2.getTicket()).getEstado()).isEqualTo(EstadoIngesta.RECHAZADO);
+        assertThat(ingesta.estado(t2.getTicket()).getError()).contains("usuario2");
+    }
+
+    @Test
+    void estadoShouldFailForUnknownTicket() {
+        assertThatExceptionOfType(TicketNoEncontradoException.class)
+                .isThrownBy(() -> ingesta.estado(UUID.randomUUID()));
+    }
+
+    private static ParticipanteRequestDTO peticion(String usuario) {
+        return new ParticipanteRequestDTO("Nombre", usuario, "secreto1", 1L);
+    }
+}
@@ -1,17 +1,27 @@
 package daw2a.gestioneventos.servicio;
 
+import daw2a.gestioneventos.config.FragmentosProperties;
 import daw2a.gestioneventos.dominio.Evento;
 import daw2a.gestioneventos.dominio.Organizador;
 import daw2a.gestioneventos.dto.OrganizadorRequestDTO;
+import daw2a.gestioneventos.dto.EventoResponseDTO;
 import daw2a.gestioneventos.dto.OrganizadorResponseDTO;
+import daw2a.gestioneventos.dto.VentanaDTO;
 import daw2a.gestioneventos.exception.OrganizadorDuplicadoException;
 import daw2a.gestioneventos.exception.OrganizadorNotFoundException;
+import daw2a.gestioneventos.repo.EventoRepo;
+import daw2a.gestioneventos.repo.Fragmentos;
+import daw2a.gestioneventos.repo.LoteRepo;
 import daw2a.gestioneventos.repo.OrganizadorRepo;
+import daw2a.gestioneventos.repo.ProyeccionRepo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -29,6 +39,21 @@ class OrganizadorServiceTest {
     @Mock
     private OrganizadorRepo organizadorRepo;
 
+    @Mock
+    private EventoRepo eventoRepo;
+
+    @Mock
+    private ProyeccionRepo proyeccionRepo;
+
+    @Mock
+    private LoteRepo loteRepo;
+
+    @Mock
+    private ApplicationEventPublisher publicador;
+
+    @Spy
+    private Fragmentos fragmentos = new Fragmentos(new FragmentosProperties());
+
     @InjectMocks
     private OrganizadorServicio organizadorServicio;
 
@@ -87,6 +112,49 @@ class OrganizadorServiceTest {
         verify(organizadorRepo).findById(99L);
     }
 
+    @Test
+    void listarEventosShouldReturnFirstWindowWithCursorAndTotal() {
+        Organizador o = Organizador.builder().id(1L).nombre("ACME").build();
+        List<Evento> eventos = List.of(
+                Evento.builder().id(3L).nombre("Tres").organizador(o).build(),
+                Evento.builder().id(7L).nombre("Siete").organizador(o).build());
+
+        when(organizadorRepo.existsById(1L)).thenReturn(true);
+        when(eventoRepo.findByOrganizadorIdAndIdGreaterThanOrderByIdAsc(1L, Long.MIN_VALUE, Limit.of(2)))
+                .thenReturn(eventos);
+        when(eventoRepo.countByOrganizadorId(1L)).thenReturn(5L);
+
+        VentanaDTO<EventoResponseDTO> ventana = organizadorServicio.listarEventos(1L, null, 2);
+
+        assertThat(ventana.getContent()).extracting(EventoResponseDTO::getId).containsExactly(3L, 7L);
+        assertThat(ventana.getSiguiente()).isEqualTo(7L);
+        assertThat(ventana.getTotalElements()).isEqualTo(5L);
+    }
+
+    @Test
+    void listarEventosShouldEndWithoutCursorOrCountAfterFirstWindow() {
+        Organizador o = Organizador.builder().id(1L).nombre("ACME").build();
+
+        when(organizadorRepo.existsById(1L)).thenReturn(true);
+        when(eventoRepo.findByOrganizadorIdAndIdGreaterThanOrderByIdAsc(1L, 7L, Limit.of(2)))
+                .thenReturn(List.of(Evento.builder().id(9L).nombre("Nueve").organizador(o).build()));
+
+        VentanaDTO<EventoResponseDTO> ventana = organizadorServicio.listarEventos(1L, 7L, 2);
+
+        assertThat(ventana.getContent()).hasSize(1);
+        assertThat(ventana.getSiguiente()).isNull();
+        assertThat(ventana.getTotalElements()).isNull();
+        verify(eventoRepo, never()).countByOrganizadorId(any());
+    }
+
+    @Test
+    void listarEventosShouldThrowWhenOrganizadorNotExists() {
+        when(organizadorRepo.existsById(99L)).thenReturn(false);
+
+        assertThatExceptionOfType(OrganizadorNotFoundException.class)
+                .isThrownBy(() -> organizadorServicio.listarEventos(99L, null, 10));
+    }
+
     @Test
     void crearOrganizadorShouldThrowWhenNombreYaExiste() {
         OrganizadorRequestDTO dto = new OrganizadorRequestDTO("ACME");
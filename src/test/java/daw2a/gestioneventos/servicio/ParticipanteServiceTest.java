@@ -1,19 +1,28 @@
 package daw2a.gestioneventos.servicio;
 
+import daw2a.gestioneventos.config.FragmentosProperties;
 import daw2a.gestioneventos.dominio.Evento;
 import daw2a.gestioneventos.dominio.Participante;
 import daw2a.gestioneventos.dto.ParticipanteRequestDTO;
 import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import daw2a.gestioneventos.dto.ResultadoAltaDTO;
 import daw2a.gestioneventos.exception.EventoNoEncontradoException;
 import daw2a.gestioneventos.exception.ParticipanteNotFoundException;
 import daw2a.gestioneventos.exception.UsuarioYaExisteException;
 import daw2a.gestioneventos.repo.EventoRepo;
+import daw2a.gestioneventos.repo.Fragmentos;
+import daw2a.gestioneventos.repo.LoteRepo;
+import daw2a.gestioneventos.repo.ParticipanteArchivadoRepo;
 import daw2a.gestioneventos.repo.ParticipanteRepo;
+import daw2a.gestioneventos.repo.ProyeccionRepo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -21,6 +30,7 @@ import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -34,12 +44,31 @@ class ParticipanteServiceTest {
     @Mock
     private EventoRepo eventoRepo;
 
+    @Mock
+    private ProyeccionRepo proyeccionRepo;
+
+    @Mock
+    private LoteRepo loteRepo;
+
+    @Mock
+    private ApplicationEventPublisher publicador;
+
+    @Mock
+    private DisponibilidadUsuarios disponibilidad;
+
+    @Mock
+    private ParticipanteArchivadoRepo participanteArchivadoRepo;
+
+    @Spy
+    private Fragmentos fragmentos = new Fragmentos(new FragmentosProperties());
+
     @InjectMocks
     private ParticipanteServicio participanteServicio;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(disponibilidad.puedeExistir(anyString())).thenReturn(true);
     }
 
     @Test
@@ -109,7 +138,7 @@ class ParticipanteServiceTest {
                 .isThrownBy(() -> participanteServicio.crearParticipante(dto));
 
         verify(participanteRepo).existsByUsuario("alice01");
-        verify(participanteRepo, never()).save(any(Participante.class));
+        verify(participanteRepo, never()).saveAndFlush(any(Participante.class));
     }
 
     @Test
@@ -124,7 +153,7 @@ class ParticipanteServiceTest {
 
         verify(participanteRepo).existsByUsuario("alice01");
         verify(eventoRepo).findById(99L);
-        verify(participanteRepo, never()).save(any(Participante.class));
+        verify(participanteRepo, never()).saveAndFlush(any(Participante.class));
     }
 
     @Test
@@ -142,7 +171,7 @@ class ParticipanteServiceTest {
 
         when(participanteRepo.existsByUsuario("alice01")).thenReturn(false);
         when(eventoRepo.findById(1L)).thenReturn(Optional.of(evento));
-        when(participanteRepo.save(any(Participante.class))).thenReturn(guardado);
+        when(participanteRepo.saveAndFlush(any(Participante.class))).thenReturn(guardado);
 
         ParticipanteResponseDTO result = participanteServicio.crearParticipante(dto);
 
@@ -152,6 +181,60 @@ class ParticipanteServiceTest {
         assertThat(result.getUsuario()).isEqualTo("alice01");
         verify(participanteRepo).existsByUsuario("alice01");
         verify(eventoRepo).findById(1L);
-        verify(participanteRepo).save(any(Participante.class));
+        verify(participanteRepo).saveAndFlush(any(Participante.class));
+    }
+
+    @Test
+    void crearParticipanteShouldAnswerConflictWhenUniqueConstraintFires() {
+        Evento evento = Evento.builder().id(1L).nombre("Evento Test").build();
+        ParticipanteRequestDTO dto = new ParticipanteRequestDTO("Alice", "alice01", "password", 1L);
+
+        // Registrado a la vez por otra instancia: la comprobación no lo ve, la restricción sí
+        when(participanteRepo.existsByUsuario("alice01")).thenReturn(false);
+        when(eventoRepo.findById(1L)).thenReturn(Optional.of(evento));
+        when(participanteRepo.saveAndFlush(any(Participante.class)))
+                .thenThrow(new DataIntegrityViolationException("UK_PARTICIPANTE_USUARIO"));
+
+        assertThatExceptionOfType(UsuarioYaExisteException.class)
+                .isThrownBy(() -> participanteServicio.crearParticipante(dto));
+        verify(disponibilidad, never()).registrar("alice01");
+    }
+
+    @Test
+    void crearParticipanteShouldSkipUsuarioCheckWhenFilterRulesItOut() {
+        Evento evento = Evento.builder().id(1L).nombre("Evento Test").build();
+        ParticipanteRequestDTO dto = new ParticipanteRequestDTO("Alice", "alice01", "password", 1L);
+        Participante guardado = Participante.builder().id(10L).nombre("Alice").usuario("alice01").evento(evento).build();
+
+        when(disponibilidad.puedeExistir("alice01")).thenReturn(false);
+        when(eventoRepo.findById(1L)).thenReturn(Optional.of(evento));
+        when(participanteRepo.saveAndFlush(any(Participante.class))).thenReturn(guardado);
+
+        participanteServicio.crearParticipante(dto);
+
+        verify(participanteRepo, never()).existsByUsuario(anyString());
+        verify(disponibilidad).registrar("alice01");
+    }
+
+    @Test
+    void crearParticipantesShouldValidateWholeBatchAndKeepOrder() {
+        Evento evento = Evento.builder().id(1L).nombre("Evento Test").build();
+        List<ParticipanteRequestDTO> dtos = List.of(
+                new ParticipanteRequestDTO("Alice", "alice01", "password123", 1L),
+                new ParticipanteRequestDTO("Bob", "bob0001", "password123", 1L),
+                new ParticipanteRequestDTO("Carol", "carol01", "password123", 99L),
+                new ParticipanteRequestDTO("Alice bis", "alice01", "password123", 1L));
+
+        when(participanteRepo.usuariosRegistrados(anyCollection())).thenReturn(Set.of("bob0001"));
+        when(eventoRepo.findAllById(anyIterable())).thenReturn(List.of(evento));
+
+        List<ResultadoAltaDTO> resultados = participanteServicio.crearParticipantes(dtos);
+
+        assertThat(resultados).hasSize(4);
+        assertThat(resultados.get(0).getParticipante().getUsuario()).isEqualTo("alice01");
+        assertThat(resultados.get(1).getError()).contains("bob0001");
+        assertThat(resultados.get(2).getError()).contains("99");
+        assertThat(resultados.get(3).getError()).contains("alice01");
+        verify(participanteRepo).saveAllAndFlush(argThat(nuevos -> ((List<?>) nuevos).size() == 1));
     }
 }
@@ -0,0 +1,81 @@
+package daw2a.gestioneventos.servicio;
+
+import daw2a.gestioneventos.config.FragmentosProperties;
+import daw2a.gestioneventos.config.PurgaProperties;
+import daw2a.gestioneventos.dominio.Evento;
+import daw2a.gestioneventos.dominio.Participante;
+import daw2a.gestioneventos.repo.EventoRepo;
+import daw2a.gestioneventos.repo.Fragmentos;
+import daw2a.gestioneventos.repo.ParticipanteRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {"gestioneventos.purga.tamano-lote=2", "gestioneventos.purga.pausa=0"})
+@Import({PurgadoEliminados.class, Fragmentos.class, PurgadoEliminadosTest.Configuracion.class})
+class PurgadoEliminadosTest {
+
+    @Autowired
+    private PurgadoEliminados purgadoEliminados;
+
+    @Autowired
+    private EventoRepo eventoRepo;
+
+    @Autowired
+    private ParticipanteRepo participanteRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    @Test
+    void purgarShouldPhysicallyDeleteMarkedRowsInChunks() throws Exception {
+        Evento borrado = eventoRepo.save(Evento.builder().nombre("Borrado").descripcion("x").build());
+        Evento vivo = eventoRepo.save(Evento.builder().nombre("Vivo").descripcion("y").build());
+        for (int i = 0; i < 5; i++) {
+            participanteRepo.save(Participante.builder().nombre("P" + i).usuario("borrado" + i)
+                    .contrasenia("secreto").evento(borrado).build());
+        }
+        participanteRepo.save(Participante.builder().nombre("Q").usuario("vivo000")
+                .contrasenia("secreto").evento(vivo).build());
+        participanteRepo.marcarEliminadosPorEvento(borrado.getId());
+        eventoRepo.marcarEliminado(borrado.getId());
+        purgadoEliminados.actualizarPendientes();
+
+        assertThat(registro.get("gestioneventos.purga.pendientes").tag("tabla", "participante").gauge().value())
+                .isEqualTo(5);
+
+        purgadoEliminados.purgar();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from participante", Long.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from evento", Long.class)).isEqualTo(1);
+        assertThat(eventoRepo.findById(vivo.getId())).isPresent();
+        // 5 participantes en lotes de 2: 2 + 2 + 1
+        assertThat(registro.get("gestioneventos.purga.filas").tag("tabla", "participante").counter().count())
+                .isEqualTo(5);
+        assertThat(registro.get("gestioneventos.purga.lote").tag("tabla", "participante").timer().count())
+                .isEqualTo(3);
+        assertThat(registro.get("gestioneventos.purga.pendientes").tag("tabla", "evento").gauge().value())
+                .isZero();
+    }
+
+    @TestConfiguration
+    @EnableConfigurationProperties({PurgaProperties.class, FragmentosProperties.class})
+    static class Configuracion {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package daw2a.gestioneventos.servicio;
+
+import daw2a.gestioneventos.exception.EventoNoEncontradoException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class VueloUnicoTest {
+
+    private static final int HILOS = 50;
+
+    private final VueloUnico<Long, String> vuelos = new VueloUnico<>(Duration.ofMinutes(1), EventoNoEncontradoException.class);
+
+    @Test
+    void concurrentCallsForSameKeyShouldShareOneLoad() throws Exception {
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch todosEsperando = new CountDownLatch(1);
+
+        List<Future<String>> resultados = lanzar(() -> vuelos.obtener(1L, () -> {
+            cargas.incrementAndGet();
+            esperar(todosEsperando);
+            return "evento 1";
+        }));
+        // La primera carga no termina hasta que todos los hilos se han sumado a ella
+        while (vuelos.enVuelo() == 0) {
+            Thread.onSpinWait();
+        }
+        Thread.sleep(100);
+        todosEsperando.countDown();
+
+        for (Future<String> resultado : resultados) {
+            assertThat(resultado.get(5, TimeUnit.SECONDS)).isEqualTo("evento 1");
+        }
+        assertThat(cargas.get()).isEqualTo(1);
+        assertThat(vuelos.enVuelo()).isZero();
+    }
+
+    @Test
+    void notFoundShouldReachAllWaitersAndBeRememberedUntilInvalidated() {
+        AtomicInteger cargas = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertThatExceptionOfType(EventoNoEncontradoException.class)
+                    .isThrownBy(() -> vuelos.obtener(9L, () -> {
+                        cargas.incrementAndGet();
+                        throw new EventoNoEncontradoException(9L);
+                    }));
+        }
+        assertThat(cargas.get()).isEqualTo(1);
+
+        vuelos.invalidar(9L);
+        assertThat(vuelos.obtener(9L, () -> "creado")).isEqualTo("creado");
+    }
+
+    @Test
+    void otherExceptionsShouldNotBeRemembered() {
+        AtomicInteger cargas = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThatExceptionOfType(IllegalStateException.class)
+                    .isThrownBy(() -> vuelos.obtener(3L, () -> {
+                        cargas.incrementAndGet();
+                        throw new IllegalStateException("base de datos caída");
+                    }));
+        }
+        assertThat(cargas.get()).isEqualTo(2);
+    }
+
+    private static List<Future<String>> lanzar(java.util.concurrent.Callable<String> tarea) {
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        List<Future<String>> resultados = new ArrayList<>();
+        for (int i = 0; i < HILOS; i++) {
+            resultados.add(hilos.submit(tarea));
+        }
+        hilos.shutdown();
+        return resultados;
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package daw2a.gestioneventos.web;
+
+import daw2a.gestioneventos.dto.SugerenciaDTO;
+import daw2a.gestioneventos.exception.CampoNoValidoException;
+import daw2a.gestioneventos.servicio.Autocompletado;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AutocompletarControlador.class)
+class AutocompletarControladorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private Autocompletado autocompletado;
+
+    @Test
+    void autocompletarShouldReturnSuggestions() throws Exception {
+        when(autocompletado.buscar("usuario", "ana", 5))
+                .thenReturn(List.of(new SugerenciaDTO(11L, "anabel", 2L)));
+
+        mockMvc.perform(get("/api/v1/autocompletar")
+                        .param("campo", "usuario")
+                        .param("prefijo", "ana")
+                        .param("tope", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(11))
+                .andExpect(jsonPath("$[0].texto").value("anabel"))
+                .andExpect(jsonPath("$[0].eventoId").value(2));
+    }
+
+    @Test
+    void unknownFieldShouldReturnBadRequest() throws Exception {
+        when(autocompletado.buscar("organizador", "a", 10))
+                .thenThrow(new CampoNoValidoException("organizador", List.of("evento", "usuario")));
+
+        mockMvc.perform(get("/api/v1/autocompletar")
+                        .param("campo", "organizador")
+                        .param("prefijo", "a"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+}
@@ -0,0 +1,96 @@
+package daw2a.gestioneventos.web;
+
+import daw2a.gestioneventos.dominio.Organizador;
+import daw2a.gestioneventos.dto.EventoRequestDTO;
+import daw2a.gestioneventos.repo.OrganizadorRepo;
+import daw2a.gestioneventos.servicio.EventoServicio;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Con servidor real: MockMvc no deja leer un flujo SSE que no termina
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "gestioneventos.datos-ejemplo.habilitado=false")
+class CambiosControladorTest {
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private EventoServicio eventoServicio;
+
+    @Autowired
+    private OrganizadorRepo organizadorRepo;
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    @Test
+    void streamShouldDeliverCommittedChangesAndResumeFromLastEventId() throws Exception {
+        Long organizadorId = organizadorRepo.save(Organizador.builder().nombre("SSE").build()).getId();
+
+        try (BufferedReader flujo = abrir(null)) {
+            Long eventoId = eventoServicio.crearEvento(
+                    new EventoRequestDTO("Evento SSE", "d", null, null, organizadorId)).getId();
+
+            List<String> lineas = leerEvento(flujo);
+            assertThat(lineas).contains("event:evento.creado");
+            assertThat(lineas).anyMatch(l -> l.startsWith("data:") && l.contains("\"id\":" + eventoId));
+            String id = lineas.stream().filter(l -> l.startsWith("id:")).findFirst().orElseThrow().substring(3);
+
+            eventoServicio.eliminarEvento(eventoId);
+
+            // Reconexión: sólo llega lo posterior al último id recibido
+            try (BufferedReader reanudado = abrir(id)) {
+                assertThat(leerEvento(reanudado)).contains("event:evento.eliminado");
+            }
+        }
+    }
+
+    @Test
+    void unknownLastEventIdShouldAskClientToReload() throws Exception {
+        try (BufferedReader flujo = abrir(String.valueOf(Long.MAX_VALUE))) {
+            assertThat(leerEvento(flujo)).contains("event:" + CambiosControlador.REINICIO);
+        }
+    }
+
+    private BufferedReader abrir(String ultimoId) throws Exception {
+        HttpRequest.Builder peticion = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + puerto + "/api/v1/eventos/cambios"))
+                .header("Accept", "text/event-stream");
+        if (ultimoId != null) {
+            peticion.header("Last-Event-ID", ultimoId);
+        }
+        HttpResponse<InputStream> respuesta = cliente.send(peticion.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(respuesta.statusCode()).isEqualTo(200);
+        return new BufferedReader(new InputStreamReader(respuesta.body(), StandardCharsets.UTF_8));
+    }
+
+    // Líneas del siguiente evento SSE (hasta la línea en blanco), sin comentarios de latido
+    private static List<String> leerEvento(BufferedReader flujo) throws Exception {
+        List<String> lineas = new ArrayList<>();
+        String linea;
+        while ((linea = flujo.readLine()) != null) {
+            if (linea.isEmpty() && !lineas.isEmpty()) {
+                return lineas;
+            }
+            if (!linea.isEmpty() && !linea.startsWith(":")) {
+                lineas.add(linea);
+            }
+        }
+        return lineas;
+    }
+}
@@ -0,0 +1,62 @@
+package daw2a.gestioneventos.web;
+
+import daw2a.gestioneventos.config.CompartimentosProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompartimentoTest {
+
+    private final SimpleMeterRegistry registro = new SimpleMeterRegistry();
+
+    @Test
+    void entrarShouldAdmitUpToPermitsThenRejectWhenQueueIsFull() throws InterruptedException {
+        Compartimento compartimento = new Compartimento("escrituras",
+                new CompartimentosProperties.Grupo(2, 0, Duration.ofSeconds(5), 1, Duration.ofSeconds(1)), registro);
+
+        assertThat(compartimento.entrar()).isEqualTo(Compartimento.Admision.ADMITIDA);
+        assertThat(compartimento.entrar()).isEqualTo(Compartimento.Admision.ADMITIDA);
+        assertThat(compartimento.entrar()).isEqualTo(Compartimento.Admision.COLA_LLENA);
+        assertThat(compartimento.activas()).isEqualTo(2);
+
+        compartimento.salir();
+        assertThat(compartimento.entrar()).isEqualTo(Compartimento.Admision.ADMITIDA);
+        assertThat(registro.get("gestioneventos.compartimento.rechazadas").tag("motivo", "cola-llena").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void queuedRequestShouldGetPermitWhenReleasedOrTimeOut() throws Exception {
+        Compartimento compartimento = new Compartimento("lecturas",
+                new CompartimentosProperties.Grupo(1, 1, Duration.ofMillis(50), 1, Duration.ofSeconds(1)), registro);
+        assertThat(compartimento.entrar()).isEqualTo(Compartimento.Admision.ADMITIDA);
+
+        // Nadie suelta el permiso a tiempo
+        assertThat(compartimento.entrar()).isEqualTo(Compartimento.Admision.ESPERA_AGOTADA);
+        assertThat(compartimento.enCola()).isZero();
+
+        Compartimento lento = new Compartimento("lento",
+                new CompartimentosProperties.Grupo(1, 1, Duration.ofSeconds(5), 1, Duration.ofSeconds(1)), registro);
+        assertThat(lento.entrar()).isEqualTo(Compartimento.Admision.ADMITIDA);
+        CompletableFuture<Compartimento.Admision> enCola = CompletableFuture.supplyAsync(() -> {
+            try {
+                return lento.entrar();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (lento.enCola() == 0) {
+            Thread.sleep(1);
+        }
+        // La cola (1) está llena
+        assertThat(lento.entrar()).isEqualTo(Compartimento.Admision.COLA_LLENA);
+
+        lento.salir();
+        assertThat(enCola.get(2, TimeUnit.SECONDS)).isEqualTo(Compartimento.Admision.ADMITIDA);
+    }
+}
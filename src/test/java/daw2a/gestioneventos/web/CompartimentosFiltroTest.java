@@ -0,0 +1,68 @@
+package daw2a.gestioneventos.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import daw2a.gestioneventos.config.CompartimentosProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompartimentosFiltroTest {
+
+    private Compartimento lecturas;
+    private Compartimento escrituras;
+    private CompartimentosFiltro filtro;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        CompartimentosProperties.Grupo uno = new CompartimentosProperties.Grupo(1, 0, Duration.ofMillis(10), 1,
+                Duration.ofSeconds(1));
+        lecturas = new Compartimento(CompartimentosProperties.LECTURAS, uno, registro);
+        escrituras = new Compartimento(CompartimentosProperties.ESCRITURAS, uno, registro);
+        filtro = new CompartimentosFiltro(Map.of(
+                CompartimentosProperties.LECTURAS, lecturas,
+                CompartimentosProperties.ESCRITURAS, escrituras),
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void requestShouldRunInItsCompartmentAndReleaseThePermit() throws Exception {
+        AtomicReference<String> durante = new AtomicReference<>();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest("POST", "/api/v1/participantes"), response,
+                (req, res) -> durante.set(CompartimentosFiltro.actual()));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(durante.get()).isEqualTo(CompartimentosProperties.ESCRITURAS);
+        assertThat(CompartimentosFiltro.actual()).isNull();
+        assertThat(escrituras.activas()).isZero();
+    }
+
+    @Test
+    void fullWriteCompartmentShouldNotBlockReads() throws Exception {
+        escrituras.entrar();
+
+        MockHttpServletResponse rechazada = peticion("PUT", "/api/v1/eventos/1");
+        assertThat(rechazada.getStatus()).isEqualTo(503);
+        assertThat(rechazada.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rechazada.getContentAsString()).contains("\"status\":503");
+
+        assertThat(peticion("GET", "/api/v1/eventos").getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse peticion(String metodo, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest(metodo, uri), response, new MockFilterChain());
+        return response;
+    }
+}
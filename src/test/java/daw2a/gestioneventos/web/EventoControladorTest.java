@@ -1,29 +1,54 @@
 package daw2a.gestioneventos.web;
 
+import daw2a.gestioneventos.config.CompartimentosProperties;
+import daw2a.gestioneventos.dto.CambioDTO;
+import daw2a.gestioneventos.dto.EliminacionEventoDTO;
 import daw2a.gestioneventos.dto.EventoRequestDTO;
 import daw2a.gestioneventos.dto.EventoResponseDTO;
+import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import daw2a.gestioneventos.dto.TipoCambio;
+import daw2a.gestioneventos.dto.VentanaDTO;
+import daw2a.gestioneventos.exception.CampoNoValidoException;
+import daw2a.gestioneventos.exception.EventoNoEncontradoException;
 import daw2a.gestioneventos.servicio.EventoServicio;
+import daw2a.gestioneventos.servicio.ExportacionParticipantes;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(EventoControlador.class)
+@Import(CacheJsonEventos.class)
 class EventoControladorTest {
 
     @Autowired
@@ -32,15 +57,24 @@ class EventoControladorTest {
     @MockBean
     private EventoServicio eventoServicio;
 
+    @MockBean
+    private ExportacionParticipantes exportacionParticipantes;
+
+    @MockBean
+    private Compartimento exportaciones;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CacheJsonEventos cacheJsonEventos;
+
     @Test
     void listShouldReturnPageOfEvents() throws Exception {
         EventoResponseDTO dto = new EventoResponseDTO(1L, "Prueba", "2024-12-01T10:00:00", "2024-12-02T10:00:00", 1L);
         Page<EventoResponseDTO> page = new PageImpl<>(List.of(dto), PageRequest.of(0, 10), 1);
 
-        when(eventoServicio.listarEventos(any())).thenReturn(page);
+        when(eventoServicio.listarEventos(any(), eq(false))).thenReturn(page);
 
         mockMvc.perform(get("/api/v1/eventos")
                 .param("page", "0")
@@ -52,6 +86,71 @@ class EventoControladorTest {
                 .andExpect(jsonPath("$.totalElements").value(1));
     }
 
+    @Test
+    void listShouldReturnFlatPageEnvelope() throws Exception {
+        EventoResponseDTO dto = new EventoResponseDTO(1L, "Prueba", "2024-12-01T10:00:00", "2024-12-02T10:00:00", 1L);
+        Page<EventoResponseDTO> page = new PageImpl<>(List.of(dto), PageRequest.of(0, 10), 1);
+
+        when(eventoServicio.listarEventos(any(), eq(false))).thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/eventos")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.number").value(0))
+                .andExpect(jsonPath("$.size").value(10))
+                .andExpect(jsonPath("$.totalPages").value(1))
+                .andExpect(jsonPath("$.pageable").doesNotExist())
+                .andExpect(jsonPath("$.sort").doesNotExist());
+    }
+
+    @Test
+    void listShouldIncludeArchivedWhenAsked() throws Exception {
+        EventoResponseDTO dto = new EventoResponseDTO(1L, "Pasado", "2020-12-01T10:00:00", "2020-12-02T10:00:00", 1L);
+        Page<EventoResponseDTO> page = new PageImpl<>(List.of(dto), PageRequest.of(0, 10), 1);
+
+        when(eventoServicio.listarEventos(any(), eq(true))).thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/eventos")
+                .param("incluirArchivados", "true")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].nombre").value("Pasado"));
+    }
+
+    @Test
+    void listShouldNegotiateCbor() throws Exception {
+        EventoResponseDTO dto = new EventoResponseDTO(1L, "Prueba", "2024-12-01T10:00:00", "2024-12-02T10:00:00", 1L);
+        Page<EventoResponseDTO> page = new PageImpl<>(List.of(dto), PageRequest.of(0, 10), 1);
+
+        when(eventoServicio.listarEventos(any(), eq(false))).thenReturn(page);
+
+        MvcResult result = mockMvc.perform(get("/api/v1/eventos")
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        JsonNode body = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(body.path("content").get(0).path("nombre").asText()).isEqualTo("Prueba");
+        assertThat(body.path("totalElements").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    void getByIdShouldNegotiateSmile() throws Exception {
+        EventoResponseDTO dto = new EventoResponseDTO(1L, "Prueba", "2024-12-01T10:00:00", "2024-12-02T10:00:00", 1L);
+
+        when(eventoServicio.obtenEventoPorId(1L)).thenReturn(dto);
+
+        MvcResult result = mockMvc.perform(get("/api/v1/eventos/id/1")
+                .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode body = new SmileMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(body.path("id").asLong()).isEqualTo(1L);
+        assertThat(body.path("nombre").asText()).isEqualTo("Prueba");
+    }
+
     @Test
     void getByIdShouldReturnEvent() throws Exception {
         EventoResponseDTO dto = new EventoResponseDTO(1L, "Prueba", "2024-12-01T10:00:00", "2024-12-02T10:00:00", 1L);
@@ -65,6 +164,59 @@ class EventoControladorTest {
                 .andExpect(jsonPath("$.nombre").value("Prueba"));
     }
 
+    @Test
+    void getByIdShouldServeCachedJsonWithEtagAndNotModified() throws Exception {
+        EventoResponseDTO dto = new EventoResponseDTO(7L, "Prueba", "2024-12-01T10:00:00", "2024-12-02T10:00:00", 1L);
+
+        when(eventoServicio.obtenEventoPorId(7L)).thenReturn(dto);
+
+        MvcResult result = mockMvc.perform(get("/api/v1/eventos/id/7")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.nombre").value("Prueba"))
+                .andReturn();
+        String etag = result.getResponse().getHeader("ETag");
+        assertThat(result.getResponse().getContentLength()).isEqualTo(result.getResponse().getContentAsByteArray().length);
+
+        mockMvc.perform(get("/api/v1/eventos/id/7")
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+        verify(eventoServicio, times(1)).obtenEventoPorId(7L);
+    }
+
+    @Test
+    void getByIdShouldReloadAfterEventUpdated() throws Exception {
+        when(eventoServicio.obtenEventoPorId(8L))
+                .thenReturn(new EventoResponseDTO(8L, "Antes", null, null, 1L))
+                .thenReturn(new EventoResponseDTO(8L, "Después", null, null, 1L));
+
+        mockMvc.perform(get("/api/v1/eventos/id/8"))
+                .andExpect(jsonPath("$.nombre").value("Antes"));
+        cacheJsonEventos.alConfirmar(CambioDTO.evento(TipoCambio.ACTUALIZADO, 8L));
+
+        mockMvc.perform(get("/api/v1/eventos/id/8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombre").value("Después"));
+    }
+
+    @Test
+    void participantesShouldReturnKeysetWindowFilteredByPrefix() throws Exception {
+        ParticipanteResponseDTO p = new ParticipanteResponseDTO(12L, "Ana", "ana001", 1L, "Prueba");
+        when(eventoServicio.listarParticipantes(1L, 10L, "an", 100))
+                .thenReturn(new VentanaDTO<>(List.of(p), 100, null, null));
+
+        mockMvc.perform(get("/api/v1/eventos/1/participantes")
+                .param("despues", "10")
+                .param("prefijo", "an")
+                .param("size", "100")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].usuario").value("ana001"))
+                .andExpect(jsonPath("$.siguiente").doesNotExist());
+    }
+
     @Test
     void getByNombreShouldReturnEvent() throws Exception {
         EventoResponseDTO dto = new EventoResponseDTO(1L, "Prueba", "2024-12-01T10:00:00", "2024-12-02T10:00:00", 1L);
@@ -118,7 +270,101 @@ class EventoControladorTest {
 
     @Test
     void deleteShouldReturnNoContent() throws Exception {
+        when(eventoServicio.eliminarEvento(1L)).thenReturn(new EliminacionEventoDTO(1L, 3));
+
         mockMvc.perform(delete("/api/v1/eventos/1"))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("X-Participantes-Eliminados", "3"));
+    }
+
+    @Test
+    void listWithFieldsShouldReturnOnlyRequestedFields() throws Exception {
+        Map<String, Object> fila = new LinkedHashMap<>();
+        fila.put("id", 1L);
+        fila.put("nombre", "Prueba");
+        Page<Map<String, Object>> page = new PageImpl<>(List.of(fila), PageRequest.of(0, 10), 1);
+
+        when(eventoServicio.listarEventos(any(), eq(List.of("id", "nombre")), eq(false))).thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/eventos")
+                .param("fields", "id,nombre")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].nombre").value("Prueba"))
+                .andExpect(jsonPath("$.content[0].fechaInicio").doesNotExist())
+                .andExpect(jsonPath("$.content[0].organizadorId").doesNotExist());
+    }
+
+    @Test
+    void getByIdWithUnknownFieldShouldReturnBadRequest() throws Exception {
+        when(eventoServicio.obtenEventoPorId(eq(1L), any()))
+                .thenThrow(new CampoNoValidoException("descripcion", List.of("id", "nombre")));
+
+        mockMvc.perform(get("/api/v1/eventos/id/1")
+                .param("fields", "descripcion")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    void loteShouldReturnEventsForIds() throws Exception {
+        EventoResponseDTO e1 = new EventoResponseDTO(1L, "Uno", null, null, 1L);
+        EventoResponseDTO e2 = new EventoResponseDTO(2L, "Dos", null, null, 1L);
+
+        when(eventoServicio.obtenEventosPorIds(List.of(2L, 1L))).thenReturn(List.of(e2, e1));
+
+        mockMvc.perform(get("/api/v1/eventos/lote")
+                .param("ids", "2,1")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[1].id").value(1));
+    }
+
+    @Test
+    void exportShouldStreamAttachmentInRequestedFormat() throws Exception {
+        when(exportaciones.entrar()).thenReturn(Compartimento.Admision.ADMITIDA);
+        List<String> compartimentos = new ArrayList<>();
+        doAnswer(invocacion -> {
+            compartimentos.add(CompartimentosFiltro.actual());
+            invocacion.getArgument(2, OutputStream.class).write("id,nombre,usuario\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportacionParticipantes).escribir(eq(1L), eq(ExportacionParticipantes.Formato.CSV), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/eventos/1/participantes/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"participantes-1.csv\""))
+                .andExpect(content().string("id,nombre,usuario\r\n"));
+        assertThat(compartimentos).containsExactly(CompartimentosProperties.LECTURAS);
+        assertThat(CompartimentosFiltro.actual()).isNull();
+        verify(exportaciones).salir();
+    }
+
+    @Test
+    void exportShouldReturn503WhenTooManyExportsRunning() throws Exception {
+        when(exportaciones.entrar()).thenReturn(Compartimento.Admision.COLA_LLENA);
+
+        mockMvc.perform(get("/api/v1/eventos/1/participantes/export"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+        verify(exportacionParticipantes, times(0)).escribir(any(), any(), any());
+        verify(exportaciones, times(0)).salir();
+    }
+
+    @Test
+    void exportShouldFailBeforeStreamingWhenEventNotExistsOrFormatUnknown() throws Exception {
+        doThrow(new EventoNoEncontradoException(9L)).when(exportacionParticipantes).comprobar(9L);
+
+        mockMvc.perform(get("/api/v1/eventos/9/participantes/export").param("formato", "xlsx"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/eventos/1/participantes/export").param("formato", "pdf"))
+                .andExpect(status().isBadRequest());
     }
 }
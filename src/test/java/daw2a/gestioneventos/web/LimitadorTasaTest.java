@@ -0,0 +1,65 @@
+package daw2a.gestioneventos.web;
+
+import daw2a.gestioneventos.config.LimiteTasaProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimitadorTasaTest {
+
+    private final AtomicLong reloj = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final LimitadorTasa limitador = new LimitadorTasa(1_000, reloj::get);
+    private final LimiteTasaProperties.Grupo grupo = new LimiteTasaProperties.Grupo(2, 3);
+
+    @Test
+    void intentarShouldAllowBurstThenRejectUntilTokenRefills() {
+        for (int i = 2; i >= 0; i--) {
+            LimitadorTasa.Decision decision = limitador.intentar("c1", grupo);
+            assertThat(decision.permitida()).isTrue();
+            assertThat(decision.restantes()).isEqualTo(i);
+        }
+
+        LimitadorTasa.Decision rechazada = limitador.intentar("c1", grupo);
+        assertThat(rechazada.permitida()).isFalse();
+        assertThat(rechazada.reintentarTras()).isEqualTo(1);
+
+        // 2 fichas por segundo: medio segundo después hay una más
+        reloj.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(limitador.intentar("c1", grupo).permitida()).isTrue();
+        assertThat(limitador.intentar("c1", grupo).permitida()).isFalse();
+    }
+
+    @Test
+    void intentarShouldKeepSeparateBucketsPerKey() {
+        for (int i = 0; i < 3; i++) {
+            limitador.intentar("c1", grupo);
+        }
+
+        assertThat(limitador.intentar("c1", grupo).permitida()).isFalse();
+        assertThat(limitador.intentar("c2", grupo).permitida()).isTrue();
+    }
+
+    @Test
+    void purgarShouldDropOnlyFullBuckets() {
+        limitador.intentar("antiguo", grupo);
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        limitador.intentar("reciente", grupo);
+
+        limitador.purgar();
+
+        assertThat(limitador.cubos()).isEqualTo(1);
+    }
+
+    @Test
+    void bucketsShouldStayWithinMaxClients() {
+        LimitadorTasa acotado = new LimitadorTasa(100, reloj::get);
+        for (int i = 0; i < 10_000; i++) {
+            acotado.intentar("cliente" + i, grupo);
+        }
+
+        assertThat(acotado.cubos()).isLessThanOrEqualTo(100);
+    }
+}
@@ -0,0 +1,78 @@
+package daw2a.gestioneventos.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import daw2a.gestioneventos.config.LimiteTasaProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimiteTasaFiltroTest {
+
+    private LimiteTasaFiltro filtro;
+
+    @BeforeEach
+    void setUp() {
+        LimiteTasaProperties propiedades = new LimiteTasaProperties();
+        propiedades.setGrupos(Map.of(
+                LimiteTasaProperties.LECTURAS, new LimiteTasaProperties.Grupo(1, 2),
+                LimiteTasaProperties.ALTAS, new LimiteTasaProperties.Grupo(1, 1)));
+        propiedades.setClavesApi(Set.of("cliente-a", "cliente-b"));
+        filtro = new LimiteTasaFiltro(new LimitadorTasa(1_000), propiedades,
+                new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void readsOverBurstShouldGetTooManyRequestsWithRateLimitHeaders() throws Exception {
+        MockHttpServletResponse primera = peticion("GET", "/api/v1/eventos", "cliente-a");
+        assertThat(primera.getStatus()).isEqualTo(200);
+        assertThat(primera.getHeader("RateLimit-Limit")).isEqualTo("2");
+        assertThat(primera.getHeader("RateLimit-Remaining")).isEqualTo("1");
+
+        peticion("GET", "/api/v1/eventos", "cliente-a");
+        MockHttpServletResponse rechazada = peticion("GET", "/api/v1/eventos/id/1", "cliente-a");
+
+        assertThat(rechazada.getStatus()).isEqualTo(429);
+        assertThat(rechazada.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rechazada.getHeader("RateLimit-Remaining")).isEqualTo("0");
+        assertThat(rechazada.getContentAsString()).contains("\"status\":429");
+        // Otro cliente tiene su propio cubo
+        assertThat(peticion("GET", "/api/v1/eventos", "cliente-b").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void registrationsShouldUseTheirOwnGroupAndOtherWritesAreNotLimited() throws Exception {
+        assertThat(peticion("POST", "/api/v1/participantes", "cliente-a").getStatus()).isEqualTo(200);
+        assertThat(peticion("POST", "/api/v1/participantes", "cliente-a").getStatus()).isEqualTo(429);
+
+        assertThat(peticion("GET", "/api/v1/participantes", "cliente-a").getStatus()).isEqualTo(200);
+        MockHttpServletResponse otra = peticion("PUT", "/api/v1/eventos/1", "cliente-a");
+        assertThat(otra.getStatus()).isEqualTo(200);
+        assertThat(otra.getHeader("RateLimit-Limit")).isNull();
+    }
+
+    @Test
+    void unknownKeysShouldShareTheirAddressBucket() throws Exception {
+        assertThat(peticion("GET", "/api/v1/eventos", "inventada-1").getStatus()).isEqualTo(200);
+        assertThat(peticion("GET", "/api/v1/eventos", "inventada-2").getStatus()).isEqualTo(200);
+        // Una clave nueva en cada petición no da ráfaga nueva: todas cuentan contra la IP
+        assertThat(peticion("GET", "/api/v1/eventos", "inventada-3").getStatus()).isEqualTo(429);
+        assertThat(peticion("GET", "/api/v1/eventos", "cliente-a").getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse peticion(String metodo, String uri, String cliente) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, uri);
+        request.addHeader("X-Api-Key", cliente);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
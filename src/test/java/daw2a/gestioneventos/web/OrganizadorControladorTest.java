@@ -1,7 +1,12 @@
 package daw2a.gestioneventos.web;
 
+import daw2a.gestioneventos.dto.EventoResponseDTO;
+import daw2a.gestioneventos.dto.OrganizadorConteoDTO;
 import daw2a.gestioneventos.dto.OrganizadorRequestDTO;
 import daw2a.gestioneventos.dto.OrganizadorResponseDTO;
+import daw2a.gestioneventos.dto.VentanaDTO;
+import daw2a.gestioneventos.exception.OrganizadorDuplicadoException;
+import daw2a.gestioneventos.exception.OrganizadorNotFoundException;
 import daw2a.gestioneventos.servicio.OrganizadorServicio;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -78,4 +83,57 @@ class OrganizadorControladorTest {
                 .andExpect(jsonPath("$.id").value(5))
                 .andExpect(jsonPath("$.nombre").value("ACME"));
     }
+
+    @Test
+    void getByIdWithSoloConteoShouldReturnEventCount() throws Exception {
+        when(organizadorServicio.obtenerConteoPorId(1L)).thenReturn(new OrganizadorConteoDTO(1L, "ACME", 100_000));
+
+        mockMvc.perform(get("/api/v1/organizadores/1")
+                .param("soloConteo", "true")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.numEventos").value(100_000))
+                .andExpect(jsonPath("$.eventosIds").doesNotExist());
+    }
+
+    @Test
+    void eventosShouldReturnKeysetWindow() throws Exception {
+        EventoResponseDTO evento = new EventoResponseDTO(8L, "Prueba", null, null, 1L);
+        when(organizadorServicio.listarEventos(1L, 7L, 1))
+                .thenReturn(new VentanaDTO<>(List.of(evento), 1, 8L, null));
+
+        mockMvc.perform(get("/api/v1/organizadores/1/eventos")
+                .param("despues", "7")
+                .param("size", "1")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(8))
+                .andExpect(jsonPath("$.siguiente").value(8))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getByIdShouldReturnNotFoundError() throws Exception {
+        when(organizadorServicio.obtenerPorId(9L)).thenThrow(new OrganizadorNotFoundException(9L));
+
+        mockMvc.perform(get("/api/v1/organizadores/9")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.error").value("Not Found"))
+                .andExpect(jsonPath("$.message").value("No se encontró el organizador con id=9"))
+                .andExpect(jsonPath("$.path").value("/api/v1/organizadores/9"));
+    }
+
+    @Test
+    void createDuplicateShouldReturnConflict() throws Exception {
+        when(organizadorServicio.crearOrganizador(any(OrganizadorRequestDTO.class)))
+                .thenThrow(new OrganizadorDuplicadoException("ACME"));
+
+        mockMvc.perform(post("/api/v1/organizadores")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new OrganizadorRequestDTO("ACME"))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+    }
 }
@@ -1,22 +1,34 @@
 package daw2a.gestioneventos.web;
 
+import daw2a.gestioneventos.dto.DisponibilidadDTO;
+import daw2a.gestioneventos.dto.EstadoIngesta;
 import daw2a.gestioneventos.dto.ParticipanteRequestDTO;
 import daw2a.gestioneventos.dto.ParticipanteResponseDTO;
+import daw2a.gestioneventos.dto.TicketIngestaDTO;
+import daw2a.gestioneventos.exception.ColaIngestaLlenaException;
+import daw2a.gestioneventos.exception.ParticipanteNotFoundException;
+import daw2a.gestioneventos.servicio.IngestaParticipantes;
 import daw2a.gestioneventos.servicio.ParticipanteServicio;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,6 +42,9 @@ class ParticipanteControladorTest {
     @MockBean
     private ParticipanteServicio participanteServicio;
 
+    @MockBean
+    private IngestaParticipantes ingestaParticipantes;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -38,7 +53,7 @@ class ParticipanteControladorTest {
         ParticipanteResponseDTO dto = new ParticipanteResponseDTO(1L, "Alice", "alice01", 1L, "Evento Test");
         Page<ParticipanteResponseDTO> page = new PageImpl<>(List.of(dto), PageRequest.of(0, 10), 1);
 
-        when(participanteServicio.listarParticipantes(any())).thenReturn(page);
+        when(participanteServicio.listarParticipantes(any(), eq(false))).thenReturn(page);
 
         mockMvc.perform(get("/api/v1/participantes")
                 .param("page", "0")
@@ -51,6 +66,17 @@ class ParticipanteControladorTest {
                 .andExpect(jsonPath("$.totalElements").value(1));
     }
 
+    @Test
+    void disponibleShouldReturnAvailability() throws Exception {
+        when(participanteServicio.usuarioDisponible("alice01")).thenReturn(new DisponibilidadDTO("alice01", false));
+
+        mockMvc.perform(get("/api/v1/participantes/disponible")
+                .param("usuario", "alice01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usuario").value("alice01"))
+                .andExpect(jsonPath("$.disponible").value(false));
+    }
+
     @Test
     void getByIdShouldReturnParticipante() throws Exception {
         ParticipanteResponseDTO dto = new ParticipanteResponseDTO(1L, "Alice", "alice01", 1L, "Evento Test");
@@ -65,6 +91,17 @@ class ParticipanteControladorTest {
                 .andExpect(jsonPath("$.usuario").value("alice01"));
     }
 
+    @Test
+    void getByIdShouldReturnNotFoundError() throws Exception {
+        when(participanteServicio.obtenerPorId(9L)).thenThrow(new ParticipanteNotFoundException(9L));
+
+        mockMvc.perform(get("/api/v1/participantes/9")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.message").value("Participante no encontrado con id: 9"));
+    }
+
     @Test
     void createShouldReturnCreated() throws Exception {
         ParticipanteRequestDTO requestDTO = new ParticipanteRequestDTO("Alice", "alice01", "password123", 1L);
@@ -80,4 +117,84 @@ class ParticipanteControladorTest {
                 .andExpect(jsonPath("$.nombre").value("Alice"))
                 .andExpect(jsonPath("$.usuario").value("alice01"));
     }
+
+    @Test
+    void createShouldReturnConflictWhenAConstraintFires() throws Exception {
+        ParticipanteRequestDTO requestDTO = new ParticipanteRequestDTO("Alice", "alice01", "password123", 1L);
+
+        when(participanteServicio.crearParticipante(any(ParticipanteRequestDTO.class)))
+                .thenThrow(new DataIntegrityViolationException("UK_PARTICIPANTE_USUARIO"));
+
+        mockMvc.perform(post("/api/v1/participantes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+    }
+
+    @Test
+    void createWithPreferRespondAsyncShouldReturnAcceptedTicket() throws Exception {
+        ParticipanteRequestDTO requestDTO = new ParticipanteRequestDTO("Alice", "alice01", "password123", 1L);
+        UUID ticket = UUID.randomUUID();
+
+        when(ingestaParticipantes.encolar(any(ParticipanteRequestDTO.class))).thenReturn(TicketIngestaDTO.pendiente(ticket));
+
+        mockMvc.perform(post("/api/v1/participantes")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/participantes/ingesta/" + ticket))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.ticket").value(ticket.toString()))
+                .andExpect(jsonPath("$.estado").value("PENDIENTE"));
+        verify(participanteServicio, never()).crearParticipante(any());
+    }
+
+    @Test
+    void createShouldGoAsyncWhenRespondAsyncComesWithOtherPreferences() throws Exception {
+        ParticipanteRequestDTO requestDTO = new ParticipanteRequestDTO("Alice", "alice01", "password123", 1L);
+        UUID ticket = UUID.randomUUID();
+
+        when(ingestaParticipantes.encolar(any(ParticipanteRequestDTO.class))).thenReturn(TicketIngestaDTO.pendiente(ticket));
+
+        for (String prefer : List.of("respond-async, wait=5", "return=minimal, Respond-Async", "respond-async; foo=bar")) {
+            mockMvc.perform(post("/api/v1/participantes")
+                    .header("Prefer", prefer)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(requestDTO)))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Preference-Applied", "respond-async"));
+        }
+        verify(participanteServicio, never()).crearParticipante(any());
+    }
+
+    @Test
+    void createAsyncWithFullQueueShouldReturnTooManyRequests() throws Exception {
+        ParticipanteRequestDTO requestDTO = new ParticipanteRequestDTO("Alice", "alice01", "password123", 1L);
+
+        when(ingestaParticipantes.encolar(any(ParticipanteRequestDTO.class)))
+                .thenThrow(new ColaIngestaLlenaException(Duration.ofSeconds(2)));
+
+        mockMvc.perform(post("/api/v1/participantes")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
+    @Test
+    void ingestionStatusShouldReturnTicketOutcome() throws Exception {
+        UUID ticket = UUID.randomUUID();
+
+        when(ingestaParticipantes.estado(ticket))
+                .thenReturn(new TicketIngestaDTO(ticket, EstadoIngesta.COMPLETADO, 7L, null));
+
+        mockMvc.perform(get("/api/v1/participantes/ingesta/" + ticket)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("COMPLETADO"))
+                .andExpect(jsonPath("$.participanteId").value(7));
+    }
 }